@@ -0,0 +1,26 @@
+package br.com.doit.commons.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks reportando, além da vazão, a taxa de alocação de memória de cada operação (usando o
+ * {@link GCProfiler}). Aceita as mesmas opções de linha de comando do JMH. Exemplos:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar
+ * java -jar target/benchmarks.jar ExcelImporterBenchmark -p rows=1000
+ * </pre>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.doit.commons.excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.doit.commons.excel.ExcelImporter.ReadingMode;
+
+/**
+ * Mede a importação de planilhas com quantidades diferentes de linhas em cada modo de leitura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelImporterBenchmark {
+    @Param({ "1000", "100000" })
+    private int rows;
+
+    @Param({ "IN_MEMORY", "STREAMING" })
+    private ReadingMode mode;
+
+    private byte[] spreadsheet;
+
+    private ExcelImporter importer;
+
+    @Benchmark
+    public List<Map<String, Object>> extractRows() {
+        return importer.extractRows(new ByteArrayInputStream(spreadsheet));
+    }
+
+    @Setup
+    public void setup() {
+        Map<String, Class<?>> config = new LinkedHashMap<>();
+
+        config.put("NAME", String.class);
+        config.put("AMOUNT", Integer.class);
+        config.put("CURRENCY", BigDecimal.class);
+        config.put("BOOLEAN", Boolean.class);
+        config.put("DATE", LocalDate.class);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new ExcelExporter(config).export(IntStream.range(0, rows).mapToObj(i -> {
+            Map<String, Object> row = new HashMap<>();
+
+            row.put("NAME", "Customer " + (i % 500));
+            row.put("AMOUNT", i);
+            row.put("CURRENCY", BigDecimal.valueOf(i, 2));
+            row.put("BOOLEAN", i % 2 == 0);
+            row.put("DATE", LocalDate.of(2018, 1, 1).plusDays(i % 365));
+
+            return row;
+        }), output);
+
+        spreadsheet = output.toByteArray();
+
+        importer = new ExcelImporter(config, mode);
+    }
+}
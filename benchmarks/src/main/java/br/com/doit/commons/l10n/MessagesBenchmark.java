@@ -0,0 +1,31 @@
+package br.com.doit.commons.l10n;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a formatação de mensagens com parâmetros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessagesBenchmark {
+    private final Messages messages = Messages.getMessages("br/com/doit/commons/excel/messages");
+
+    @Benchmark
+    public String format() {
+        return messages.format("MESSAGE_WITH_LINE_AND_COLUMN", "Unsupported cell type", 1234, "AB");
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.doit.commons.math;
+
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.D_HONDT;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.LARGEST_REMAINDER;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a distribuição proporcional de um valor entre quantidades diferentes de frações.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilsBenchmark {
+    private static final class Item implements Fraction {
+        private final BigDecimal quantity;
+        private final BigDecimal value;
+        private BigDecimal share;
+
+        private Item(BigDecimal quantity, BigDecimal value) {
+            this.quantity = quantity;
+            this.value = value;
+        }
+
+        @Override
+        public BigDecimal quantity() {
+            return quantity;
+        }
+
+        @Override
+        public void setShare(BigDecimal share) {
+            this.share = share;
+        }
+
+        @Override
+        public BigDecimal value() {
+            return value;
+        }
+    }
+
+    @Param({ "10", "1000", "50000" })
+    private int fractions;
+
+    private final BigDecimal amount = new BigDecimal("1234.57");
+
+    private final BigDecimal[] amounts = { new BigDecimal("1234.57"), new BigDecimal("89.90"), new BigDecimal("12.35"),
+            new BigDecimal("-45.00"), new BigDecimal("310.41"), new BigDecimal("27.77"), new BigDecimal("3.03"),
+            new BigDecimal("150.00") };
+
+    private Collection<Fraction> whole;
+
+    private BigDecimal[] values;
+
+    private BigDecimal[] quantities;
+
+    private long[] unscaledValues;
+
+    private long[] unscaledQuantities;
+
+    @Benchmark
+    public BigDecimal distribute() {
+        return MathUtils.distribute(amount).over(whole);
+    }
+
+    @Benchmark
+    public BigDecimal distributeUsingScaledLongs() {
+        return MathUtils.distribute(amount).usingScaledLongs().over(whole);
+    }
+
+    @Benchmark
+    public Allocation distributeOverArrays() {
+        return MathUtils.distribute(amount).over(values, quantities);
+    }
+
+    @Benchmark
+    public Allocation distributeOverUnscaledArrays() {
+        return MathUtils.distribute(amount).over(unscaledValues, 2, unscaledQuantities, 0);
+    }
+
+    @Benchmark
+    public Allocation distributeOverArraysInParallel() {
+        return MathUtils.distribute(amount).inParallel(ForkJoinPool.commonPool()).over(values, quantities);
+    }
+
+    @Benchmark
+    public Allocation distributeOverUnscaledArraysInParallel() {
+        return MathUtils.distribute(amount).inParallel(ForkJoinPool.commonPool()).over(unscaledValues, 2,
+                unscaledQuantities, 0);
+    }
+
+    @Benchmark
+    public Allocation[] distributeEachAmountOverArrays() {
+        Allocation[] allocations = new Allocation[amounts.length];
+
+        for (int i = 0; i < amounts.length; i++) {
+            allocations[i] = MathUtils.distribute(amounts[i]).over(values, quantities);
+        }
+
+        return allocations;
+    }
+
+    @Benchmark
+    public Allocations distributeManyAmountsOverArrays() {
+        return MathUtils.distribute(amounts).over(values, quantities);
+    }
+
+    @Benchmark
+    public Allocation distributeByLargestRemainders() {
+        return MathUtils.distribute(amount, LARGEST_REMAINDER).over(unscaledValues, 2, unscaledQuantities, 0);
+    }
+
+    @Benchmark
+    public Allocation distributeByHighestAverages() {
+        return MathUtils.distribute(amount, D_HONDT).over(unscaledValues, 2, unscaledQuantities, 0);
+    }
+
+    @Setup
+    public void setup() {
+        List<Fraction> items = new ArrayList<>(fractions);
+
+        values = new BigDecimal[fractions];
+        quantities = new BigDecimal[fractions];
+        unscaledValues = new long[fractions];
+        unscaledQuantities = new long[fractions];
+
+        for (int i = 0; i < fractions; i++) {
+            unscaledQuantities[i] = 1 + i % 7;
+            unscaledValues[i] = 100 + i * 37 % 1000;
+
+            quantities[i] = BigDecimal.valueOf(unscaledQuantities[i]);
+            values[i] = BigDecimal.valueOf(unscaledValues[i], 2);
+
+            items.add(new Item(quantities[i], values[i]));
+        }
+
+        whole = items;
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.doit.commons.stream;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a soma de valores com o coletor de <code>BigDecimal</code>s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigDecimalCollectorsBenchmark {
+    @Param({ "100", "100000" })
+    private int size;
+
+    private List<BigDecimal> values;
+
+    @Benchmark
+    public BigDecimal summing() {
+        return values.stream().collect(BigDecimalCollectors.summing(Function.identity()));
+    }
+
+    @Setup
+    public void setup() {
+        values = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            values.add(BigDecimal.valueOf(i * 31L % 100000, 2));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.doit.commons.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.doit.commons.text.FuzzyIndex.Match;
+
+/**
+ * Mede a busca dos 10 textos mais parecidos (com e sem uma semelhança mínima) em um índice de nomes de produtos gerados aleatoriamente. Os nomes combinam
+ * um tipo de produto, uma marca e uma variação (escolhidos de vocabulários de palavras geradas a partir de sílabas) com
+ * uma quantidade e unidade, e as buscas são nomes de produtos com um erro de digitação.
+ * <p>
+ * Tempos medidos com o JDK 8: com 100 mil nomes, cerca de 0.4 ms por busca com semelhança mínima de <code>0.7</code> e
+ * 2 ms sem semelhança mínima; com 1 milhão de nomes, cerca de 4.5 ms com semelhança mínima de <code>0.7</code> e 30 ms
+ * sem semelhança mínima.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FuzzyIndexBenchmark {
+    private static final String[] SYLLABLES = { "ba", "be", "bi", "bo", "ca", "ce", "co", "da", "de", "do", "fa", "fe", "ga", "go", "la", "le", "li", "lo", "ma", "me", "mi", "mo", "na", "ne", "no", "pa", "pe", "pi", "po", "ra", "re", "ri", "ro", "sa", "se", "si", "so", "ta", "te", "ti", "to", "va", "ve", "vi", "xa", "za" };
+
+    private static final String[] UNITS = { "g", "kg", "ml", "L", "un" };
+
+    @Param({ "100000", "1000000" })
+    private int size;
+
+    @Param({ "0.0", "0.7" })
+    private double minimumScore;
+
+    private FuzzyIndex index;
+
+    private String[] queries;
+
+    private int next;
+
+    private static String[] vocabulary(Random random, int size, int syllables) {
+        String[] words = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+
+            for (int j = 0; j < syllables + random.nextInt(2); j++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+
+            words[i] = word.toString();
+        }
+
+        return words;
+    }
+
+    private static String withTypo(Random random, String text) {
+        int position = random.nextInt(text.length());
+
+        return text.substring(0, position) + text.substring(position + 1);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        String[] products = vocabulary(random, 500, 3);
+        String[] brands = vocabulary(random, 5000, 3);
+        String[] variants = vocabulary(random, 200, 2);
+
+        List<String> keys = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            keys.add(products[random.nextInt(products.length)] + " " + brands[random.nextInt(brands.length)] + " " + variants[random.nextInt(variants.length)] + " " + (1 + random.nextInt(999)) + UNITS[random.nextInt(UNITS.length)]);
+        }
+
+        index = new FuzzyIndex(keys);
+
+        queries = new String[256];
+
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = withTypo(random, keys.get(random.nextInt(size)));
+        }
+    }
+
+    @Benchmark
+    public List<Match> search() {
+        return index.search(queries[next++ & (queries.length - 1)], 10, minimumScore);
+    }
+}
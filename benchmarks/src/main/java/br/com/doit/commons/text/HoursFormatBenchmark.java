@@ -0,0 +1,70 @@
+package br.com.doit.commons.text;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a formatação e a interpretação de minutos no formato de horas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoursFormatBenchmark {
+    @Param({ "5", "615", "123456" })
+    private int minutes;
+
+    private final HoursFormat format = new HoursFormat();
+
+    private final StringBuilder builder = new StringBuilder();
+
+    private String formatted;
+
+    @Setup
+    public void setup() {
+        formatted = format.format(minutes);
+    }
+
+    @Benchmark
+    public String format() {
+        return format.format(minutes);
+    }
+
+    @Benchmark
+    public int formatIntoBuilder() {
+        builder.setLength(0);
+
+        return format.format(minutes, builder).length();
+    }
+
+    @Benchmark
+    public int formatMinutes() {
+        builder.setLength(0);
+
+        return HoursFormat.formatMinutes(minutes, builder).length();
+    }
+
+    @Benchmark
+    public Object parse() throws ParseException {
+        return format.parseObject(formatted);
+    }
+
+    @Benchmark
+    public long parseMinutes() throws ParseException {
+        return HoursFormat.parseMinutes(formatted);
+    }
+}
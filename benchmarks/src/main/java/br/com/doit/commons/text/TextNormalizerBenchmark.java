@@ -0,0 +1,33 @@
+package br.com.doit.commons.text;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a normalização de textos com e sem caracteres acentuados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextNormalizerBenchmark {
+    @Param({ "Refrigerante Guaraná Antarctica 2L", "Pao de forma integral 500g", "AÇÚCAR REFINADO UNIÃO - 1KG (CAIXA C/ 10 UN.)" })
+    private String text;
+
+    @Benchmark
+    public String toAscii() {
+        return TextNormalizerUtils.toAscii(text);
+    }
+}
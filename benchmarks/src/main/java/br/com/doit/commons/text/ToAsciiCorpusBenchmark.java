@@ -0,0 +1,69 @@
+package br.com.doit.commons.text;
+
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mede a conversão para ASCII de um conjunto de textos formado por códigos de produto e e-mails (já em ASCII) misturados
+ * com descrições acentuadas, comparando com a conversão através de {@link Normalizer} e expressão regular.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToAsciiCorpusBenchmark {
+    private static final String[] ASCII_TEXTS = { "SKU-000123-AZ", "7891000315507", "joao.silva@example.com", "PRD/2024/00981", "contato@doit.com.br" };
+
+    private static final String[] ACCENTED_TEXTS = { "Refrigerante Guaraná Antarctica 2L", "AÇÚCAR REFINADO UNIÃO - 1KG", "Pão de forma integral 500g", "Café torrado e moído" };
+
+    private static final int CORPUS_SIZE = 1000;
+
+    @Param({ "0", "10", "50" })
+    private int accentedPercentage;
+
+    private String[] corpus;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        corpus = new String[CORPUS_SIZE];
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            String[] texts = random.nextInt(100) < accentedPercentage ? ACCENTED_TEXTS : ASCII_TEXTS;
+
+            corpus[i] = texts[random.nextInt(texts.length)];
+        }
+    }
+
+    @Benchmark
+    public void normalizerAndRegex(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(Normalizer.normalize(text, Form.NFD).replaceAll("[^\\p{ASCII}]", ""));
+        }
+    }
+
+    @Benchmark
+    public void toAscii(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(TextNormalizerUtils.toAscii(text));
+        }
+    }
+}
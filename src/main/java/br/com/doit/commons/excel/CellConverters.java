@@ -0,0 +1,122 @@
+package br.com.doit.commons.excel;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import com.webobjects.foundation.NSTimestamp;
+
+/**
+ * Registro imutável das funções usadas para converter o valor de uma célula do Excel para cada tipo suportado pelo
+ * {@link ExcelImporter}. O registro {@link #DEFAULT} contém as conversões padrão. Novos tipos podem ser suportados
+ * criando um novo registro através do método {@link #with(Class, Function)} e fornecendo esse registro ao
+ * {@link ExcelImporter}; o registro original não é alterado.
+ * <p>
+ * A função de conversão de um tipo é resolvida uma única vez e mantida em cache. Um tipo sem conversão registrada usa a
+ * conversão do primeiro tipo registrado do qual ele seja subtipo. Subtipos de <code>Enum</code> são convertidos a
+ * partir do nome da constante e os demais tipos são convertidos para <code>String</code>.
+ *
+ * @see Cells
+ */
+public final class CellConverters {
+    private static final Function<Cell, String> DEFAULT_CONVERTER = Cells::toString;
+
+    /**
+     * O registro com as conversões padrão.
+     */
+    public static final CellConverters DEFAULT = new CellConverters(Collections.emptyMap())
+            .with(Boolean.class, Cells::toBoolean)
+            .with(Integer.class, Cells::toInteger)
+            .with(BigDecimal.class, Cells::toBigDecimal)
+            .with(NSTimestamp.class, Cells::toDate)
+            .with(LocalDate.class, Cells::toLocalDate)
+            .with(LocalDateTime.class, Cells::toLocalDateTime)
+            .with(OffsetDateTime.class, Cells::toOffsetDateTime)
+            .with(Long.class, Cells::toLong)
+            .with(Short.class, Cells::toShort)
+            .with(Double.class, Cells::toDouble)
+            .with(UUID.class, Cells::toUUID)
+            .with(Instant.class, Cells::toInstant)
+            .with(String.class, DEFAULT_CONVERTER);
+
+    private final Map<Class<?>, Function<Cell, ?>> converters;
+
+    private final ClassValue<Function<Cell, ?>> cache = new ClassValue<Function<Cell, ?>>() {
+        @Override
+        protected Function<Cell, ?> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private CellConverters(Map<Class<?>, Function<Cell, ?>> converters) {
+        this.converters = converters;
+    }
+
+    /**
+     * Obtém a função que converte o valor de uma célula do Excel para o tipo fornecido por parâmetro.
+     *
+     * @param type
+     *            O tipo esperado para os objetos retornados pela função
+     * @return Retorna a função que converte o valor de uma célula de acordo com o tipo fornecido.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Function<Cell, T> converterFor(Class<T> type) {
+        return (Function<Cell, T>) cache.get(type);
+    }
+
+    /**
+     * Cria um novo registro com as conversões deste registro e a função usada para converter o valor de uma célula do
+     * Excel para o tipo informado, substituindo a conversão registrada anteriormente para esse tipo (caso exista).
+     * <p>
+     * A função recebe apenas células com algum conteúdo quando usada pelo {@link ExcelImporter}.
+     *
+     * @param type
+     *            O tipo dos objetos retornados pela função
+     * @param converter
+     *            A função que converte o valor de uma célula para o tipo informado
+     * @return Retorna o novo registro.
+     */
+    public <T> CellConverters with(Class<T> type, Function<Cell, ? extends T> converter) {
+        if (type == null || converter == null) {
+            throw new IllegalArgumentException("Both the type and the converter must be provided");
+        }
+
+        Map<Class<?>, Function<Cell, ?>> newConverters = new LinkedHashMap<>(converters);
+
+        newConverters.put(type, converter);
+
+        return new CellConverters(Collections.unmodifiableMap(newConverters));
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private Function<Cell, ?> resolve(Class<?> type) {
+        Function<Cell, ?> converter = converters.get(type);
+
+        if (converter != null) {
+            return converter;
+        }
+
+        if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            Class<? extends Enum> enumType = type.isEnum() ? (Class<? extends Enum>) type : (Class<? extends Enum>) type.getSuperclass();
+
+            return cell -> Cells.toEnum(cell, enumType);
+        }
+
+        for (Map.Entry<Class<?>, Function<Cell, ?>> entry : converters.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue();
+            }
+        }
+
+        return DEFAULT_CONVERTER;
+    }
+}
@@ -3,13 +3,17 @@ package br.com.doit.commons.excel;
 import static br.com.doit.commons.text.TextNormalizerUtils.toAscii;
 import static org.apache.commons.lang.BooleanUtils.toIntegerObject;
 import static org.apache.commons.lang.StringUtils.lowerCase;
+import static org.apache.commons.lang.StringUtils.upperCase;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
@@ -54,7 +58,28 @@ class Cells {
      * @return Retorna <code>true</code> se a célula não possuir conteúdo ou <code>false</code> caso contrário.
      */
     public static boolean isEmpty(Cell cell) {
-        return cell == null || cell.getCellType() == Cell.CELL_TYPE_BLANK || (cell.getCellType() == Cell.CELL_TYPE_STRING && StringUtils.isBlank(cell.getStringCellValue()));
+        if (cell == null) {
+            return true;
+        }
+
+        int valueType = valueTypeOf(cell);
+
+        return valueType == Cell.CELL_TYPE_BLANK || (valueType == Cell.CELL_TYPE_STRING && StringUtils.isBlank(cell.getStringCellValue()));
+    }
+
+    /**
+     * Obtém o tipo do valor de uma célula do Excel. Para células com fórmulas, retorna o tipo do resultado calculado
+     * da fórmula que foi gravado na planilha (a fórmula não é avaliada novamente).
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna o tipo do valor da célula (uma das constantes {@code Cell.CELL_TYPE_*}, exceto
+     *         {@code CELL_TYPE_FORMULA}).
+     */
+    public static int valueTypeOf(Cell cell) {
+        int cellType = cell.getCellType();
+
+        return cellType == Cell.CELL_TYPE_FORMULA ? cell.getCachedFormulaResultType() : cellType;
     }
 
     /**
@@ -71,7 +96,7 @@ class Cells {
             return null;
         }
 
-        switch (cell.getCellType()) {
+        switch (valueTypeOf(cell)) {
             case Cell.CELL_TYPE_BOOLEAN:
                 return BigDecimal.valueOf(toInteger(cell));
             case Cell.CELL_TYPE_NUMERIC:
@@ -97,11 +122,11 @@ class Cells {
             return null;
         }
 
-        switch (cell.getCellType()) {
+        switch (valueTypeOf(cell)) {
             case Cell.CELL_TYPE_BOOLEAN:
                 return cell.getBooleanCellValue();
             case Cell.CELL_TYPE_NUMERIC:
-                return BooleanUtils.toBooleanObject(Double.valueOf(cell.getNumericCellValue()).intValue());
+                return BooleanUtils.toBooleanObject((int) cell.getNumericCellValue());
             case Cell.CELL_TYPE_STRING:
                 String text = toAscii(cell.getStringCellValue());
 
@@ -181,11 +206,38 @@ class Cells {
             return null;
         }
 
-        switch (cell.getCellType()) {
+        switch (valueTypeOf(cell)) {
             case Cell.CELL_TYPE_BOOLEAN:
                 return toIntegerObject(cell.getBooleanCellValue());
             case Cell.CELL_TYPE_NUMERIC:
-                return Double.valueOf(cell.getNumericCellValue()).intValue();
+                return (int) cell.getNumericCellValue();
+            case Cell.CELL_TYPE_STRING:
+                return Integer.parseInt(cell.getStringCellValue().trim());
+            default:
+                throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
+        }
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para <code>int</code> sem criar objetos intermediários.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @param valueIfEmpty
+     *            O valor retornado caso a célula seja vazia
+     * @return Retorna o valor da célula como <code>int</code>, o valor padrão informado caso o valor da célula seja
+     *         vazio ou lança uma exceção caso o tipo de dado na célula não possa ser convertido para <code>int</code>.
+     */
+    public static int toIntValue(Cell cell, int valueIfEmpty) {
+        if (isEmpty(cell)) {
+            return valueIfEmpty;
+        }
+
+        switch (valueTypeOf(cell)) {
+            case Cell.CELL_TYPE_BOOLEAN:
+                return cell.getBooleanCellValue() ? 1 : 0;
+            case Cell.CELL_TYPE_NUMERIC:
+                return (int) cell.getNumericCellValue();
             case Cell.CELL_TYPE_STRING:
                 return Integer.parseInt(cell.getStringCellValue().trim());
             default:
@@ -193,6 +245,168 @@ class Cells {
         }
     }
 
+    /**
+     * Converte o valor de uma célula do Excel para <code>Long</code>.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna o valor da célula como <code>Long</code>, <code>null</code> caso o valor da célula seja vazio ou
+     *         lança uma exceção caso o tipo de dado na célula não possa ser convertido para <code>Long</code>.
+     */
+    public static Long toLong(Cell cell) {
+        if (isEmpty(cell)) {
+            return null;
+        }
+
+        switch (valueTypeOf(cell)) {
+            case Cell.CELL_TYPE_BOOLEAN:
+                return cell.getBooleanCellValue() ? 1L : 0L;
+            case Cell.CELL_TYPE_NUMERIC:
+                return (long) cell.getNumericCellValue();
+            case Cell.CELL_TYPE_STRING:
+                return Long.parseLong(cell.getStringCellValue().trim());
+            default:
+                throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
+        }
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para <code>Short</code>.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna o valor da célula como <code>Short</code>, <code>null</code> caso o valor da célula seja vazio
+     *         ou lança uma exceção caso o tipo de dado na célula não possa ser convertido para <code>Short</code>.
+     */
+    public static Short toShort(Cell cell) {
+        if (isEmpty(cell)) {
+            return null;
+        }
+
+        switch (valueTypeOf(cell)) {
+            case Cell.CELL_TYPE_BOOLEAN:
+                return (short) (cell.getBooleanCellValue() ? 1 : 0);
+            case Cell.CELL_TYPE_NUMERIC:
+                return (short) cell.getNumericCellValue();
+            case Cell.CELL_TYPE_STRING:
+                return Short.parseShort(cell.getStringCellValue().trim());
+            default:
+                throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
+        }
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para <code>Double</code>.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna o valor da célula como <code>Double</code>, <code>null</code> caso o valor da célula seja vazio
+     *         ou lança uma exceção caso o tipo de dado na célula não possa ser convertido para <code>Double</code>.
+     */
+    public static Double toDouble(Cell cell) {
+        if (isEmpty(cell)) {
+            return null;
+        }
+
+        return toDoubleValue(cell, 0.0);
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para <code>double</code> sem criar objetos intermediários.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @param valueIfEmpty
+     *            O valor retornado caso a célula seja vazia
+     * @return Retorna o valor da célula como <code>double</code>, o valor padrão informado caso o valor da célula seja
+     *         vazio ou lança uma exceção caso o tipo de dado na célula não possa ser convertido para
+     *         <code>double</code>.
+     */
+    public static double toDoubleValue(Cell cell, double valueIfEmpty) {
+        if (isEmpty(cell)) {
+            return valueIfEmpty;
+        }
+
+        switch (valueTypeOf(cell)) {
+            case Cell.CELL_TYPE_BOOLEAN:
+                return cell.getBooleanCellValue() ? 1.0 : 0.0;
+            case Cell.CELL_TYPE_NUMERIC:
+                return cell.getNumericCellValue();
+            case Cell.CELL_TYPE_STRING:
+                return Double.parseDouble(cell.getStringCellValue().trim());
+            default:
+                throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
+        }
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para <code>UUID</code>.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna o valor da célula como <code>UUID</code>, <code>null</code> caso o valor da célula seja vazio ou
+     *         lança uma exceção caso o tipo de dado na célula não possa ser convertido para <code>UUID</code>.
+     */
+    public static UUID toUUID(Cell cell) {
+        if (isEmpty(cell)) {
+            return null;
+        }
+
+        if (valueTypeOf(cell) != Cell.CELL_TYPE_STRING) {
+            throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
+        }
+
+        return UUID.fromString(cell.getStringCellValue().trim());
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para uma constante do <code>enum</code> informado. O texto da célula
+     * deve corresponder ao nome da constante, desconsiderando acentos, letras maiúsculas/minúsculas e espaços nas
+     * extremidades.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @param type
+     *            O tipo do <code>enum</code>
+     * @return Retorna o valor da célula como uma constante do <code>enum</code>, <code>null</code> caso o valor da
+     *         célula seja vazio ou lança uma exceção caso o texto da célula não corresponda a nenhuma constante.
+     */
+    public static <E extends Enum<E>> E toEnum(Cell cell, Class<E> type) {
+        if (isEmpty(cell)) {
+            return null;
+        }
+
+        if (valueTypeOf(cell) != Cell.CELL_TYPE_STRING) {
+            throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
+        }
+
+        String name = cell.getStringCellValue().trim();
+
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+
+        return Enum.valueOf(type, upperCase(toAscii(name)));
+    }
+
+    /**
+     * Converte o valor de uma célula do Excel para <code>Instant</code>.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna o valor da célula como <code>Instant</code> ou <code>null</code> caso o valor da célula seja
+     *         vazio.
+     */
+    public static Instant toInstant(Cell cell) {
+        if (isEmpty(cell)) {
+            return null;
+        }
+
+        return cell.getDateCellValue().toInstant();
+    }
+
     /**
      * Converte o valor de uma célula do Excel e retorna um objeto de acordo com o seu tipo.
      *
@@ -212,11 +426,11 @@ class Cells {
             return null;
         }
 
-        switch (cell.getCellType()) {
+        switch (valueTypeOf(cell)) {
             case Cell.CELL_TYPE_STRING:
                 return (T) toString(cell);
             case Cell.CELL_TYPE_NUMERIC:
-                return (T) new Double(cell.getNumericCellValue());
+                return (T) Double.valueOf(cell.getNumericCellValue());
             default:
                 throw new UnsupportedOperationException(messages.get(UNSUPPORTED_CELL_TYPE));
         }
@@ -232,37 +446,46 @@ class Cells {
      * @return Retorna o valor da célula de acordo com o tipo fornecido ou lança uma exceção caso o tipo de dado na
      *         célula não seja suportado.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T toObject(Cell cell, Class<T> type) {
-        if (Boolean.class.isAssignableFrom(type)) {
-            return (T) toBoolean(cell);
-        }
-
-        if (Integer.class.isAssignableFrom(type)) {
-            return (T) toInteger(cell);
-        }
-
-        if (BigDecimal.class.isAssignableFrom(type)) {
-            return (T) toBigDecimal(cell);
-        }
-
-        if (NSTimestamp.class.isAssignableFrom(type)) {
-            return (T) toDate(cell);
-        }
+        return converterFor(type).apply(cell);
+    }
 
-        if (LocalDate.class.isAssignableFrom(type)) {
-            return (T) toLocalDate(cell);
-        }
+    /**
+     * Obtém a função que converte o valor de uma célula do Excel para o tipo fornecido por parâmetro. A escolha da
+     * conversão é feita uma única vez, permitindo reaproveitar a função para todas as células de uma coluna. São usadas
+     * as conversões padrão de {@link CellConverters#DEFAULT}.
+     *
+     * @param type
+     *            O tipo esperado para os objetos retornados pela função
+     * @return Retorna a função que converte o valor de uma célula de acordo com o tipo fornecido.
+     * @see CellConverters
+     */
+    public static <T> Function<Cell, T> converterFor(Class<T> type) {
+        return CellConverters.DEFAULT.converterFor(type);
+    }
 
-        if (LocalDateTime.class.isAssignableFrom(type)) {
-            return (T) toLocalDateTime(cell);
+    /**
+     * Verifica se a célula do Excel possui algum valor que pode ser representado como texto. É equivalente a verificar
+     * se {@link #toString(Cell)} retorna um valor diferente de <code>null</code>, mas sem criar o texto.
+     *
+     * @param cell
+     *            Uma célula de uma planilha do Excel.
+     * @return Retorna <code>true</code> se a célula possuir um valor ou <code>false</code> caso contrário.
+     */
+    public static boolean hasValue(Cell cell) {
+        if (isEmpty(cell)) {
+            return false;
         }
 
-        if (OffsetDateTime.class.isAssignableFrom(type)) {
-            return (T) toOffsetDateTime(cell);
+        switch (valueTypeOf(cell)) {
+            case Cell.CELL_TYPE_BOOLEAN:
+            case Cell.CELL_TYPE_NUMERIC:
+                return true;
+            case Cell.CELL_TYPE_STRING:
+                return !cell.getStringCellValue().trim().isEmpty();
+            default:
+                return false;
         }
-
-        return (T) toString(cell);
     }
 
     /**
@@ -280,7 +503,7 @@ class Cells {
 
         String value;
 
-        switch (cell.getCellType()) {
+        switch (valueTypeOf(cell)) {
             case Cell.CELL_TYPE_BOOLEAN:
                 value = ((Boolean) cell.getBooleanCellValue()).toString();
                 break;
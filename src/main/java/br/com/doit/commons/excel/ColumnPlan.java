@@ -0,0 +1,135 @@
+package br.com.doit.commons.excel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Plano imutável de conversão das colunas de uma planilha, montado uma única vez a partir do cabeçalho. Para cada
+ * coluna, guarda a posição da chave correspondente nas linhas convertidas e a função de conversão já resolvida de
+ * acordo com o tipo configurado, evitando consultas à configuração e a escolha da conversão a cada célula.
+ * <p>
+ * Todas as linhas convertidas com o mesmo plano compartilham o mesmo índice de chaves.
+ *
+ * @see ExcelRow
+ */
+final class ColumnPlan {
+    @SuppressWarnings("unchecked")
+    private static Function<Cell, ?>[] newConverters(int size) {
+        return (Function<Cell, ?>[]) new Function<?, ?>[size];
+    }
+
+    private final String[] keys;
+    private final Map<String, Integer> slots;
+    private final int[] columnSlots;
+    private final Function<Cell, ?>[] converters;
+
+    /**
+     * Cria o plano de conversão para as colunas informadas.
+     *
+     * @param columnNames
+     *            Os nomes das colunas na ordem em que aparecem no cabeçalho da planilha
+     * @param config
+     *            A configuração das colunas e tipos suportados pelo importador
+     */
+    ColumnPlan(List<String> columnNames, Map<String, Class<?>> config) {
+        this(columnNames, config, CellConverters.DEFAULT, null);
+    }
+
+    /**
+     * Cria o plano de conversão para as colunas informadas usando as conversões do registro fornecido, compartilhando
+     * as instâncias dos textos convertidos.
+     *
+     * @param columnNames
+     *            Os nomes das colunas na ordem em que aparecem no cabeçalho da planilha
+     * @param config
+     *            A configuração das colunas e tipos suportados pelo importador
+     * @param cellConverters
+     *            O registro das conversões de cada tipo
+     * @param deduplicator
+     *            Mantém uma única instância para cada texto convertido ou <code>null</code> para não compartilhar as
+     *            instâncias
+     */
+    ColumnPlan(List<String> columnNames, Map<String, Class<?>> config, CellConverters cellConverters,
+            StringDeduplicator deduplicator) {
+        slots = new HashMap<>(columnNames.size() * 2);
+        columnSlots = new int[columnNames.size()];
+        converters = newConverters(columnNames.size());
+
+        for (int i = 0; i < columnNames.size(); i++) {
+            String columnName = columnNames.get(i);
+
+            Integer slot = slots.get(columnName);
+
+            if (slot == null) {
+                slot = slots.size();
+
+                slots.put(columnName, slot);
+            }
+
+            columnSlots[i] = slot;
+            Function<Cell, ?> converter = cellConverters.converterFor(config.get(columnName));
+
+            converters[i] = deduplicator == null ? converter : cell -> deduplicator.deduplicate(converter.apply(cell));
+        }
+
+        keys = new String[slots.size()];
+
+        for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+            keys[entry.getValue()] = entry.getKey();
+        }
+    }
+
+    /**
+     * @return Retorna a quantidade de colunas do cabeçalho.
+     */
+    int columnCount() {
+        return columnSlots.length;
+    }
+
+    /**
+     * @return Retorna a função de conversão da coluna informada.
+     */
+    Function<Cell, ?> converter(int column) {
+        return converters[column];
+    }
+
+    /**
+     * @return Retorna a chave que ocupa a posição informada nas linhas convertidas.
+     */
+    String key(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @return Retorna a quantidade de chaves distintas das linhas convertidas.
+     */
+    int keyCount() {
+        return keys.length;
+    }
+
+    /**
+     * Cria uma nova linha vazia que compartilha o índice de chaves desse plano.
+     */
+    ExcelRow newRow() {
+        return new ExcelRow(this);
+    }
+
+    /**
+     * @return Retorna a posição da chave correspondente à coluna informada nas linhas convertidas.
+     */
+    int slotOfColumn(int column) {
+        return columnSlots[column];
+    }
+
+    /**
+     * @return Retorna a posição da chave informada nas linhas convertidas ou <code>null</code> caso a chave não
+     *         pertença ao plano.
+     */
+    Integer slotOfKey(Object key) {
+        return slots.get(key);
+    }
+}
@@ -0,0 +1,205 @@
+package br.com.doit.commons.excel;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.com.doit.commons.excel.ExcelImporter.ReadingMode;
+
+/**
+ * Importador de dados de arquivos CSV (ou TSV) que permite extrair os registros como objetos de tipos comuns como
+ * String, Integer, BigDecimal e etc. Usa a mesma configuração de colunas e as mesmas regras de conversão do
+ * {@link ExcelImporter}, incluindo o marcador {@link ExcelImporter#CLEAR_DATA_MARKER} para campos preenchidos com
+ * <code>-</code>. Datas devem estar no formato ISO-8601 ({@code 2014-10-10} ou {@code 2014-10-10T08:30:00}).
+ * <p>
+ * O primeiro registro do arquivo deve conter o nome das colunas. O arquivo é lido sob demanda, sem carregar o conteúdo
+ * completo em memória.
+ */
+public class CsvImporter {
+    private final ExcelImporter importer;
+
+    private final Map<String, Class<?>> config;
+
+    private final char delimiter;
+
+    private final Charset charset;
+
+    /**
+     * Cria uma nova instância do importador de arquivos CSV separados por vírgula e codificados em UTF-8 usando a
+     * configuração passada por parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     */
+    public CsvImporter(Map<String, Class<?>> config) {
+        this(config, ',', UTF_8);
+    }
+
+    /**
+     * Cria uma nova instância do importador de arquivos CSV codificados em UTF-8 usando a configuração e o separador
+     * de campos passados por parâmetro. Use <code>'\t'</code> como separador para importar arquivos TSV.
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     * @param delimiter
+     *            O caractere que separa os campos de um registro
+     */
+    public CsvImporter(Map<String, Class<?>> config, char delimiter) {
+        this(config, delimiter, UTF_8);
+    }
+
+    /**
+     * Cria uma nova instância do importador de arquivos CSV usando a configuração, o separador de campos e a
+     * codificação passados por parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     * @param delimiter
+     *            O caractere que separa os campos de um registro
+     * @param charset
+     *            A codificação dos caracteres do arquivo
+     */
+    public CsvImporter(Map<String, Class<?>> config, char delimiter, Charset charset) {
+        this(config, delimiter, charset, CellConverters.DEFAULT);
+    }
+
+    /**
+     * Cria uma nova instância do importador de arquivos CSV usando a configuração, o separador de campos, a
+     * codificação e o registro de conversões passados por parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     * @param delimiter
+     *            O caractere que separa os campos de um registro
+     * @param charset
+     *            A codificação dos caracteres do arquivo
+     * @param cellConverters
+     *            O registro das funções usadas para converter os campos para os tipos da configuração
+     */
+    public CsvImporter(Map<String, Class<?>> config, char delimiter, Charset charset, CellConverters cellConverters) {
+        this.importer = new ExcelImporter(config, ReadingMode.IN_MEMORY, cellConverters);
+        this.config = config;
+        this.delimiter = delimiter;
+        this.charset = charset;
+    }
+
+    /**
+     * Extrai os registros de um arquivo CSV como uma lista de <code>Map</code>s de acordo com as configurações passadas
+     * por parâmetro.
+     *
+     * @param url
+     *            A URL do arquivo.
+     * @return Retorna uma lista de <code>Map</code>s contendo os dados dos registros do arquivo.
+     */
+    public List<Map<String, Object>> extractRows(URL url) {
+        try (Stream<Map<String, Object>> rows = streamRows(url)) {
+            return rows.collect(toList());
+        }
+    }
+
+    /**
+     * Extrai os registros de um arquivo CSV como uma lista de <code>Map</code>s de acordo com as configurações passadas
+     * por parâmetro.
+     *
+     * @param input
+     *            O input stream de onde o arquivo será lido
+     * @return Retorna uma lista de <code>Map</code>s contendo os dados dos registros do arquivo.
+     */
+    public List<Map<String, Object>> extractRows(InputStream input) {
+        try (Stream<Map<String, Object>> rows = streamRows(input)) {
+            return rows.collect(toList());
+        }
+    }
+
+    /**
+     * Processa cada registro de um arquivo CSV à medida que ele é convertido, sem manter os demais registros em
+     * memória.
+     *
+     * @param url
+     *            A URL do arquivo.
+     * @param action
+     *            A ação que será executada para cada registro convertido.
+     */
+    public void forEachRow(URL url, Consumer<? super Map<String, Object>> action) {
+        try (Stream<Map<String, Object>> rows = streamRows(url)) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Processa cada registro de um arquivo CSV à medida que ele é convertido, sem manter os demais registros em
+     * memória.
+     *
+     * @param input
+     *            O input stream de onde o arquivo será lido
+     * @param action
+     *            A ação que será executada para cada registro convertido.
+     */
+    public void forEachRow(InputStream input, Consumer<? super Map<String, Object>> action) {
+        try (Stream<Map<String, Object>> rows = streamRows(input)) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Extrai os registros de um arquivo CSV como um {@code Stream} de <code>Map</code>s. Os registros são lidos e
+     * convertidos sob demanda, conforme o {@code Stream} é consumido.
+     * <p>
+     * O {@code Stream} retornado mantém o arquivo aberto e deve ser fechado após o uso (preferencialmente com um bloco
+     * <em>try-with-resources</em>).
+     *
+     * @param url
+     *            A URL do arquivo.
+     * @return Retorna um {@code Stream} de <code>Map</code>s contendo os dados dos registros do arquivo.
+     */
+    public Stream<Map<String, Object>> streamRows(URL url) {
+        try {
+            return streamRows(new CsvRowIterator(new InputStreamReader(url.openStream(), charset), delimiter, config));
+        } catch (IOException exception) {
+            throw new ExcelImporterException(exception);
+        }
+    }
+
+    /**
+     * Extrai os registros de um arquivo CSV como um {@code Stream} de <code>Map</code>s. Os registros são lidos e
+     * convertidos sob demanda, conforme o {@code Stream} é consumido.
+     * <p>
+     * O input stream é lido enquanto o {@code Stream} retornado é consumido e é fechado junto com ele.
+     *
+     * @param input
+     *            O input stream de onde o arquivo será lido
+     * @return Retorna um {@code Stream} de <code>Map</code>s contendo os dados dos registros do arquivo.
+     */
+    public Stream<Map<String, Object>> streamRows(InputStream input) {
+        return streamRows(new CsvRowIterator(new InputStreamReader(input, charset), delimiter, config));
+    }
+
+    private Stream<Map<String, Object>> streamRows(CsvRowIterator rows) {
+        try {
+            return importer.streamRows(rows).onClose(() -> {
+                try {
+                    rows.close();
+                } catch (IOException exception) {
+                    throw new ExcelImporterException(exception);
+                }
+            });
+        } catch (RuntimeException exception) {
+            try {
+                rows.close();
+            } catch (IOException closeException) {
+                exception.addSuppressed(closeException);
+            }
+
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package br.com.doit.commons.excel;
+
+import static br.com.doit.commons.time.DateUtils.toDateTime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+
+import com.webobjects.foundation.NSTimestamp;
+
+/**
+ * Iterador que lê os registros de um arquivo CSV (ou TSV) sob demanda e os expõe como linhas de uma planilha, de forma
+ * que possam ser convertidas pelo {@link ExcelImporter} exatamente como as linhas de uma planilha do Excel. Segue o
+ * formato descrito na RFC 4180: campos podem estar entre aspas, aspas dentro de um campo são representadas por duas
+ * aspas e registros podem ser separados por CRLF, LF ou CR.
+ * <p>
+ * O conteúdo é lido em blocos para um buffer de caracteres reaproveitado durante toda a leitura. Os campos sem aspas
+ * são extraídos diretamente do buffer, sem cópias intermediárias.
+ * <p>
+ * O primeiro registro é considerado o cabeçalho. Os campos de colunas configuradas com tipos de data que estejam no
+ * formato ISO-8601 ({@code 2014-10-10} ou {@code 2014-10-10T08:30:00}) são expostos como células de data. Os campos
+ * de colunas configuradas com <code>Boolean</code> ou tipos numéricos que contenham um número (ignorando os espaços
+ * ao redor) são expostos como células numéricas, assim como na planilha do Excel. Os demais campos são expostos como
+ * células de texto.
+ */
+class CsvRowIterator implements Iterator<Row>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char QUOTE = '"';
+
+    /**
+     * Quantidade máxima de dígitos de um número que pode ser representado sem perda de precisão por um
+     * <code>double</code>, como nas células numéricas do Excel.
+     */
+    private static final int MAX_NUMERIC_DIGITS = 15;
+
+    /**
+     * Define como os campos de uma coluna são expostos de acordo com o tipo configurado.
+     */
+    private enum ColumnKind {
+        TEXT, NUMBER, DATE
+    }
+
+    private static ColumnKind kindOf(Class<?> type) {
+        if (type == null) {
+            return ColumnKind.TEXT;
+        }
+
+        if (NSTimestamp.class.isAssignableFrom(type) || LocalDate.class.isAssignableFrom(type) || LocalDateTime.class.isAssignableFrom(type) || OffsetDateTime.class.isAssignableFrom(type) || Instant.class.isAssignableFrom(type)) {
+            return ColumnKind.DATE;
+        }
+
+        if (Boolean.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)) {
+            return ColumnKind.NUMBER;
+        }
+
+        return ColumnKind.TEXT;
+    }
+
+    /**
+     * Converte o texto de um campo para número. Números com mais dígitos do que um <code>double</code> representa sem
+     * perda de precisão continuam sendo tratados como texto.
+     *
+     * @return Retorna o número ou <code>null</code> caso o texto não represente um número.
+     */
+    private static Double parseNumber(String text) {
+        String value = text.trim();
+
+        int digits = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                return null;
+            }
+        }
+
+        if (digits == 0 || digits > MAX_NUMERIC_DIGITS) {
+            return null;
+        }
+
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static Double parseDate(String text) {
+        String value = text.trim();
+
+        try {
+            LocalDateTime dateTime;
+
+            if (value.length() > 10) {
+                dateTime = LocalDateTime.parse(value.replace(' ', 'T'));
+            } else {
+                dateTime = LocalDate.parse(value).atStartOfDay();
+            }
+
+            return DateUtil.getExcelDate(toDateTime(dateTime));
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    private final Reader reader;
+    private final char delimiter;
+    private final Map<String, Class<?>> config;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int mark;
+    private int position;
+    private int limit;
+    private boolean isEndOfInput;
+    private ColumnKind[] columnKinds = new ColumnKind[0];
+    private int rowNum;
+    private StreamingRow nextRow;
+    private StringBuilder quotedField;
+
+    /**
+     * Cria um novo iterador.
+     *
+     * @param reader
+     *            O reader de onde o conteúdo será lido
+     * @param delimiter
+     *            O caractere que separa os campos de um registro
+     * @param config
+     *            A configuração das colunas e tipos suportados pelo importador
+     */
+    CsvRowIterator(Reader reader, char delimiter, Map<String, Class<?>> config) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.config = config;
+    }
+
+    private Cell cellFor(StreamingRow row, int column, String text) {
+        if (row.getRowNum() > 0 && column < columnKinds.length && columnKinds[column] != ColumnKind.TEXT) {
+            Double number = columnKinds[column] == ColumnKind.DATE ? parseDate(text) : parseNumber(text);
+
+            if (number != null) {
+                return new StreamingCell(row, column, Cell.CELL_TYPE_NUMERIC, Cell.CELL_TYPE_NUMERIC, number, false);
+            }
+
+            if (columnKinds[column] == ColumnKind.NUMBER) {
+                // Os espaços ao redor também são ignorados nos números convertidos a partir do texto
+                return new StreamingCell(row, column, Cell.CELL_TYPE_STRING, Cell.CELL_TYPE_STRING, text.trim(), false);
+            }
+        }
+
+        return new StreamingCell(row, column, Cell.CELL_TYPE_STRING, Cell.CELL_TYPE_STRING, text, false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        isEndOfInput = true;
+        position = limit;
+
+        reader.close();
+    }
+
+    private void fill() throws IOException {
+        int read = reader.read(buffer, limit, buffer.length - limit);
+
+        if (read < 0) {
+            isEndOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null) {
+            try {
+                nextRow = readRecord();
+            } catch (IOException exception) {
+                throw new ExcelImporterException(exception);
+            }
+        }
+
+        return nextRow != null;
+    }
+
+    /**
+     * Garante que exista pelo menos um caractere disponível na posição corrente do buffer, lendo o próximo bloco do
+     * conteúdo caso necessário. Os caracteres do campo corrente (a partir de {@code mark}) são movidos para o início do
+     * buffer antes da leitura, e o buffer é expandido caso esteja totalmente ocupado pelo campo corrente.
+     *
+     * @return Retorna <code>true</code> se existe um caractere disponível ou <code>false</code> caso o conteúdo tenha
+     *         terminado.
+     */
+    private boolean ensureAvailable() throws IOException {
+        while (position >= limit) {
+            if (isEndOfInput) {
+                return false;
+            }
+
+            int length = limit - mark;
+
+            if (mark > 0) {
+                System.arraycopy(buffer, mark, buffer, 0, length);
+            } else if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            position -= mark;
+            limit = length;
+            mark = 0;
+
+            fill();
+        }
+
+        return true;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Row row = nextRow;
+
+        nextRow = null;
+
+        return row;
+    }
+
+    private String readQuotedField() throws IOException {
+        if (quotedField == null) {
+            quotedField = new StringBuilder();
+        }
+
+        quotedField.setLength(0);
+
+        // Ignora a aspa de abertura
+        position++;
+
+        while (true) {
+            mark = position;
+
+            while (position < limit && buffer[position] != QUOTE) {
+                position++;
+            }
+
+            quotedField.append(buffer, mark, position - mark);
+
+            mark = position;
+
+            if (!ensureAvailable()) {
+                // Campo sem a aspa de fechamento: considera o conteúdo até o final do arquivo
+                return quotedField.toString();
+            }
+
+            if (buffer[position] != QUOTE) {
+                continue;
+            }
+
+            position++;
+
+            if (!ensureAvailable() || buffer[position] != QUOTE) {
+                break;
+            }
+
+            // Duas aspas seguidas representam uma aspa dentro do campo
+            quotedField.append(QUOTE);
+
+            position++;
+        }
+
+        // Ignora qualquer conteúdo entre a aspa de fechamento e o próximo separador
+        while (ensureAvailable() && !isSeparator(buffer[position])) {
+            position++;
+        }
+
+        return quotedField.toString();
+    }
+
+    private StreamingRow readRecord() throws IOException {
+        mark = position;
+
+        if (!ensureAvailable()) {
+            return null;
+        }
+
+        if (rowNum == 0 && buffer[position] == '\uFEFF') {
+            // Ignora o BOM do início do arquivo
+            position++;
+        }
+
+        StreamingRow row = new StreamingRow(rowNum);
+
+        int column = 0;
+
+        while (true) {
+            String text;
+
+            mark = position;
+
+            if (ensureAvailable() && buffer[position] == QUOTE) {
+                text = readQuotedField();
+            } else {
+                do {
+                    while (position < limit && !isSeparator(buffer[position])) {
+                        position++;
+                    }
+                } while (position >= limit && ensureAvailable());
+
+                text = new String(buffer, mark, position - mark);
+            }
+
+            mark = position;
+
+            if (!text.isEmpty()) {
+                row.addCell(cellFor(row, column, text));
+            }
+
+            column++;
+
+            if (!ensureAvailable()) {
+                break;
+            }
+
+            char separator = buffer[position++];
+
+            if (separator == delimiter) {
+                continue;
+            }
+
+            if (separator == '\r') {
+                mark = position;
+
+                if (ensureAvailable() && buffer[position] == '\n') {
+                    position++;
+                }
+            }
+
+            break;
+        }
+
+        if (rowNum == 0) {
+            readHeaderTypes(row);
+        }
+
+        rowNum++;
+
+        return row;
+    }
+
+    private boolean isSeparator(char c) {
+        return c == delimiter || c == '\n' || c == '\r';
+    }
+
+    private void readHeaderTypes(StreamingRow header) {
+        columnKinds = new ColumnKind[Math.max(header.getLastCellNum(), 0)];
+
+        for (int i = 0; i < columnKinds.length; i++) {
+            Cell cell = header.getCell(i);
+
+            columnKinds[i] = cell == null ? ColumnKind.TEXT : kindOf(config.get(ExcelImporter.columnKey(cell.getStringCellValue())));
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.doit.commons.excel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import br.com.doit.commons.time.DateUtils;
+
+/**
+ * Exportador de dados para uma planilha do Excel (XLSX), complementar ao {@link ExcelImporter}. Recebe a mesma
+ * configuração de colunas e tipos usada na importação e grava uma linha de cabeçalho seguida de uma linha para cada
+ * <code>Map</code> exportado, de forma que a planilha gerada possa ser importada novamente com a mesma configuração.
+ * <p>
+ * As linhas são gravadas usando a API de streaming do POI ({@link SXSSFWorkbook}): apenas uma janela das últimas
+ * linhas é mantida em memória e as demais são descarregadas em um arquivo temporário, de forma que o consumo de memória
+ * independe da quantidade de linhas exportadas. Os estilos das células são criados uma única vez por tipo de coluna.
+ * <p>
+ * As colunas são gravadas na ordem de iteração da configuração (use um {@code LinkedHashMap} para definir a ordem).
+ */
+public class ExcelExporter {
+    private static final String DATE_FORMAT = "dd/mm/yyyy";
+
+    private static final String DATE_TIME_FORMAT = "dd/mm/yyyy hh:mm:ss";
+
+    private static CellStyle createDateStyle(SXSSFWorkbook workbook, String format) {
+        CellStyle style = workbook.createCellStyle();
+
+        style.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(format));
+
+        return style;
+    }
+
+    private static Date toDate(Object value) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+
+        if (value instanceof LocalDate) {
+            return DateUtils.toDate((LocalDate) value);
+        }
+
+        if (value instanceof LocalDateTime) {
+            return DateUtils.toDateTime((LocalDateTime) value);
+        }
+
+        if (value instanceof OffsetDateTime) {
+            return DateUtils.toDateTime((OffsetDateTime) value);
+        }
+
+        if (value instanceof Instant) {
+            return Date.from((Instant) value);
+        }
+
+        return null;
+    }
+
+    private static void writeCell(Cell cell, Object value, CellStyle dateStyle) {
+        if (value == ExcelImporter.CLEAR_DATA_MARKER) {
+            cell.setCellValue(value.toString());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Enum) {
+            cell.setCellValue(((Enum<?>) value).name());
+        } else {
+            Date date = toDate(value);
+
+            if (date == null) {
+                cell.setCellValue(value.toString());
+
+                return;
+            }
+
+            cell.setCellValue(date);
+            cell.setCellStyle(dateStyle);
+        }
+    }
+
+    private final List<String> columnNames;
+
+    private final List<Class<?>> columnTypes;
+
+    private final int rowAccessWindowSize;
+
+    /**
+     * Cria uma nova instância do exportador de dados para o Excel usando a configuração passada por parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos exportados
+     */
+    public ExcelExporter(Map<String, Class<?>> config) {
+        this(config, SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Cria uma nova instância do exportador de dados para o Excel usando a configuração e o tamanho da janela de linhas
+     * mantidas em memória passados por parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos exportados
+     * @param rowAccessWindowSize
+     *            A quantidade de linhas mantidas em memória durante a exportação
+     */
+    public ExcelExporter(Map<String, Class<?>> config, int rowAccessWindowSize) {
+        this.columnNames = new ArrayList<>(config.keySet());
+        this.columnTypes = new ArrayList<>(config.values());
+        this.rowAccessWindowSize = rowAccessWindowSize;
+    }
+
+    /**
+     * Cria os estilos aplicados às datas de cada coluna. Colunas do tipo <code>LocalDate</code> usam o formato de data
+     * e as demais usam o formato de data e hora. Os estilos são compartilhados entre as colunas.
+     */
+    private CellStyle[] createColumnStyles(SXSSFWorkbook workbook) {
+        CellStyle dateStyle = createDateStyle(workbook, DATE_FORMAT);
+        CellStyle dateTimeStyle = createDateStyle(workbook, DATE_TIME_FORMAT);
+
+        CellStyle[] styles = new CellStyle[columnTypes.size()];
+
+        for (int i = 0; i < styles.length; i++) {
+            Class<?> type = columnTypes.get(i);
+
+            styles[i] = type != null && LocalDate.class.isAssignableFrom(type) ? dateStyle : dateTimeStyle;
+        }
+
+        return styles;
+    }
+
+    /**
+     * Exporta as linhas fornecidas para uma planilha do Excel.
+     *
+     * @param rows
+     *            As linhas que serão exportadas
+     * @param output
+     *            O output stream onde a planilha será gravada. O stream não é fechado por esse método.
+     * @throws ExcelExporterException
+     *             Caso ocorra um erro ao gravar a planilha
+     */
+    public void export(Iterator<? extends Map<String, ?>> rows, OutputStream output) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize);
+
+        try {
+            workbook.setCompressTempFiles(true);
+
+            Sheet sheet = workbook.createSheet();
+
+            CellStyle[] styles = createColumnStyles(workbook);
+
+            Row header = sheet.createRow(0);
+
+            for (int i = 0; i < columnNames.size(); i++) {
+                header.createCell(i).setCellValue(columnNames.get(i));
+            }
+
+            int rowIndex = 1;
+
+            while (rows.hasNext()) {
+                Map<String, ?> values = rows.next();
+
+                Row row = sheet.createRow(rowIndex++);
+
+                for (int i = 0; i < columnNames.size(); i++) {
+                    Object value = values.get(columnNames.get(i));
+
+                    if (value != null) {
+                        writeCell(row.createCell(i), value, styles[i]);
+                    }
+                }
+            }
+
+            workbook.write(output);
+        } catch (IOException exception) {
+            throw new ExcelExporterException(exception);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Exporta as linhas fornecidas para uma planilha do Excel. O {@code Stream} é consumido à medida que as linhas são
+     * gravadas.
+     *
+     * @param rows
+     *            As linhas que serão exportadas
+     * @param output
+     *            O output stream onde a planilha será gravada. O stream não é fechado por esse método.
+     * @throws ExcelExporterException
+     *             Caso ocorra um erro ao gravar a planilha
+     */
+    public void export(Stream<? extends Map<String, ?>> rows, OutputStream output) {
+        export(rows.iterator(), output);
+    }
+}
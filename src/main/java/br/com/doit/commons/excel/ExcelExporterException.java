@@ -0,0 +1,18 @@
+package br.com.doit.commons.excel;
+
+/**
+ * Exceção que é lançada caso ocorra um erro ao gravar os dados em uma planilha do Excel.
+ */
+public class ExcelExporterException extends RuntimeException {
+    public ExcelExporterException(String message) {
+        super(message);
+    }
+
+    public ExcelExporterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ExcelExporterException(Throwable cause) {
+        super(cause);
+    }
+}
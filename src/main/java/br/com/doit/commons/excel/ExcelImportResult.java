@@ -0,0 +1,77 @@
+package br.com.doit.commons.excel;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de uma importação que valida a planilha inteira antes de reportar os erros. Contém as linhas que foram
+ * convertidas com sucesso e as mensagens dos erros encontrados, identificando a linha e a coluna de cada erro.
+ * <p>
+ * A quantidade de mensagens guardadas é limitada para que uma planilha com muitos erros não consuma memória em
+ * excesso. Os erros que excederem o limite são apenas contados.
+ *
+ * @see ExcelImporter#extractRowsCollectingErrors(java.io.InputStream, int)
+ */
+public class ExcelImportResult {
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private final int maxErrors;
+    private int errorCount;
+
+    ExcelImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void addError(String message) {
+        errorCount++;
+
+        if (errors.size() < maxErrors) {
+            errors.add(message);
+        }
+    }
+
+    void addRow(Map<String, Object> row) {
+        rows.add(row);
+    }
+
+    /**
+     * @return Retorna a quantidade total de erros encontrados, incluindo os que excederam o limite de mensagens.
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return Retorna as mensagens dos erros encontrados na ordem em que aparecem na planilha (limitadas à quantidade
+     *         máxima definida na importação).
+     */
+    public List<String> getErrors() {
+        return unmodifiableList(errors);
+    }
+
+    /**
+     * @return Retorna as linhas convertidas com sucesso. Linhas com algum erro de conversão não são incluídas.
+     */
+    public List<Map<String, Object>> getRows() {
+        return unmodifiableList(rows);
+    }
+
+    /**
+     * @return Retorna <code>true</code> se algum erro foi encontrado durante a importação ou <code>false</code> caso
+     *         contrário.
+     */
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    /**
+     * @return Retorna <code>true</code> se a quantidade de erros excedeu o limite de mensagens guardadas ou
+     *         <code>false</code> caso contrário.
+     */
+    public boolean isErrorListTruncated() {
+        return errorCount > errors.size();
+    }
+}
@@ -1,22 +1,34 @@
 package br.com.doit.commons.excel;
 
+import static java.util.stream.Collectors.toList;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 
 import br.com.doit.commons.l10n.Messages;
+import br.com.doit.commons.util.Try;
 
 /**
  * Importador de dados de uma planilha do Excel permite extrair as linhas de uma planilha como objetos de tipos comuns
@@ -52,6 +64,22 @@ public class ExcelImporter {
         }
     }
 
+    /**
+     * Os modos de leitura da planilha suportados pelo importador.
+     */
+    public enum ReadingMode {
+        /**
+         * Carrega a planilha completa em memória usando o modelo de objetos do POI. Suporta os formatos XLS e XLSX.
+         */
+        IN_MEMORY,
+
+        /**
+         * Lê a planilha linha a linha diretamente do XML, mantendo apenas a linha corrente em memória. Suporta apenas o
+         * formato XLSX e é indicado para planilhas muito grandes.
+         */
+        STREAMING
+    }
+
     private static final class ClearDataMaker {
         @Override
         public String toString() {
@@ -61,15 +89,27 @@ public class ExcelImporter {
 
     private static final String UNRECOGNISABLE_COLUMN = "UNRECOGNISABLE_COLUMN";
 
+    private static final String MESSAGE_WITH_SHEET = "MESSAGE_WITH_SHEET";
+
+    private static final int DEFAULT_MAX_ERRORS = 100;
+
     public static final Object CLEAR_DATA_MARKER = new ClearDataMaker();
 
+    /**
+     * Converte o nome de uma coluna do cabeçalho na chave usada pela configuração e pelas linhas extraídas, ignorando os
+     * espaços antes e depois do nome.
+     */
+    static String columnKey(String columnName) {
+        return columnName.trim().toUpperCase();
+    }
+
     private static boolean isEmptyRow(Row row) {
         Iterator<Cell> cellIterator = row.cellIterator();
 
         while (cellIterator.hasNext()) {
             Cell cell = cellIterator.next();
 
-            if (Cells.toString(cell) != null) {
+            if (Cells.hasValue(cell)) {
                 return false;
             }
         }
@@ -77,29 +117,135 @@ public class ExcelImporter {
         return true;
     }
 
+    private static Iterator<Row> skipEmptyRows(Iterator<Row> rows) {
+        return new Iterator<Row>() {
+            private Row nextRow;
+
+            @Override
+            public boolean hasNext() {
+                while (nextRow == null && rows.hasNext()) {
+                    Row row = rows.next();
+
+                    if (!isEmptyRow(row)) {
+                        nextRow = row;
+                    }
+                }
+
+                return nextRow != null;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Row row = nextRow;
+
+                nextRow = null;
+
+                return row;
+            }
+        };
+    }
+
+    private static void close(WorkbookReader workbook) {
+        try {
+            workbook.close();
+        } catch (IOException exception) {
+            throw new ExcelImporterException(exception);
+        }
+    }
+
+    private static void closeAfterFailure(WorkbookReader workbook, RuntimeException failure) {
+        try {
+            workbook.close();
+        } catch (IOException | RuntimeException exception) {
+            failure.addSuppressed(exception);
+        }
+    }
+
     private final Map<String, Class<?>> config;
 
+    private final ReadingMode mode;
+
+    private final CellConverters cellConverters;
+
+    private final boolean isStringDeduplicationEnabled;
+
     /**
-     * Cria uma nova instância do importador de dados do Excel usando a configuração passada por parâmetro.
+     * Cria uma nova instância do importador de dados do Excel usando a configuração passada por parâmetro. A planilha
+     * será carregada em memória durante a importação.
      *
      * @param config
      *            A configuração das colunas e tipos suportados por esse importador
      */
     public ExcelImporter(Map<String, Class<?>> config) {
-        this.config = config;
+        this(config, ReadingMode.IN_MEMORY);
     }
 
-    private Object extractCellValue(Cell cell, String columnName) {
-        if (cell.getCellType() == Cell.CELL_TYPE_STRING && "-".equals(cell.getStringCellValue())) {
-            return CLEAR_DATA_MARKER;
-        }
+    /**
+     * Cria uma nova instância do importador de dados do Excel usando a configuração e o modo de leitura passados por
+     * parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     * @param mode
+     *            Define como a planilha será lida durante a importação
+     */
+    public ExcelImporter(Map<String, Class<?>> config, ReadingMode mode) {
+        this(config, mode, CellConverters.DEFAULT);
+    }
+
+    /**
+     * Cria uma nova instância do importador de dados do Excel usando a configuração, o modo de leitura e o registro de
+     * conversões passados por parâmetro.
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     * @param mode
+     *            Define como a planilha será lida durante a importação
+     * @param cellConverters
+     *            O registro das funções usadas para converter as células para os tipos da configuração
+     */
+    public ExcelImporter(Map<String, Class<?>> config, ReadingMode mode, CellConverters cellConverters) {
+        this(config, mode, cellConverters, false);
+    }
 
+    /**
+     * Cria uma nova instância do importador de dados do Excel usando a configuração, o modo de leitura e o registro de
+     * conversões passados por parâmetro, definindo se os textos convertidos que se repetem em uma mesma aba devem
+     * compartilhar a mesma instância de <code>String</code>. Compartilhar as instâncias reduz o consumo de memória de
+     * importações grandes com colunas de valores repetidos (como categorias ou nomes de lojas).
+     *
+     * @param config
+     *            A configuração das colunas e tipos suportados por esse importador
+     * @param mode
+     *            Define como a planilha será lida durante a importação
+     * @param cellConverters
+     *            O registro das funções usadas para converter as células para os tipos da configuração
+     * @param isStringDeduplicationEnabled
+     *            <code>true</code> para compartilhar as instâncias dos textos repetidos
+     */
+    public ExcelImporter(Map<String, Class<?>> config, ReadingMode mode, CellConverters cellConverters,
+            boolean isStringDeduplicationEnabled) {
+        this.config = config;
+        this.mode = mode;
+        this.cellConverters = cellConverters;
+        this.isStringDeduplicationEnabled = isStringDeduplicationEnabled;
+    }
+
+    private Object extractCellValue(Cell cell, Function<Cell, ?> converter) {
         if (Cells.isEmpty(cell)) {
             return null;
         }
 
+        if (Cells.valueTypeOf(cell) == Cell.CELL_TYPE_STRING && "-".equals(cell.getStringCellValue())) {
+            return CLEAR_DATA_MARKER;
+        }
+
         try {
-            return Cells.toObject(cell, config.get(columnName));
+            return converter.apply(cell);
         } catch (Exception exception) {
             String message = ExcelErrorMessageFormatter.format(exception.getMessage(), cell);
 
@@ -132,60 +278,359 @@ public class ExcelImporter {
      * @return Retorna uma lista de <code>Map</code>s contendo os dados das linhas da planilha.
      */
     public List<Map<String, Object>> extractRows(InputStream input) {
-        try {
-            Workbook workbook = WorkbookFactory.create(input);
+        try (Stream<Map<String, Object>> rows = streamRows(input)) {
+            return rows.collect(toList());
+        }
+    }
 
-            Sheet sheet = workbook.getSheetAt(0);
+    /**
+     * Extrai as linhas de uma planilha do Excel validando a planilha inteira. Ao invés de interromper a importação no
+     * primeiro erro, todas as células são convertidas e os erros encontrados são reportados juntos no resultado.
+     *
+     * @param spreadsheetUrl
+     *            A URL da planilha.
+     * @return Retorna o resultado da importação com as linhas convertidas com sucesso e os erros encontrados.
+     * @see #extractRowsCollectingErrors(InputStream, int)
+     */
+    public ExcelImportResult extractRowsCollectingErrors(URL spreadsheetUrl) {
+        try (InputStream input = spreadsheetUrl.openStream()) {
+            return extractRowsCollectingErrors(input, DEFAULT_MAX_ERRORS);
+        } catch (IOException exception) {
+            throw new ExcelImporterException(exception);
+        }
+    }
 
-            Iterator<Row> rows = sheet.rowIterator();
+    /**
+     * Extrai as linhas de uma planilha do Excel validando a planilha inteira. Ao invés de interromper a importação no
+     * primeiro erro, todas as células são convertidas e os erros encontrados são reportados juntos no resultado.
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @return Retorna o resultado da importação com as linhas convertidas com sucesso e os erros encontrados.
+     * @see #extractRowsCollectingErrors(InputStream, int)
+     */
+    public ExcelImportResult extractRowsCollectingErrors(InputStream input) {
+        return extractRowsCollectingErrors(input, DEFAULT_MAX_ERRORS);
+    }
 
-            List<String> columnNames = new ArrayList<>();
+    /**
+     * Extrai as linhas de uma planilha do Excel validando a planilha inteira em uma única leitura. Cada célula que não
+     * puder ser convertida gera uma mensagem de erro identificando a linha e a coluna da célula, e a linha
+     * correspondente não é incluída no resultado. Erros que impedem a leitura da planilha (como uma coluna
+     * desconhecida no cabeçalho) continuam sendo lançados como {@link ExcelImporterException}.
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @param maxErrors
+     *            A quantidade máxima de mensagens de erro guardadas no resultado
+     * @return Retorna o resultado da importação com as linhas convertidas com sucesso e os erros encontrados.
+     */
+    public ExcelImportResult extractRowsCollectingErrors(InputStream input, int maxErrors) {
+        WorkbookReader workbook = openWorkbook(input);
 
-            if (rows.hasNext()) {
-                Row firstRow = rows.next();
+        try {
+            Iterator<Row> rows = workbook.rowIterator(0);
 
-                Iterator<Cell> cells = firstRow.cellIterator();
+            ColumnPlan plan = readHeader(rows);
 
-                while (cells.hasNext()) {
-                    Cell cell = cells.next();
+            ExcelImportResult result = new ExcelImportResult(maxErrors);
 
-                    String columnName = cell.getStringCellValue();
+            Iterator<Row> dataRows = skipEmptyRows(rows);
 
-                    if (!config.containsKey(columnName.toUpperCase())) {
-                        throw new ExcelImporterException(messages.format(UNRECOGNISABLE_COLUMN, columnName));
-                    }
+            while (dataRows.hasNext()) {
+                ExcelRow row = convertRow(dataRows.next(), plan, result);
 
-                    columnNames.add(columnName.toUpperCase());
+                if (row != null) {
+                    result.addRow(row);
                 }
             }
 
-            List<Map<String, Object>> convertedRows = new ArrayList<>();
+            return result;
+        } finally {
+            close(workbook);
+        }
+    }
 
-            while (rows.hasNext()) {
-                Row row = rows.next();
+    /**
+     * Extrai as linhas de todas as abas de uma planilha do Excel. No modo {@link ReadingMode#STREAMING} as abas
+     * são convertidas concorrentemente usando o {@code ForkJoinPool} comum.
+     *
+     * @param spreadsheetUrl
+     *            A URL da planilha.
+     * @return Retorna um <code>Map</code> com o resultado da importação de cada aba, indexado pelo nome da aba.
+     * @see #extractSheets(InputStream, Predicate, Executor)
+     */
+    public Map<String, Try<List<Map<String, Object>>>> extractSheets(URL spreadsheetUrl) {
+        return extractSheets(spreadsheetUrl, sheetName -> true, ForkJoinPool.commonPool());
+    }
 
-                if (isEmptyRow(row)) {
+    /**
+     * Extrai as linhas das abas selecionadas de uma planilha do Excel, convertendo as abas concorrentemente no modo
+     * {@link ReadingMode#STREAMING}.
+     *
+     * @param spreadsheetUrl
+     *            A URL da planilha.
+     * @param sheetFilter
+     *            Determina quais abas (pelo nome) devem ser importadas.
+     * @param executor
+     *            O executor usado para converter as abas no modo {@link ReadingMode#STREAMING}.
+     * @return Retorna um <code>Map</code> com o resultado da importação de cada aba, indexado pelo nome da aba.
+     * @see #extractSheets(InputStream, Predicate, Executor)
+     */
+    public Map<String, Try<List<Map<String, Object>>>> extractSheets(URL spreadsheetUrl, Predicate<String> sheetFilter, Executor executor) {
+        try (InputStream input = spreadsheetUrl.openStream()) {
+            return extractSheets(input, sheetFilter, executor);
+        } catch (IOException exception) {
+            throw new ExcelImporterException(exception);
+        }
+    }
+
+    /**
+     * Extrai as linhas de todas as abas de uma planilha do Excel. No modo {@link ReadingMode#STREAMING} as abas
+     * são convertidas concorrentemente usando o {@code ForkJoinPool} comum.
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @return Retorna um <code>Map</code> com o resultado da importação de cada aba, indexado pelo nome da aba.
+     * @see #extractSheets(InputStream, Predicate, Executor)
+     */
+    public Map<String, Try<List<Map<String, Object>>>> extractSheets(InputStream input) {
+        return extractSheets(input, sheetName -> true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Extrai as linhas das abas selecionadas de uma planilha do Excel. Cada aba deve ter o seu próprio cabeçalho e é
+     * convertida de forma independente e concorrente usando o executor informado.
+     * <p>
+     * O executor só é usado no modo {@link ReadingMode#STREAMING}, em que cada aba é lida do seu próprio stream. No
+     * modo {@link ReadingMode#IN_MEMORY} as abas são lidas uma de cada vez na thread corrente, já que o modelo de
+     * objetos do POI não pode ser acessado por várias threads ao mesmo tempo.
+     * <p>
+     * Um erro ao importar uma aba não interrompe a importação das demais: o resultado de cada aba é um {@code Try} que
+     * contém as linhas convertidas ou uma {@link ExcelImporterException} cuja mensagem identifica a aba, a linha e a
+     * coluna em que o erro ocorreu.
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @param sheetFilter
+     *            Determina quais abas (pelo nome) devem ser importadas.
+     * @param executor
+     *            O executor usado para converter as abas no modo {@link ReadingMode#STREAMING}.
+     * @return Retorna um <code>Map</code> com o resultado da importação de cada aba, indexado pelo nome da aba e na
+     *         mesma ordem em que as abas aparecem na planilha.
+     */
+    public Map<String, Try<List<Map<String, Object>>>> extractSheets(InputStream input, Predicate<String> sheetFilter, Executor executor) {
+        WorkbookReader workbook = openWorkbook(input);
+
+        try {
+            List<String> sheetNames = workbook.sheetNames();
+
+            Executor sheetExecutor = workbook.isConcurrentReadingSupported() ? executor : Runnable::run;
+
+            Map<String, CompletableFuture<Try<List<Map<String, Object>>>>> futures = new LinkedHashMap<>();
+
+            for (int i = 0; i < sheetNames.size(); i++) {
+                String sheetName = sheetNames.get(i);
+
+                if (!sheetFilter.test(sheetName)) {
                     continue;
                 }
 
-                Map<String, Object> convertedRow = new HashMap<>();
+                int sheetIndex = i;
 
-                for (int i = 0; i < row.getPhysicalNumberOfCells() && i < columnNames.size(); i++) {
-                    Cell cell = row.getCell(i, Row.CREATE_NULL_AS_BLANK);
+                futures.put(sheetName, CompletableFuture.supplyAsync(() -> Try.run(() -> extractSheet(workbook, sheetIndex, sheetName)), sheetExecutor));
+            }
 
-                    String columnName = columnNames.get(i);
+            Map<String, Try<List<Map<String, Object>>>> results = new LinkedHashMap<>();
 
-                    Object value = extractCellValue(cell, columnName);
+            for (Map.Entry<String, CompletableFuture<Try<List<Map<String, Object>>>>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().join());
+            }
 
-                    convertedRow.put(columnName, value);
-                }
+            return results;
+        } finally {
+            close(workbook);
+        }
+    }
+
+    private List<Map<String, Object>> extractSheet(WorkbookReader workbook, int sheetIndex, String sheetName) {
+        try (Stream<Map<String, Object>> rows = streamRows(workbook.rowIterator(sheetIndex))) {
+            return rows.collect(toList());
+        } catch (RuntimeException exception) {
+            throw new ExcelImporterException(messages.format(MESSAGE_WITH_SHEET, exception.getMessage(), sheetName), exception);
+        }
+    }
+
+    /**
+     * Processa cada linha de uma planilha do Excel à medida que ela é convertida, sem manter as demais linhas em
+     * memória.
+     *
+     * @param spreadsheetUrl
+     *            A URL da planilha.
+     * @param action
+     *            A ação que será executada para cada linha convertida.
+     */
+    public void forEachRow(URL spreadsheetUrl, Consumer<? super Map<String, Object>> action) {
+        try (Stream<Map<String, Object>> rows = streamRows(spreadsheetUrl)) {
+            rows.forEach(action);
+        }
+    }
 
-                convertedRows.add(convertedRow);
+    /**
+     * Processa cada linha de uma planilha do Excel à medida que ela é convertida, sem manter as demais linhas em
+     * memória.
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @param action
+     *            A ação que será executada para cada linha convertida.
+     */
+    public void forEachRow(InputStream input, Consumer<? super Map<String, Object>> action) {
+        try (Stream<Map<String, Object>> rows = streamRows(input)) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Extrai as linhas de uma planilha do Excel como um {@code Stream} de <code>Map</code>s de acordo com as
+     * configurações passadas por parâmetro. As linhas são convertidas sob demanda, conforme o {@code Stream} é
+     * consumido.
+     * <p>
+     * O {@code Stream} retornado mantém a planilha aberta e deve ser fechado após o uso (preferencialmente com um bloco
+     * <em>try-with-resources</em>).
+     *
+     * @param spreadsheetUrl
+     *            A URL da planilha.
+     * @return Retorna um {@code Stream} de <code>Map</code>s contendo os dados das linhas da planilha.
+     */
+    public Stream<Map<String, Object>> streamRows(URL spreadsheetUrl) {
+        // A planilha é lida por completo (para a memória ou para um arquivo temporário) antes de retornar
+        try (InputStream input = spreadsheetUrl.openStream()) {
+            return streamRows(input);
+        } catch (IOException exception) {
+            throw new ExcelImporterException(exception);
+        }
+    }
+
+    /**
+     * Extrai as linhas de uma planilha do Excel como um {@code Stream} de <code>Map</code>s de acordo com as
+     * configurações passadas por parâmetro. As linhas são convertidas sob demanda, conforme o {@code Stream} é
+     * consumido.
+     * <p>
+     * O {@code Stream} retornado mantém a planilha aberta e deve ser fechado após o uso (preferencialmente com um bloco
+     * <em>try-with-resources</em>).
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @return Retorna um {@code Stream} de <code>Map</code>s contendo os dados das linhas da planilha.
+     */
+    public Stream<Map<String, Object>> streamRows(InputStream input) {
+        WorkbookReader workbook = openWorkbook(input);
+
+        try {
+            return streamRows(workbook.rowIterator(0)).onClose(() -> close(workbook));
+        } catch (RuntimeException exception) {
+            closeAfterFailure(workbook, exception);
+
+            throw exception;
+        }
+    }
+
+    private WorkbookReader openWorkbook(InputStream input) {
+        try {
+            if (mode == ReadingMode.STREAMING) {
+                return StreamingWorkbook.open(input);
             }
 
-            return convertedRows;
+            return new InMemoryWorkbook(WorkbookFactory.create(input));
         } catch (InvalidFormatException | IOException exception) {
             throw new ExcelImporterException(exception);
         }
     }
+
+    /**
+     * Converte as linhas informadas usando a primeira linha como cabeçalho. As linhas são convertidas sob demanda,
+     * conforme o {@code Stream} é consumido.
+     */
+    Stream<Map<String, Object>> streamRows(Iterator<Row> rows) {
+        ColumnPlan plan = readHeader(rows);
+
+        Iterator<Row> dataRows = skipEmptyRows(rows);
+
+        Iterator<Map<String, Object>> convertedRows = new Iterator<Map<String, Object>>() {
+            @Override
+            public boolean hasNext() {
+                return dataRows.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                return convertRow(dataRows.next(), plan);
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(convertedRows, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private ColumnPlan readHeader(Iterator<Row> rows) {
+        List<String> columnNames = new ArrayList<>();
+
+        if (rows.hasNext()) {
+            Row firstRow = rows.next();
+
+            Iterator<Cell> cells = firstRow.cellIterator();
+
+            while (cells.hasNext()) {
+                Cell cell = cells.next();
+
+                String columnName = cell.getStringCellValue();
+
+                String columnKey = columnKey(columnName);
+
+                if (!config.containsKey(columnKey)) {
+                    throw new ExcelImporterException(messages.format(UNRECOGNISABLE_COLUMN, columnName));
+                }
+
+                columnNames.add(columnKey);
+            }
+        }
+
+        return new ColumnPlan(columnNames, config, cellConverters, isStringDeduplicationEnabled ? new StringDeduplicator() : null);
+    }
+
+    private Map<String, Object> convertRow(Row row, ColumnPlan plan) {
+        ExcelRow convertedRow = plan.newRow();
+
+        int columnCount = Math.min(row.getLastCellNum(), plan.columnCount());
+
+        for (int i = 0; i < columnCount; i++) {
+            Object value = extractCellValue(row.getCell(i), plan.converter(i));
+
+            convertedRow.setColumn(i, value);
+        }
+
+        return convertedRow;
+    }
+
+    private ExcelRow convertRow(Row row, ColumnPlan plan, ExcelImportResult result) {
+        ExcelRow convertedRow = plan.newRow();
+
+        boolean isValid = true;
+
+        int columnCount = Math.min(row.getLastCellNum(), plan.columnCount());
+
+        for (int i = 0; i < columnCount; i++) {
+            try {
+                Object value = extractCellValue(row.getCell(i), plan.converter(i));
+
+                convertedRow.setColumn(i, value);
+            } catch (ExcelImporterException exception) {
+                result.addError(exception.getMessage());
+
+                isValid = false;
+            }
+        }
+
+        return isValid ? convertedRow : null;
+    }
 }
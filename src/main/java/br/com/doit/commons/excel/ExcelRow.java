@@ -0,0 +1,253 @@
+package br.com.doit.commons.excel;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Linha convertida de uma planilha representada como um <code>Map</code> compacto. Os valores das colunas do cabeçalho
+ * ficam em um array indexado pelas posições definidas no {@link ColumnPlan}, que é compartilhado por todas as linhas
+ * de uma mesma importação. Chaves que não pertencem ao plano podem ser adicionadas normalmente e são guardadas à parte.
+ */
+final class ExcelRow extends AbstractMap<String, Object> {
+    private static final Object ABSENT = new Object();
+
+    private final class Entry implements Map.Entry<String, Object> {
+        private final int slot;
+
+        private Entry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+
+            return getKey().equals(entry.getKey()) && (getValue() == null ? entry.getValue() == null : getValue().equals(entry.getValue()));
+        }
+
+        @Override
+        public String getKey() {
+            return plan.key(slot);
+        }
+
+        @Override
+        public Object getValue() {
+            return values[slot];
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object previous = values[slot];
+
+            values[slot] = value;
+
+            return previous;
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int nextSlot = nextPresentSlot(0);
+        private int currentSlot = -1;
+        private Iterator<Map.Entry<String, Object>> extraIterator;
+
+        @Override
+        public boolean hasNext() {
+            if (nextSlot < values.length) {
+                return true;
+            }
+
+            if (extraIterator == null && extra != null) {
+                extraIterator = extra.entrySet().iterator();
+            }
+
+            return extraIterator != null && extraIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (nextSlot < values.length) {
+                currentSlot = nextSlot;
+                nextSlot = nextPresentSlot(nextSlot + 1);
+
+                return new Entry(currentSlot);
+            }
+
+            currentSlot = -1;
+
+            return extraIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (currentSlot >= 0) {
+                values[currentSlot] = ABSENT;
+                size--;
+                currentSlot = -1;
+            } else if (extraIterator != null) {
+                extraIterator.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private final ColumnPlan plan;
+    private final Object[] values;
+    private int size;
+    private Map<String, Object> extra;
+
+    ExcelRow(ColumnPlan plan) {
+        this.plan = plan;
+
+        values = new Object[plan.keyCount()];
+
+        Arrays.fill(values, ABSENT);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+
+        size = 0;
+        extra = null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Integer slot = plan.slotOfKey(key);
+
+        if (slot != null) {
+            return values[slot] != ABSENT;
+        }
+
+        return extra != null && extra.containsKey(key);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return ExcelRow.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Object get(Object key) {
+        Integer slot = plan.slotOfKey(key);
+
+        if (slot != null) {
+            Object value = values[slot];
+
+            return value == ABSENT ? null : value;
+        }
+
+        return extra == null ? null : extra.get(key);
+    }
+
+    private int nextPresentSlot(int start) {
+        int slot = start;
+
+        while (slot < values.length && values[slot] == ABSENT) {
+            slot++;
+        }
+
+        return slot;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Integer slot = plan.slotOfKey(key);
+
+        if (slot != null) {
+            return setSlot(slot, value);
+        }
+
+        if (extra == null) {
+            extra = new HashMap<>();
+        }
+
+        return extra.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Integer slot = plan.slotOfKey(key);
+
+        if (slot != null) {
+            Object previous = values[slot];
+
+            if (previous == ABSENT) {
+                return null;
+            }
+
+            values[slot] = ABSENT;
+            size--;
+
+            return previous;
+        }
+
+        return extra == null ? null : extra.remove(key);
+    }
+
+    /**
+     * Define o valor da coluna do cabeçalho informada.
+     *
+     * @param column
+     *            O índice da coluna na planilha
+     * @param value
+     *            O valor convertido da célula
+     */
+    void setColumn(int column, Object value) {
+        setSlot(plan.slotOfColumn(column), value);
+    }
+
+    private Object setSlot(int slot, Object value) {
+        Object previous = values[slot];
+
+        values[slot] = value;
+
+        if (previous == ABSENT) {
+            size++;
+
+            return null;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return extra == null ? size : size + extra.size();
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.doit.commons.excel;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Adapta um {@link Workbook} do POI, completamente carregado em memória, para a interface {@link WorkbookReader}.
+ */
+class InMemoryWorkbook implements WorkbookReader {
+    private final Workbook workbook;
+
+    InMemoryWorkbook(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    @Override
+    public void close() {
+        // O workbook não mantém nenhum recurso aberto
+    }
+
+    /**
+     * O modelo de objetos do POI não é thread-safe (e o XSSF ainda sincroniza o acesso ao documento XML), por isso as
+     * abas devem ser lidas uma de cada vez.
+     */
+    @Override
+    public boolean isConcurrentReadingSupported() {
+        return false;
+    }
+
+    @Override
+    public Iterator<Row> rowIterator(int sheetIndex) {
+        return workbook.getSheetAt(sheetIndex).rowIterator();
+    }
+
+    @Override
+    public List<String> sheetNames() {
+        List<String> sheetNames = new ArrayList<>(workbook.getNumberOfSheets());
+
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            sheetNames.add(workbook.getSheetName(i));
+        }
+
+        return sheetNames;
+    }
+}
@@ -0,0 +1,290 @@
+package br.com.doit.commons.excel;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+/**
+ * Implementação somente leitura de {@link Cell} usada pela leitura em streaming de planilhas XLSX. Guarda apenas o
+ * valor bruto lido do XML da planilha, o suficiente para que as conversões de {@link Cells} funcionem da mesma forma
+ * que com as células do modelo em memória do POI.
+ * <p>
+ * Todos os métodos que alteram a célula lançam {@code UnsupportedOperationException}.
+ */
+class StreamingCell implements Cell {
+    private final StreamingRow row;
+    private final int columnIndex;
+    private final int cellType;
+    private final int cachedFormulaResultType;
+    private final Object value;
+    private final boolean isDate1904;
+
+    /**
+     * Cria uma nova célula.
+     *
+     * @param row
+     *            A linha a que a célula pertence
+     * @param columnIndex
+     *            O índice da coluna (começando em zero)
+     * @param cellType
+     *            O tipo da célula (uma das constantes {@code Cell.CELL_TYPE_*})
+     * @param cachedFormulaResultType
+     *            O tipo do resultado da fórmula caso a célula seja do tipo {@code CELL_TYPE_FORMULA}
+     * @param value
+     *            O valor da célula: {@code String}, {@code Double}, {@code Boolean} ou {@code null}
+     * @param isDate1904
+     *            Indica se a planilha usa o sistema de datas de 1904
+     */
+    StreamingCell(StreamingRow row, int columnIndex, int cellType, int cachedFormulaResultType, Object value, boolean isDate1904) {
+        this.row = row;
+        this.columnIndex = columnIndex;
+        this.cellType = cellType;
+        this.cachedFormulaResultType = cachedFormulaResultType;
+        this.value = value;
+        this.isDate1904 = isDate1904;
+    }
+
+    /**
+     * Cria uma célula em branco.
+     */
+    static StreamingCell blank(StreamingRow row, int columnIndex) {
+        return new StreamingCell(row, columnIndex, CELL_TYPE_BLANK, CELL_TYPE_BLANK, null, false);
+    }
+
+    private static IllegalStateException typeMismatch(int expectedType, int actualType) {
+        return new IllegalStateException("Cannot get a " + typeName(expectedType) + " value from a " + typeName(actualType) + " cell");
+    }
+
+    private static String typeName(int cellType) {
+        switch (cellType) {
+            case CELL_TYPE_BLANK:
+                return "blank";
+            case CELL_TYPE_STRING:
+                return "text";
+            case CELL_TYPE_BOOLEAN:
+                return "boolean";
+            case CELL_TYPE_ERROR:
+                return "error";
+            case CELL_TYPE_NUMERIC:
+                return "numeric";
+            case CELL_TYPE_FORMULA:
+                return "formula";
+            default:
+                return "#unknown cell type (" + cellType + ")#";
+        }
+    }
+
+    private int valueType() {
+        return cellType == CELL_TYPE_FORMULA ? cachedFormulaResultType : cellType;
+    }
+
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        switch (valueType()) {
+            case CELL_TYPE_BLANK:
+                return false;
+            case CELL_TYPE_BOOLEAN:
+                return (Boolean) value;
+            default:
+                throw typeMismatch(CELL_TYPE_BOOLEAN, cellType);
+        }
+    }
+
+    @Override
+    public int getCachedFormulaResultType() {
+        if (cellType != CELL_TYPE_FORMULA) {
+            throw new IllegalStateException("Only formula cells have cached results");
+        }
+
+        return cachedFormulaResultType;
+    }
+
+    @Override
+    public Comment getCellComment() {
+        return null;
+    }
+
+    @Override
+    public String getCellFormula() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CellStyle getCellStyle() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getCellType() {
+        return cellType;
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        if (valueType() == CELL_TYPE_BLANK) {
+            return null;
+        }
+
+        return DateUtil.getJavaDate(getNumericCellValue(), isDate1904);
+    }
+
+    @Override
+    public byte getErrorCellValue() {
+        if (valueType() != CELL_TYPE_ERROR) {
+            throw typeMismatch(CELL_TYPE_ERROR, cellType);
+        }
+
+        return FormulaError.forString((String) value).getCode();
+    }
+
+    @Override
+    public Hyperlink getHyperlink() {
+        return null;
+    }
+
+    @Override
+    public double getNumericCellValue() {
+        switch (valueType()) {
+            case CELL_TYPE_BLANK:
+                return 0.0;
+            case CELL_TYPE_NUMERIC:
+                return (Double) value;
+            default:
+                throw typeMismatch(CELL_TYPE_NUMERIC, cellType);
+        }
+    }
+
+    @Override
+    public RichTextString getRichStringCellValue() {
+        return new XSSFRichTextString(getStringCellValue());
+    }
+
+    @Override
+    public Row getRow() {
+        return row;
+    }
+
+    @Override
+    public int getRowIndex() {
+        return row.getRowNum();
+    }
+
+    @Override
+    public Sheet getSheet() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getStringCellValue() {
+        switch (valueType()) {
+            case CELL_TYPE_BLANK:
+                return "";
+            case CELL_TYPE_STRING:
+                return (String) value;
+            default:
+                throw typeMismatch(CELL_TYPE_STRING, cellType);
+        }
+    }
+
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return false;
+    }
+
+    @Override
+    public void removeCellComment() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAsActiveCell() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellComment(Comment comment) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellErrorValue(byte value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellFormula(String formula) throws FormulaParseException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellStyle(CellStyle style) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellType(int cellType) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellValue(boolean value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellValue(Calendar value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellValue(Date value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellValue(double value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellValue(RichTextString value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCellValue(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setHyperlink(Hyperlink link) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+        return value == null ? "" : value.toString();
+    }
+}
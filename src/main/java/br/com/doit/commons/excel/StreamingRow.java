@@ -0,0 +1,204 @@
+package br.com.doit.commons.excel;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Implementação somente leitura de {@link Row} usada pela leitura em streaming de planilhas XLSX. Contém apenas as
+ * células que estavam presentes no XML da planilha.
+ * <p>
+ * Todos os métodos que alteram a linha lançam {@code UnsupportedOperationException}.
+ */
+class StreamingRow implements Row {
+    private final int rowNum;
+    private Cell[] cells = new Cell[8];
+    private int physicalNumberOfCells;
+    private int lastCellNum;
+
+    StreamingRow(int rowNum) {
+        this.rowNum = rowNum;
+    }
+
+    /**
+     * Adiciona uma célula lida da planilha nessa linha.
+     *
+     * @param cell
+     *            A célula que será adicionada
+     */
+    void addCell(Cell cell) {
+        int index = cell.getColumnIndex();
+
+        if (index >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(index + 1, cells.length * 2));
+        }
+
+        if (cells[index] == null) {
+            physicalNumberOfCells++;
+        }
+
+        cells[index] = cell;
+        lastCellNum = Math.max(lastCellNum, index + 1);
+    }
+
+    @Override
+    public Iterator<Cell> cellIterator() {
+        return new Iterator<Cell>() {
+            private int index = nextIndex(0);
+
+            @Override
+            public boolean hasNext() {
+                return index < lastCellNum;
+            }
+
+            @Override
+            public Cell next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Cell cell = cells[index];
+
+                index = nextIndex(index + 1);
+
+                return cell;
+            }
+
+            private int nextIndex(int start) {
+                int i = start;
+
+                while (i < lastCellNum && cells[i] == null) {
+                    i++;
+                }
+
+                return i;
+            }
+        };
+    }
+
+    @Override
+    public Cell createCell(int column) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Cell createCell(int column, int type) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Cell getCell(int cellnum) {
+        return getCell(cellnum, RETURN_NULL_AND_BLANK);
+    }
+
+    @Override
+    public Cell getCell(int cellnum, MissingCellPolicy policy) {
+        Cell cell = cellnum < 0 || cellnum >= lastCellNum ? null : cells[cellnum];
+
+        if (policy == RETURN_BLANK_AS_NULL && cell != null && cell.getCellType() == Cell.CELL_TYPE_BLANK) {
+            return null;
+        }
+
+        if (policy == CREATE_NULL_AS_BLANK && cell == null) {
+            return StreamingCell.blank(this, cellnum);
+        }
+
+        return cell;
+    }
+
+    @Override
+    public short getFirstCellNum() {
+        for (int i = 0; i < lastCellNum; i++) {
+            if (cells[i] != null) {
+                return (short) i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public short getHeight() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public float getHeightInPoints() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public short getLastCellNum() {
+        return physicalNumberOfCells == 0 ? -1 : (short) lastCellNum;
+    }
+
+    @Override
+    public int getPhysicalNumberOfCells() {
+        return physicalNumberOfCells;
+    }
+
+    @Override
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    @Override
+    public CellStyle getRowStyle() {
+        return null;
+    }
+
+    @Override
+    public Sheet getSheet() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getZeroHeight() {
+        return false;
+    }
+
+    @Override
+    public boolean isFormatted() {
+        return false;
+    }
+
+    @Override
+    public Iterator<Cell> iterator() {
+        return cellIterator();
+    }
+
+    @Override
+    public void removeCell(Cell cell) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setHeight(short height) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setHeightInPoints(float height) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRowNum(int rowNum) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRowStyle(CellStyle style) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setZeroHeight(boolean zeroHeight) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,234 @@
+package br.com.doit.commons.excel;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * Iterador que lê as linhas de uma aba de uma planilha XLSX sob demanda, diretamente do XML da aba. Apenas a linha
+ * corrente é mantida em memória.
+ */
+class StreamingSheetReader implements Iterator<Row>, Closeable {
+    private static int columnIndex(String reference) {
+        int column = 0;
+
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+
+            column = column * 26 + (c - 'A' + 1);
+        }
+
+        return column - 1;
+    }
+
+    private final StreamingWorkbook workbook;
+    private final XMLStreamReader reader;
+    private final InputStream input;
+    private StreamingRow nextRow;
+    private int lastRowNum = -1;
+    private boolean isFinished;
+
+    StreamingSheetReader(StreamingWorkbook workbook, XMLStreamReader reader, InputStream input) {
+        this.workbook = workbook;
+        this.reader = reader;
+        this.input = input;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isFinished) {
+            return;
+        }
+
+        isFinished = true;
+
+        try {
+            reader.close();
+        } catch (XMLStreamException exception) {
+            throw new IOException(exception);
+        } finally {
+            input.close();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null && !isFinished) {
+            try {
+                nextRow = readRow();
+
+                if (nextRow == null) {
+                    close();
+                }
+            } catch (XMLStreamException | IOException exception) {
+                throw new ExcelImporterException(exception);
+            }
+        }
+
+        return nextRow != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Row row = nextRow;
+
+        nextRow = null;
+
+        return row;
+    }
+
+    private Cell readCell(StreamingRow row, int previousColumn) throws XMLStreamException {
+        String reference = reader.getAttributeValue(null, "r");
+        String type = reader.getAttributeValue(null, "t");
+
+        int column = reference != null ? columnIndex(reference) : previousColumn + 1;
+
+        String rawValue = null;
+        boolean isFormula = false;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == START_ELEMENT) {
+                String name = reader.getLocalName();
+
+                if ("v".equals(name)) {
+                    rawValue = reader.getElementText();
+                } else if ("f".equals(name)) {
+                    isFormula = true;
+
+                    skipElement();
+                } else if ("is".equals(name)) {
+                    rawValue = readInlineString();
+                } else {
+                    skipElement();
+                }
+            } else if (event == END_ELEMENT && "c".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+
+        int valueType;
+        Object value;
+
+        if (rawValue == null) {
+            if (!isFormula) {
+                return StreamingCell.blank(row, column);
+            }
+
+            // Fórmula sem resultado calculado: o POI considera o valor como numérico (zero) ou texto vazio
+            valueType = "str".equals(type) ? Cell.CELL_TYPE_STRING : Cell.CELL_TYPE_NUMERIC;
+            value = "str".equals(type) ? "" : 0.0;
+        } else if ("s".equals(type)) {
+            valueType = Cell.CELL_TYPE_STRING;
+            value = workbook.sharedString(Integer.parseInt(rawValue.trim()));
+        } else if ("inlineStr".equals(type) || "str".equals(type)) {
+            valueType = Cell.CELL_TYPE_STRING;
+            value = rawValue;
+        } else if ("b".equals(type)) {
+            valueType = Cell.CELL_TYPE_BOOLEAN;
+            value = "1".equals(rawValue.trim()) || "true".equalsIgnoreCase(rawValue.trim());
+        } else if ("e".equals(type)) {
+            valueType = Cell.CELL_TYPE_ERROR;
+            value = rawValue;
+        } else {
+            valueType = Cell.CELL_TYPE_NUMERIC;
+            value = Double.parseDouble(rawValue);
+        }
+
+        int cellType = isFormula ? Cell.CELL_TYPE_FORMULA : valueType;
+
+        return new StreamingCell(row, column, cellType, valueType, value, workbook.isDate1904());
+    }
+
+    private String readInlineString() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == START_ELEMENT) {
+                if ("t".equals(reader.getLocalName())) {
+                    text.append(reader.getElementText());
+                } else if ("rPh".equals(reader.getLocalName())) {
+                    // Ignora as dicas fonéticas
+                    skipElement();
+                }
+            } else if (event == END_ELEMENT && "is".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+
+        return text.toString();
+    }
+
+    private StreamingRow readRow() throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == START_ELEMENT && "row".equals(reader.getLocalName())) {
+                String reference = reader.getAttributeValue(null, "r");
+
+                lastRowNum = reference != null ? Integer.parseInt(reference) - 1 : lastRowNum + 1;
+
+                StreamingRow row = new StreamingRow(lastRowNum);
+
+                int column = -1;
+
+                while (reader.hasNext()) {
+                    int event = reader.next();
+
+                    if (event == START_ELEMENT && "c".equals(reader.getLocalName())) {
+                        Cell cell = readCell(row, column);
+
+                        column = cell.getColumnIndex();
+
+                        row.addCell(cell);
+                    } else if (event == END_ELEMENT && "row".equals(reader.getLocalName())) {
+                        break;
+                    }
+                }
+
+                return row;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package br.com.doit.commons.excel;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFReader.SheetIterator;
+import org.xml.sax.SAXException;
+
+/**
+ * Acesso somente leitura a uma planilha XLSX sem carregar o modelo completo do POI em memória. As planilhas são lidas
+ * linha a linha diretamente do XML compactado (usando StAX), de forma que o consumo de memória fica limitado à tabela
+ * de textos compartilhados e à linha corrente, independente da quantidade de linhas.
+ * <p>
+ * Quando aberta a partir de um {@code InputStream}, o conteúdo é copiado para um arquivo temporário para que o pacote
+ * possa ser lido com acesso aleatório (o POI carregaria todo o pacote descompactado em memória caso contrário). O
+ * arquivo é removido ao fechar o workbook.
+ */
+class StreamingWorkbook implements WorkbookReader {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return factory;
+    }
+
+    /**
+     * Abre uma planilha XLSX a partir de um {@code InputStream}. O stream não é fechado por esse método.
+     *
+     * @param input
+     *            O input stream de onde a planilha será lida
+     * @return Retorna o workbook aberto para leitura.
+     * @throws IOException
+     *             caso ocorra um erro ao ler o stream.
+     */
+    static StreamingWorkbook open(InputStream input) throws IOException {
+        Path file = Files.createTempFile("doit-commons-", ".xlsx");
+
+        try {
+            Files.copy(input, file, REPLACE_EXISTING);
+
+            return new StreamingWorkbook(file);
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(file);
+
+            throw exception;
+        }
+    }
+
+    private static boolean readDate1904(InputStream workbookData) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(workbookData);
+
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "workbookPr".equals(reader.getLocalName())) {
+                    String date1904 = reader.getAttributeValue(null, "date1904");
+
+                    return "1".equals(date1904) || "true".equalsIgnoreCase(date1904);
+                }
+            }
+
+            return false;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private final Path file;
+    private final OPCPackage pkg;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final boolean isDate1904;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<PackagePart> sheetParts = new ArrayList<>();
+    private final List<StreamingSheetReader> openReaders = new ArrayList<>();
+
+    private StreamingWorkbook(Path file) throws IOException {
+        this.file = file;
+
+        try {
+            pkg = OPCPackage.open(file.toString(), PackageAccess.READ);
+        } catch (OpenXML4JException | InvalidOperationException exception) {
+            throw new ExcelImporterException(exception);
+        }
+
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+
+            sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+            try (InputStream workbookData = reader.getWorkbookData()) {
+                isDate1904 = readDate1904(workbookData);
+            }
+
+            SheetIterator sheets = (SheetIterator) reader.getSheetsData();
+
+            while (sheets.hasNext()) {
+                sheets.next().close();
+
+                sheetNames.add(sheets.getSheetName());
+                sheetParts.add(sheets.getSheetPart());
+            }
+        } catch (OpenXML4JException | SAXException | XMLStreamException exception) {
+            pkg.revert();
+
+            throw new ExcelImporterException(exception);
+        } catch (IOException | RuntimeException exception) {
+            pkg.revert();
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Fecha o pacote da planilha e todas as leituras de abas que ainda estiverem abertas, removendo o arquivo
+     * temporário. O pacote é fechado e o arquivo é removido mesmo que o fechamento de alguma leitura falhe.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeOpenReaders();
+        } finally {
+            try {
+                pkg.revert();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Fecha todas as leituras de abas que ainda estiverem abertas. Quando o fechamento de uma leitura falha as demais
+     * ainda são fechadas e a primeira falha é lançada no final, com as outras como exceções suprimidas.
+     */
+    private void closeOpenReaders() throws IOException {
+        IOException failure = null;
+
+        synchronized (openReaders) {
+            for (StreamingSheetReader reader : openReaders) {
+                try {
+                    reader.close();
+                } catch (IOException exception) {
+                    if (failure == null) {
+                        failure = exception;
+                    } else {
+                        failure.addSuppressed(exception);
+                    }
+                }
+            }
+
+            openReaders.clear();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    boolean isDate1904() {
+        return isDate1904;
+    }
+
+    /**
+     * Cada aba é lida do seu próprio stream XML e as leituras compartilham apenas dados que não são alterados depois
+     * da abertura da planilha, por isso abas diferentes podem ser lidas concorrentemente.
+     */
+    @Override
+    public boolean isConcurrentReadingSupported() {
+        return true;
+    }
+
+    /**
+     * Cria um iterador que lê as linhas da aba informada sob demanda.
+     *
+     * @param sheetIndex
+     *            O índice da aba (começando em zero)
+     * @return Retorna um iterador com as linhas da aba.
+     */
+    @Override
+    public Iterator<Row> rowIterator(int sheetIndex) {
+        if (sheetIndex < 0 || sheetIndex >= sheetParts.size()) {
+            throw new IllegalArgumentException("Sheet index (" + sheetIndex + ") is out of range (0.." + (sheetParts.size() - 1) + ")");
+        }
+
+        try {
+            InputStream input = sheetParts.get(sheetIndex).getInputStream();
+
+            StreamingSheetReader reader = new StreamingSheetReader(this, XML_INPUT_FACTORY.createXMLStreamReader(input), input);
+
+            synchronized (openReaders) {
+                openReaders.add(reader);
+            }
+
+            return reader;
+        } catch (IOException | XMLStreamException exception) {
+            throw new ExcelImporterException(exception);
+        }
+    }
+
+    /**
+     * Obtém o texto compartilhado correspondente ao índice informado.
+     */
+    String sharedString(int index) {
+        return sharedStrings.getEntryAt(index);
+    }
+
+    @Override
+    public List<String> sheetNames() {
+        return sheetNames;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.doit.commons.excel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mantém uma única instância para cada texto distinto convertido durante uma importação, de forma que valores que se
+ * repetem em muitas linhas (como nomes de categorias) compartilhem a mesma <code>String</code>.
+ * <p>
+ * Diferente de {@link String#intern()}, as instâncias são mantidas apenas enquanto a importação estiver em andamento.
+ * A quantidade de textos distintos guardados é limitada para que colunas sem repetição (como identificadores) não
+ * consumam memória em excesso: ao atingir o limite, novos textos deixam de ser guardados.
+ */
+final class StringDeduplicator {
+    private static final int DEFAULT_MAX_SIZE = 16 * 1024;
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private final int maxSize;
+
+    StringDeduplicator() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    StringDeduplicator(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Obtém a instância compartilhada do valor informado caso ele seja uma <code>String</code>.
+     *
+     * @param value
+     *            O valor convertido de uma célula
+     * @return Retorna a instância compartilhada do texto ou o próprio valor caso ele não seja um texto.
+     */
+    Object deduplicate(Object value) {
+        if (!(value instanceof String)) {
+            return value;
+        }
+
+        String text = (String) value;
+
+        String canonical = values.get(text);
+
+        if (canonical != null) {
+            return canonical;
+        }
+
+        if (values.size() < maxSize) {
+            values.put(text, text);
+        }
+
+        return text;
+    }
+}
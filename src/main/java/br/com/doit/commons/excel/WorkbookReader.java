@@ -0,0 +1,32 @@
+package br.com.doit.commons.excel;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * Acesso somente leitura às abas de uma planilha aberta pelo {@link ExcelImporter}, independente do modo de leitura.
+ * A leitura de abas diferentes só pode ser feita concorrentemente quando {@link #isConcurrentReadingSupported()}.
+ */
+interface WorkbookReader extends Closeable {
+    /**
+     * Cria um iterador com as linhas da aba informada.
+     *
+     * @param sheetIndex
+     *            O índice da aba (começando em zero)
+     * @return Retorna um iterador com as linhas da aba.
+     */
+    Iterator<Row> rowIterator(int sheetIndex);
+
+    /**
+     * @return Retorna <code>true</code> caso abas diferentes possam ser lidas ao mesmo tempo por threads diferentes.
+     */
+    boolean isConcurrentReadingSupported();
+
+    /**
+     * @return Retorna os nomes das abas da planilha na ordem em que aparecem no workbook.
+     */
+    List<String> sheetNames();
+}
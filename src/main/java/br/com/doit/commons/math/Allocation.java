@@ -0,0 +1,71 @@
+package br.com.doit.commons.math;
+
+import static java.math.BigDecimal.ZERO;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * O resultado da distribuição proporcional de um valor feita com as versões de {@link MathUtils.Preparation} que
+ * recebem arrays de valores e quantidades. As partes estão na mesma ordem dos valores e quantidades informados.
+ *
+ * @see MathUtils#distribute(BigDecimal)
+ */
+public final class Allocation {
+    private final BigDecimal[] shares;
+
+    private final BigDecimal remainder;
+
+    Allocation(BigDecimal[] shares, BigDecimal remainder) {
+        this.shares = shares;
+        this.remainder = remainder;
+    }
+
+    /**
+     * Cria o resultado de uma distribuição sobre frações cujo total é zero: nenhuma parte pode ser calculada e todas
+     * as partes e o resto são zero.
+     */
+    static Allocation zero(int size) {
+        BigDecimal[] shares = new BigDecimal[size];
+
+        Arrays.fill(shares, ZERO);
+
+        return new Allocation(shares, ZERO);
+    }
+
+    /**
+     * @return Retorna o resto da distribuição, de acordo com o modo de distribuição do resto usado.
+     */
+    public BigDecimal getRemainder() {
+        return remainder;
+    }
+
+    /**
+     * @param index
+     *            O índice da fração, o mesmo índice do seu valor e quantidade
+     * @return Retorna a parte que cabe à fração.
+     */
+    public BigDecimal getShare(int index) {
+        return shares[index];
+    }
+
+    /**
+     * @return Retorna as partes que cabem a cada fração, na mesma ordem dos valores e quantidades. O array não é
+     *         copiado: alterações feitas nele são refletidas nesse resultado.
+     */
+    public BigDecimal[] getShares() {
+        return shares;
+    }
+
+    /**
+     * @return Retorna a quantidade de frações.
+     */
+    public int size() {
+        return shares.length;
+    }
+
+    @Override
+    public String toString() {
+        return "Allocation[shares=" + Arrays.toString(shares) + ", remainder=" + remainder + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.doit.commons.math;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * O resultado da distribuição proporcional de vários valores sobre as mesmas frações, feita com
+ * {@link MathUtils.MultiAmountPreparation}. Os resultados estão na mesma ordem dos valores distribuídos e as partes de
+ * cada resultado na mesma ordem das frações.
+ *
+ * @see MathUtils#distribute(BigDecimal...)
+ */
+public final class Allocations {
+    private final Allocation[] allocations;
+
+    Allocations(Allocation[] allocations) {
+        this.allocations = allocations;
+    }
+
+    /**
+     * @param amountIndex
+     *            O índice do valor distribuído
+     * @return Retorna o resultado da distribuição do valor.
+     */
+    public Allocation get(int amountIndex) {
+        return allocations[amountIndex];
+    }
+
+    /**
+     * @return Retorna os restos das distribuições, na mesma ordem dos valores distribuídos.
+     */
+    public BigDecimal[] getRemainders() {
+        BigDecimal[] remainders = new BigDecimal[allocations.length];
+
+        for (int i = 0; i < allocations.length; i++) {
+            remainders[i] = allocations[i].getRemainder();
+        }
+
+        return remainders;
+    }
+
+    /**
+     * @param amountIndex
+     *            O índice do valor distribuído
+     * @param fractionIndex
+     *            O índice da fração
+     * @return Retorna a parte do valor que cabe à fração.
+     */
+    public BigDecimal getShare(int amountIndex, int fractionIndex) {
+        return allocations[amountIndex].getShare(fractionIndex);
+    }
+
+    /**
+     * @return Retorna a matriz de partes, com uma linha para cada valor distribuído e uma coluna para cada fração. As
+     *         linhas não são copiadas: alterações feitas nelas são refletidas nesse resultado.
+     */
+    public BigDecimal[][] getShares() {
+        BigDecimal[][] shares = new BigDecimal[allocations.length][];
+
+        for (int i = 0; i < allocations.length; i++) {
+            shares[i] = allocations[i].getShares();
+        }
+
+        return shares;
+    }
+
+    /**
+     * @return Retorna a quantidade de valores distribuídos.
+     */
+    public int size() {
+        return allocations.length;
+    }
+
+    @Override
+    public String toString() {
+        return "Allocations" + Arrays.toString(allocations);
+    }
+}
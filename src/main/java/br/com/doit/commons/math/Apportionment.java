@@ -0,0 +1,569 @@
+package br.com.doit.commons.math;
+
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.BANKERS_ROUNDING;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.D_HONDT;
+import static java.lang.Math.addExact;
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+import static java.lang.Math.multiplyExact;
+import static java.lang.Math.negateExact;
+import static java.lang.Math.subtractExact;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+
+import br.com.doit.commons.math.MathUtils.RemainderDistributionMode;
+
+/**
+ * Distribuição proporcional de um valor pelos métodos de rateio {@link RemainderDistributionMode#LARGEST_REMAINDER},
+ * {@link RemainderDistributionMode#D_HONDT} e {@link RemainderDistributionMode#BANKERS_ROUNDING}.
+ * <p>
+ * O valor é convertido em unidades da escala das partes (centavos, na escala padrão) e a cota de cada fração é
+ * <code>unidades * peso / total</code>. As cotas são calculadas de forma exata com números inteiros: cada fração recebe
+ * a parte inteira da sua cota e a sobra (o resto da divisão) é usada para decidir quem recebe as unidades restantes.
+ * Como sobram menos unidades do que frações, as frações que recebem as unidades restantes são escolhidas com filas de
+ * prioridade de tamanho limitado ao número de unidades (<code>k</code>), em tempo <code>O(n log k)</code>, sem ordenar
+ * todas as frações.
+ * <p>
+ * Os cálculos são feitos com <code>long</code>. Quando os pesos, o total ou as unidades não podem ser representados
+ * com <code>long</code>, ou quando ocorre um estouro em qualquer etapa, a distribuição é refeita com
+ * <code>BigInteger</code>, com o mesmo resultado.
+ */
+abstract class Apportionment {
+    /**
+     * Cálculo das cotas com <code>long</code>.
+     */
+    private static final class OfLong extends Apportionment {
+        private final long[] weights;
+
+        private final long total;
+
+        private final long units;
+
+        /**
+         * Partes de cada fração, em unidades da escala das partes.
+         */
+        private final long[] shares;
+
+        /**
+         * Sobras da divisão de <code>unidades * peso</code> pelo total (entre zero e o total).
+         */
+        private final long[] remainders;
+
+        /**
+         * Soma das partes inteiras das cotas.
+         */
+        private long distributed;
+
+        OfLong(long[] weights, long total, long units, ForkJoinPool pool) {
+            super(pool);
+
+            if (total >= 0) {
+                this.weights = weights;
+                this.total = total;
+            } else {
+                // Com o total negativo os sinais dos pesos são invertidos para que as sobras fiquem entre zero e o total
+                this.weights = new long[weights.length];
+                this.total = negateExact(total);
+
+                for (int i = 0; i < weights.length; i++) {
+                    this.weights[i] = negateExact(weights[i]);
+                }
+            }
+
+            this.units = units;
+
+            shares = new long[weights.length];
+            remainders = new long[weights.length];
+        }
+
+        @Override
+        void addUnit(int index) {
+            shares[index]++;
+        }
+
+        @Override
+        void divideQuotas() {
+            distributed = new RangeSum.OfLong() {
+                @Override
+                Long sum(int from, int to) {
+                    long sum = 0;
+
+                    for (int i = from; i < to; i++) {
+                        divideQuota(i);
+
+                        sum = addExact(sum, shares[i]);
+                    }
+
+                    return sum;
+                }
+            }.sum(weights.length, pool);
+        }
+
+        private void divideQuota(int index) {
+            long weight = weights[index];
+
+            try {
+                long quota = multiplyExact(units, weight);
+
+                shares[index] = floorDiv(quota, total);
+                remainders[index] = floorMod(quota, total);
+            } catch (ArithmeticException exception) {
+                BigInteger divisor = BigInteger.valueOf(total);
+
+                BigInteger[] division = floorDivideAndRemainder(BigInteger.valueOf(units).multiply(BigInteger.valueOf(
+                        weight)), divisor);
+
+                shares[index] = division[0].longValueExact();
+                remainders[index] = division[1].longValueExact();
+            }
+        }
+
+        @Override
+        boolean hasHigherAverage(int index, int otherIndex) {
+            // weight / (share + 1) > otherWeight / (otherShare + 1)
+            int comparison = compareProducts(weights[index], shares[otherIndex] + 1, weights[otherIndex],
+                    shares[index] + 1);
+
+            return comparison > 0 || comparison == 0 && index < otherIndex;
+        }
+
+        @Override
+        boolean hasLargerRemainder(int index, int otherIndex) {
+            long remainder = remainders[index];
+            long otherRemainder = remainders[otherIndex];
+
+            return remainder > otherRemainder || remainder == otherRemainder && index < otherIndex;
+        }
+
+        @Override
+        boolean hasNegativeWeight() {
+            for (long weight : weights) {
+                if (weight < 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        boolean isAmountNegative() {
+            return units < 0;
+        }
+
+        @Override
+        boolean isRoundedUp(int index) {
+            long remainder = remainders[index];
+            long missing = total - remainder;
+
+            return remainder > missing || remainder == missing && (shares[index] & 1) != 0;
+        }
+
+        @Override
+        int remainingUnits() {
+            return (int) subtractExact(units, distributed);
+        }
+
+        @Override
+        int size() {
+            return weights.length;
+        }
+
+        @Override
+        Allocation toAllocation(BigDecimal amount, final int scale) {
+            final BigDecimal[] result = new BigDecimal[shares.length];
+
+            long totalShare = new RangeSum.OfLong() {
+                @Override
+                Long sum(int from, int to) {
+                    long sum = 0;
+
+                    for (int i = from; i < to; i++) {
+                        result[i] = BigDecimal.valueOf(shares[i], scale);
+
+                        sum = addExact(sum, shares[i]);
+                    }
+
+                    return sum;
+                }
+            }.sum(result.length, pool);
+
+            return new Allocation(result, amount.subtract(BigDecimal.valueOf(totalShare, scale)));
+        }
+    }
+
+    /**
+     * Cálculo das cotas com <code>BigInteger</code>, usado quando algum valor não pode ser representado com
+     * <code>long</code>.
+     */
+    private static final class OfBigInteger extends Apportionment {
+        private final BigInteger[] weights;
+
+        private final BigInteger total;
+
+        private final BigInteger units;
+
+        private final BigInteger[] shares;
+
+        private final BigInteger[] remainders;
+
+        private BigInteger distributed;
+
+        OfBigInteger(BigInteger[] weights, BigInteger total, BigInteger units, ForkJoinPool pool) {
+            super(pool);
+
+            if (total.signum() >= 0) {
+                this.weights = weights;
+                this.total = total;
+            } else {
+                // Com o total negativo os sinais dos pesos são invertidos para que as sobras fiquem entre zero e o total
+                this.weights = new BigInteger[weights.length];
+                this.total = total.negate();
+
+                for (int i = 0; i < weights.length; i++) {
+                    this.weights[i] = weights[i].negate();
+                }
+            }
+
+            this.units = units;
+
+            shares = new BigInteger[weights.length];
+            remainders = new BigInteger[weights.length];
+        }
+
+        @Override
+        void addUnit(int index) {
+            shares[index] = shares[index].add(BigInteger.ONE);
+        }
+
+        @Override
+        void divideQuotas() {
+            distributed = new RangeSum.OfBigInteger() {
+                @Override
+                BigInteger sum(int from, int to) {
+                    BigInteger sum = BigInteger.ZERO;
+
+                    for (int i = from; i < to; i++) {
+                        BigInteger[] division = floorDivideAndRemainder(units.multiply(weights[i]), total);
+
+                        shares[i] = division[0];
+                        remainders[i] = division[1];
+
+                        sum = sum.add(shares[i]);
+                    }
+
+                    return sum;
+                }
+            }.sum(weights.length, pool);
+        }
+
+        @Override
+        boolean hasHigherAverage(int index, int otherIndex) {
+            // weight / (share + 1) > otherWeight / (otherShare + 1)
+            BigInteger product = weights[index].multiply(shares[otherIndex].add(BigInteger.ONE));
+
+            int comparison = product.compareTo(weights[otherIndex].multiply(shares[index].add(BigInteger.ONE)));
+
+            return comparison > 0 || comparison == 0 && index < otherIndex;
+        }
+
+        @Override
+        boolean hasLargerRemainder(int index, int otherIndex) {
+            int comparison = remainders[index].compareTo(remainders[otherIndex]);
+
+            return comparison > 0 || comparison == 0 && index < otherIndex;
+        }
+
+        @Override
+        boolean hasNegativeWeight() {
+            for (BigInteger weight : weights) {
+                if (weight.signum() < 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        boolean isAmountNegative() {
+            return units.signum() < 0;
+        }
+
+        @Override
+        boolean isRoundedUp(int index) {
+            BigInteger remainder = remainders[index];
+
+            int comparison = remainder.compareTo(total.subtract(remainder));
+
+            return comparison > 0 || comparison == 0 && shares[index].testBit(0);
+        }
+
+        @Override
+        int remainingUnits() {
+            return units.subtract(distributed).intValueExact();
+        }
+
+        @Override
+        int size() {
+            return weights.length;
+        }
+
+        @Override
+        Allocation toAllocation(BigDecimal amount, final int scale) {
+            final BigDecimal[] result = new BigDecimal[shares.length];
+
+            BigInteger totalShare = new RangeSum.OfBigInteger() {
+                @Override
+                BigInteger sum(int from, int to) {
+                    BigInteger sum = BigInteger.ZERO;
+
+                    for (int i = from; i < to; i++) {
+                        result[i] = new BigDecimal(shares[i], scale);
+
+                        sum = sum.add(shares[i]);
+                    }
+
+                    return sum;
+                }
+            }.sum(result.length, pool);
+
+            return new Allocation(result, amount.subtract(new BigDecimal(totalShare, scale)));
+        }
+    }
+
+    /**
+     * Faz a distribuição proporcional do valor de acordo com os pesos das frações que formam o todo.
+     *
+     * @param amount
+     *            O valor que será distribuído
+     * @param mode
+     *            O método de rateio
+     * @param scale
+     *            A escala das partes
+     * @param whole
+     *            As frações que formam o todo
+     * @param pool
+     *            O pool usado para calcular as cotas em paralelo ou <code>null</code> para fazer todos os cálculos na
+     *            thread corrente
+     * @return Retorna o resultado da distribuição ou <code>null</code> caso o total dos pesos seja zero
+     */
+    static Allocation allocate(BigDecimal amount, RemainderDistributionMode mode, int scale, Whole whole,
+            ForkJoinPool pool) {
+        BigInteger total = whole.weightTotal(pool);
+
+        if (total.signum() == 0) {
+            return null;
+        }
+
+        BigInteger units = amount.setScale(scale, RoundingMode.FLOOR).unscaledValue();
+
+        long[] weights = whole.weights();
+
+        if (weights != null && total.bitLength() < Long.SIZE && units.bitLength() < Long.SIZE) {
+            try {
+                return new OfLong(weights, total.longValue(), units.longValue(), pool).distribute(amount, mode, scale);
+            } catch (ArithmeticException exception) {
+                // Estouro de long: a distribuição é refeita com BigInteger
+            }
+        }
+
+        return new OfBigInteger(whole.exactWeights(), total, units, pool).distribute(amount, mode, scale);
+    }
+
+    /**
+     * Compara <code>a * b</code> com <code>c * d</code> sem estouro de <code>long</code>.
+     */
+    private static int compareProducts(long a, long b, long c, long d) {
+        try {
+            return Long.compare(multiplyExact(a, b), multiplyExact(c, d));
+        } catch (ArithmeticException exception) {
+            BigInteger product = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b));
+
+            return product.compareTo(BigInteger.valueOf(c).multiply(BigInteger.valueOf(d)));
+        }
+    }
+
+    /**
+     * Divide arredondando o quociente para baixo. O resto fica entre zero e o divisor, que deve ser positivo.
+     */
+    private static BigInteger[] floorDivideAndRemainder(BigInteger dividend, BigInteger divisor) {
+        BigInteger[] division = dividend.divideAndRemainder(divisor);
+
+        // divideAndRemainder trunca o quociente: o arredondamento para baixo é feito aqui
+        if (division[1].signum() < 0) {
+            division[0] = division[0].subtract(BigInteger.ONE);
+            division[1] = division[1].add(divisor);
+        }
+
+        return division;
+    }
+
+    final ForkJoinPool pool;
+
+    private Apportionment(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Dá uma unidade a mais para a fração.
+     */
+    abstract void addUnit(int index);
+
+    /**
+     * @return Retorna o resultado da distribuição. O total dos pesos não pode ser zero.
+     */
+    Allocation distribute(BigDecimal amount, RemainderDistributionMode mode, int scale) {
+        divideQuotas();
+
+        if (mode == BANKERS_ROUNDING) {
+            roundHalfEven();
+        } else if (mode == D_HONDT) {
+            distributeByHighestAverages();
+        } else {
+            distributeByLargestRemainders();
+        }
+
+        return toAllocation(amount, scale);
+    }
+
+    /**
+     * Seleciona as <code>count</code> melhores frações. A fila informada deve ter a pior fração como a primeira.
+     */
+    private IndexHeap best(int count, IndexHeap worstFirst) {
+        worstFirst.addAll(count);
+
+        for (int i = count; i < size(); i++) {
+            if (worstFirst.isBefore(worstFirst.peek(), i)) {
+                worstFirst.replaceFirst(i);
+            }
+        }
+
+        return worstFirst;
+    }
+
+    /**
+     * Método D'Hondt: cada unidade restante é dada à fração com o maior quociente <code>peso / (partes + 1)</code>.
+     * Como o método D'Hondt nunca dá a uma fração menos do que a parte inteira da sua cota, a distribuição começa
+     * pelas partes inteiras. Somente as <code>k</code> frações com os maiores quocientes iniciais podem receber as
+     * <code>k</code> unidades restantes, por isso apenas elas participam da distribuição.
+     */
+    private void distributeByHighestAverages() {
+        if (isAmountNegative()) {
+            throw new IllegalArgumentException("The D'Hondt method cannot distribute a negative amount.");
+        }
+
+        if (hasNegativeWeight()) {
+            throw new IllegalArgumentException("The D'Hondt method cannot distribute over weights with different signs.");
+        }
+
+        int remainingUnits = remainingUnits();
+
+        if (remainingUnits == 0) {
+            return;
+        }
+
+        IndexHeap candidates = new IndexHeap(remainingUnits) {
+            @Override
+            boolean isBefore(int index, int otherIndex) {
+                return hasHigherAverage(index, otherIndex);
+            }
+        };
+
+        IndexHeap best = best(remainingUnits, new IndexHeap(remainingUnits) {
+            @Override
+            boolean isBefore(int index, int otherIndex) {
+                return hasHigherAverage(otherIndex, index);
+            }
+        });
+
+        candidates.addAll(best);
+
+        for (int i = 0; i < remainingUnits; i++) {
+            int index = candidates.peek();
+
+            addUnit(index);
+
+            // O quociente da fração diminuiu e ela volta para a sua posição na fila
+            candidates.replaceFirst(index);
+        }
+    }
+
+    /**
+     * Método do maior resto (Hamilton): as unidades restantes são dadas, uma para cada, às frações com as maiores
+     * sobras.
+     */
+    private void distributeByLargestRemainders() {
+        int remainingUnits = remainingUnits();
+
+        if (remainingUnits == 0) {
+            return;
+        }
+
+        IndexHeap best = best(remainingUnits, new IndexHeap(remainingUnits) {
+            @Override
+            boolean isBefore(int index, int otherIndex) {
+                return hasLargerRemainder(otherIndex, index);
+            }
+        });
+
+        for (int i = 0; i < best.size(); i++) {
+            addUnit(best.get(i));
+        }
+    }
+
+    /**
+     * Calcula a parte inteira e a sobra da cota de cada fração.
+     */
+    abstract void divideQuotas();
+
+    /**
+     * @return Retorna <code>true</code> caso o quociente <code>peso / (partes + 1)</code> da primeira fração seja
+     *         maior do que o da segunda. Em caso de empate, a fração de menor índice é considerada maior.
+     */
+    abstract boolean hasHigherAverage(int index, int otherIndex);
+
+    /**
+     * @return Retorna <code>true</code> caso a sobra da primeira fração seja maior do que a da segunda. Em caso de
+     *         empate, a fração de menor índice é considerada maior.
+     */
+    abstract boolean hasLargerRemainder(int index, int otherIndex);
+
+    abstract boolean hasNegativeWeight();
+
+    abstract boolean isAmountNegative();
+
+    /**
+     * @return Retorna <code>true</code> caso a cota da fração deva ser arredondada para cima no arredondamento
+     *         bancário.
+     */
+    abstract boolean isRoundedUp(int index);
+
+    /**
+     * @return Retorna a quantidade de unidades que não foram distribuídas pelas partes inteiras das cotas. Como a soma
+     *         das cotas é igual ao total de unidades, sobram menos unidades do que frações.
+     */
+    abstract int remainingUnits();
+
+    /**
+     * Arredonda cada cota de forma independente para o inteiro mais próximo, ou para o par mais próximo quando a
+     * cota estiver exatamente no meio.
+     */
+    private void roundHalfEven() {
+        for (int i = 0; i < size(); i++) {
+            if (isRoundedUp(i)) {
+                addUnit(i);
+            }
+        }
+    }
+
+    abstract int size();
+
+    /**
+     * @return Retorna as partes calculadas na escala informada e o resto da distribuição do valor.
+     */
+    abstract Allocation toAllocation(BigDecimal amount, int scale);
+}
@@ -0,0 +1,175 @@
+package br.com.doit.commons.math;
+
+/**
+ * Fila de prioridade de índices (de frações, por exemplo) guardados em um array de <code>int</code>. A ordem dos
+ * índices é definida pelas subclasses, normalmente comparando valores guardados em arrays paralelos.
+ * <p>
+ * A fila pode ser montada com todos os índices em tempo linear ({@link #addAll(int)}) e cada índice é incluído ou
+ * retirado em tempo logarítmico, o que permite percorrer apenas os primeiros índices ou manter somente os
+ * <code>k</code> melhores sem o custo de uma ordenação completa.
+ */
+abstract class IndexHeap {
+    private final int[] heap;
+
+    private int size;
+
+    /**
+     * Cria uma fila vazia.
+     *
+     * @param capacity
+     *            A quantidade máxima de índices na fila
+     */
+    IndexHeap(int capacity) {
+        heap = new int[capacity];
+    }
+
+    /**
+     * Inclui um índice na fila.
+     *
+     * @param index
+     *            O índice que será incluído
+     */
+    void add(int index) {
+        int position = size++;
+
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+
+            if (!isBefore(index, heap[parent])) {
+                break;
+            }
+
+            heap[position] = heap[parent];
+
+            position = parent;
+        }
+
+        heap[position] = index;
+    }
+
+    /**
+     * Inclui os índices de <code>0</code> a <code>count - 1</code> em uma fila vazia, em tempo linear.
+     *
+     * @param count
+     *            A quantidade de índices
+     */
+    void addAll(int count) {
+        for (int i = 0; i < count; i++) {
+            heap[i] = i;
+        }
+
+        size = count;
+
+        heapify();
+    }
+
+    /**
+     * Inclui os índices de outra fila em uma fila vazia, em tempo linear.
+     *
+     * @param other
+     *            A fila com os índices que serão incluídos
+     */
+    void addAll(IndexHeap other) {
+        System.arraycopy(other.heap, 0, heap, 0, other.size);
+
+        size = other.size;
+
+        heapify();
+    }
+
+    /**
+     * Retorna o índice guardado em uma posição da fila. As posições não seguem a ordem da fila, mas permitem percorrer
+     * todos os índices sem retirá-los.
+     *
+     * @param position
+     *            A posição, de <code>0</code> a <code>size() - 1</code>
+     * @return Retorna o índice guardado na posição
+     */
+    int get(int position) {
+        return heap[position];
+    }
+
+    /**
+     * @return Retorna <code>true</code> caso não existam mais índices na fila.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Define a ordem dos índices na fila.
+     *
+     * @return Retorna <code>true</code> caso o primeiro índice deva sair da fila antes do segundo
+     */
+    abstract boolean isBefore(int index, int otherIndex);
+
+    /**
+     * @return Retorna o primeiro índice da fila, sem retirá-lo.
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Retira o primeiro índice da fila.
+     *
+     * @return Retorna o índice retirado
+     */
+    int poll() {
+        int first = heap[0];
+
+        heap[0] = heap[--size];
+
+        siftDown(0);
+
+        return first;
+    }
+
+    /**
+     * Substitui o primeiro índice da fila. Também deve ser chamado com o próprio primeiro índice quando a sua
+     * prioridade diminuir.
+     *
+     * @param index
+     *            O índice que substituirá o primeiro índice da fila
+     */
+    void replaceFirst(int index) {
+        heap[0] = index;
+
+        siftDown(0);
+    }
+
+    /**
+     * @return Retorna a quantidade de índices na fila.
+     */
+    int size() {
+        return size;
+    }
+
+    private void heapify() {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+
+        int child;
+
+        while ((child = 2 * position + 1) < size) {
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+
+            if (!isBefore(heap[child], index)) {
+                break;
+            }
+
+            heap[position] = heap[child];
+
+            position = child;
+        }
+
+        heap[position] = index;
+    }
+}
@@ -4,17 +4,12 @@ import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.IGNOR
 import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.STRICTLY_PROPORTIONAL;
 import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.UNEVENLY;
 import static java.math.BigDecimal.ZERO;
+import static java.math.RoundingMode.FLOOR;
 import static java.math.RoundingMode.HALF_EVEN;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A classe <code>MathUtils</code> contém funções auxiliares para lidar com operações matemáticas.
@@ -23,6 +18,153 @@ import java.util.Map;
  * @author <a href="mailto:hprange@gmail.com.br">Henrique Prange</a>
  */
 public class MathUtils {
+    /**
+     * Essa classe será usada em conjunto com a operação de distribuição de vários valores sobre as mesmas frações. Ela
+     * não deve ser usada de forma isolada.
+     * <p>
+     * O total das frações, a ordem decrescente dos valores, os pesos e o total dos pesos são calculados uma única vez e
+     * usados na distribuição de todos os valores. Cada valor é distribuído da mesma forma que em {@link Preparation}.
+     */
+    public static final class MultiAmountPreparation {
+        private final Preparation[] preparations;
+
+        private MultiAmountPreparation(Preparation[] preparations) {
+            this.preparations = preparations;
+        }
+
+        private Allocations allocate(Whole whole) {
+            Allocation[] allocations = new Allocation[preparations.length];
+
+            if (preparations.length > 1) {
+                whole.useSortedIndexes();
+            }
+
+            for (int i = 0; i < preparations.length; i++) {
+                allocations[i] = preparations[i].allocateOrZero(whole);
+            }
+
+            return new Allocations(allocations);
+        }
+
+        /**
+         * Distribui os valores de forma proporcional entre o conjunto de <code>Fraction</code>s que formam o todo. As
+         * partes não são atribuídas às <code>Fraction</code>s, já que cada uma recebe uma parte de cada valor. Exemplo
+         * de uso:
+         *
+         * <pre>
+         * Allocations allocations = MathUtils.distribute(freight, insurance, discount).over(collectionOfFractions);
+         * </pre>
+         *
+         * @param whole
+         *            Uma coleção de <code>Fraction</code>s que representam o todo
+         * @return Retorna as partes que cabem a cada fração de cada valor, na ordem da coleção, e os restos das
+         *         distribuições. Caso o total das frações seja zero, todas as partes e os restos são zero.
+         */
+        public Allocations over(Collection<Fraction> whole) {
+            BigDecimal[] values = new BigDecimal[whole.size()];
+            BigDecimal[] quantities = new BigDecimal[whole.size()];
+
+            int index = 0;
+
+            for (Fraction fraction : whole) {
+                values[index] = fraction.value();
+                quantities[index] = fraction.quantity();
+
+                index++;
+            }
+
+            return allocate(Whole.of(values, quantities));
+        }
+
+        /**
+         * Distribui os valores de forma proporcional entre as frações representadas pelos valores e quantidades
+         * informados. Veja {@link Preparation#over(BigDecimal[], BigDecimal[])}.
+         *
+         * @param values
+         *            Os valores das frações
+         * @param quantities
+         *            As quantidades das frações, na mesma ordem dos valores
+         * @return Retorna as partes que cabem a cada fração de cada valor e os restos das distribuições
+         */
+        public Allocations over(BigDecimal[] values, BigDecimal[] quantities) {
+            Preparation.checkSameLength(values.length, quantities.length);
+
+            return allocate(Whole.of(values, quantities));
+        }
+
+        /**
+         * Distribui os valores de forma proporcional entre as frações representadas pelos valores e quantidades sem
+         * escala informados. Veja {@link Preparation#over(long[], int, long[], int)}.
+         *
+         * @param values
+         *            Os valores das frações sem escala
+         * @param valueScale
+         *            A escala dos valores
+         * @param quantities
+         *            As quantidades das frações sem escala, na mesma ordem dos valores
+         * @param quantityScale
+         *            A escala das quantidades
+         * @return Retorna as partes que cabem a cada fração de cada valor e os restos das distribuições
+         */
+        public Allocations over(long[] values, int valueScale, long[] quantities, int quantityScale) {
+            Preparation.checkSameLength(values.length, quantities.length);
+
+            return allocate(Whole.ofUnscaled(values, valueScale, quantities, quantityScale));
+        }
+
+        /**
+         * Faz os cálculos proporcionais das distribuições em paralelo no pool informado. Veja
+         * {@link Preparation#inParallel(ForkJoinPool)}.
+         *
+         * @param pool
+         *            O pool usado para fazer os cálculos em paralelo ou <code>null</code> para fazer todos os cálculos
+         *            na thread corrente
+         * @return Retorna uma nova preparação para a distribuição dos mesmos valores em paralelo no pool informado
+         */
+        public MultiAmountPreparation inParallel(ForkJoinPool pool) {
+            Preparation[] result = new Preparation[preparations.length];
+
+            for (int i = 0; i < preparations.length; i++) {
+                result[i] = preparations[i].inParallel(pool);
+            }
+
+            return new MultiAmountPreparation(result);
+        }
+
+        /**
+         * Faz as distribuições usando números inteiros do tipo <code>long</code>. Veja
+         * {@link Preparation#usingScaledLongs()}.
+         *
+         * @return Retorna uma nova preparação para a distribuição dos mesmos valores usando <code>long</code>
+         */
+        public MultiAmountPreparation usingScaledLongs() {
+            Preparation[] result = new Preparation[preparations.length];
+
+            for (int i = 0; i < preparations.length; i++) {
+                result[i] = preparations[i].usingScaledLongs();
+            }
+
+            return new MultiAmountPreparation(result);
+        }
+
+        /**
+         * Define a escala (quantidade de casas decimais) das partes. Veja {@link Preparation#withScale(int)}.
+         *
+         * @param scale
+         *            A escala das partes
+         * @return Retorna uma nova preparação para a distribuição dos mesmos valores com a escala informada
+         */
+        public MultiAmountPreparation withScale(int scale) {
+            Preparation[] result = new Preparation[preparations.length];
+
+            for (int i = 0; i < preparations.length; i++) {
+                result[i] = preparations[i].withScale(scale);
+            }
+
+            return new MultiAmountPreparation(result);
+        }
+    }
+
     /**
      * Essa classe será usada em conjunto com a operação de distribuição de um valor. Ela não deve ser usada de forma
      * isolada.
@@ -30,21 +172,37 @@ public class MathUtils {
      * @author <a href="mailto:hprange@gmail.com.br">Henrique Prange</a>
      */
     public static final class Preparation {
-        private static boolean isRemainderDivisibleByQuantity(BigDecimal remainder, BigDecimal quantity) {
+        private static final int DEFAULT_SCALE = 2;
+
+        private static void checkSameLength(int valuesLength, int quantitiesLength) {
+            if (valuesLength != quantitiesLength) {
+                throw new IllegalArgumentException("The values and the quantities must have the same length. Values: "
+                        + valuesLength + ", quantities: " + quantitiesLength + ".");
+            }
+        }
+
+        private static boolean isRemainderDivisibleByQuantity(BigDecimal remainder, BigDecimal quantity, int scale) {
 
             if (ZERO.compareTo(remainder) == 0 || ZERO.compareTo(quantity) == 0) {
                 return false;
             }
 
-            return ZERO.compareTo(remainder.multiply(new BigDecimal("100")).remainder(quantity)) == 0;
+            return ZERO.compareTo(remainder.multiply(BigDecimal.TEN.pow(scale)).remainder(quantity)) == 0;
         }
 
         private final BigDecimal amount;
         private final RemainderDistributionMode mode;
+        private final boolean isUsingScaledLongs;
+        private final int scale;
+        private final ForkJoinPool pool;
 
-        private Preparation(BigDecimal amount, RemainderDistributionMode mode) {
+        private Preparation(BigDecimal amount, RemainderDistributionMode mode, boolean isUsingScaledLongs, int scale,
+                ForkJoinPool pool) {
             this.amount = amount;
             this.mode = mode;
+            this.isUsingScaledLongs = isUsingScaledLongs;
+            this.scale = scale;
+            this.pool = pool;
         }
 
         /**
@@ -64,43 +222,158 @@ public class MathUtils {
          *         distribuição do resto, assim será retornado <code>BigDecimal.ZERO</code>.
          */
         public BigDecimal over(Collection<Fraction> whole) {
+            Fraction[] fractions = whole.toArray(new Fraction[whole.size()]);
 
-            whole = sortedByValue(whole);
+            BigDecimal[] values = new BigDecimal[fractions.length];
+            BigDecimal[] quantities = new BigDecimal[fractions.length];
 
-            BigDecimal total = total(whole);
+            for (int i = 0; i < fractions.length; i++) {
+                values[i] = fractions[i].value();
+                quantities[i] = fractions[i].quantity();
+            }
 
-            if (ZERO.compareTo(total) == 0) {
+            Allocation allocation = allocate(Whole.of(values, quantities));
+
+            if (allocation == null) {
                 return ZERO;
             }
 
-            BigDecimal totalShare = ZERO;
+            for (int i = 0; i < fractions.length; i++) {
+                fractions[i].setShare(allocation.getShare(i));
+            }
 
-            Map<Fraction, BigDecimal> shares = new HashMap<Fraction, BigDecimal>(whole.size());
+            return allocation.getRemainder();
+        }
 
-            for (Fraction fraction : whole) {
-                BigDecimal ratio = amount.multiply(fraction.value()).divide(total, 2, RoundingMode.FLOOR);
+        /**
+         * Distribui um valor de forma proporcional entre as frações representadas pelos valores e quantidades
+         * informados, sem a necessidade de criar uma <code>Fraction</code> para cada item. O resultado é o mesmo de
+         * {@link #over(Collection)}. Exemplo de uso:
+         *
+         * <pre>
+         * Allocation allocation = MathUtils.distribute(freight).over(values, quantities);
+         *
+         * BigDecimal[] shares = allocation.getShares();
+         * </pre>
+         *
+         * @param values
+         *            Os valores das frações
+         * @param quantities
+         *            As quantidades das frações, na mesma ordem dos valores
+         * @return Retorna as partes que cabem a cada fração, na mesma ordem dos valores, e o resto da distribuição.
+         *         Caso o total das frações seja zero, todas as partes e o resto são zero.
+         */
+        public Allocation over(BigDecimal[] values, BigDecimal[] quantities) {
+            checkSameLength(values.length, quantities.length);
+
+            return allocateOrZero(Whole.of(values, quantities));
+        }
+
+        /**
+         * Distribui um valor de forma proporcional entre as frações representadas pelos valores e quantidades sem
+         * escala informados (como valores em centavos). O resultado é o mesmo de {@link #over(BigDecimal[], BigDecimal[])}
+         * com os valores <code>BigDecimal.valueOf(values[i], valueScale)</code> e
+         * <code>BigDecimal.valueOf(quantities[i], quantityScale)</code>, mas o cálculo é sempre feito com
+         * <code>long</code> (veja {@link #usingScaledLongs()}), a não ser que algum valor não possa ser representado.
+         * Exemplo de uso:
+         *
+         * <pre>
+         * Allocation allocation = MathUtils.distribute(freight).over(valuesInCents, 2, quantities, 0);
+         * </pre>
+         *
+         * @param values
+         *            Os valores das frações sem escala
+         * @param valueScale
+         *            A escala dos valores
+         * @param quantities
+         *            As quantidades das frações sem escala, na mesma ordem dos valores
+         * @param quantityScale
+         *            A escala das quantidades
+         * @return Retorna as partes que cabem a cada fração, na mesma ordem dos valores, e o resto da distribuição.
+         *         Caso o total das frações seja zero, todas as partes e o resto são zero.
+         */
+        public Allocation over(long[] values, int valueScale, long[] quantities, int quantityScale) {
+            checkSameLength(values.length, quantities.length);
 
-                BigDecimal share = ratio.multiply(fraction.quantity()).setScale(2, RoundingMode.FLOOR);
+            return allocateOrZero(Whole.ofUnscaled(values, valueScale, quantities, quantityScale));
+        }
+
+        /**
+         * @return Retorna o resultado da distribuição ou <code>null</code> caso o total das frações seja zero
+         */
+        private Allocation allocate(Whole whole) {
+            if (mode.isApportionment()) {
+                return Apportionment.allocate(amount, mode, scale, whole, pool);
+            }
 
-                if (ZERO.compareTo(share) != 0) {
-                    BigDecimal aux = share.divide(fraction.quantity(), 2, RoundingMode.FLOOR);
+            // Valores sem escala são sempre distribuídos com long, a não ser que algum valor não possa ser representado
+            if (isUsingScaledLongs || whole.isUnscaled()) {
+                ScaledLongAllocation allocation = ScaledLongAllocation.allocate(amount, mode, scale, whole, pool);
 
-                    share = aux.multiply(fraction.quantity()).setScale(2, RoundingMode.FLOOR);
+                if (allocation != null) {
+                    return allocation.toAllocation();
                 }
+            }
 
-                shares.put(fraction, share);
+            return allocateUsingBigDecimals(whole);
+        }
+
+        /**
+         * @return Retorna o resultado da distribuição ou partes e resto zero caso o total das frações seja zero
+         */
+        private Allocation allocateOrZero(Whole whole) {
+            Allocation allocation = allocate(whole);
+
+            return allocation == null ? Allocation.zero(whole.size()) : allocation;
+        }
 
-                totalShare = totalShare.add(share);
+        private Allocation allocateUsingBigDecimals(Whole whole) {
+            final BigDecimal[] values = whole.values();
+            final BigDecimal[] quantities = whole.quantities();
+
+            final BigDecimal total = whole.total(pool);
+
+            if (ZERO.compareTo(total) == 0) {
+                return null;
             }
 
+            final BigDecimal[] shares = new BigDecimal[values.length];
+
+            BigDecimal totalShare = new RangeSum<BigDecimal>() {
+                @Override
+                BigDecimal add(BigDecimal sum, BigDecimal otherSum) {
+                    return sum.add(otherSum);
+                }
+
+                @Override
+                BigDecimal sum(int from, int to) {
+                    BigDecimal sum = ZERO;
+
+                    for (int i = from; i < to; i++) {
+                        shares[i] = floorShare(values[i], quantities[i], total);
+
+                        sum = sum.add(shares[i]);
+                    }
+
+                    return sum;
+                }
+            }.sum(values.length, pool);
+
             BigDecimal remainder = amount.subtract(totalShare);
 
-            for (Fraction fraction : whole) {
-                BigDecimal share = shares.get(fraction);
+            // Sem resto as partes não mudam mais e a ordenação das frações, a parte mais cara, não é necessária. Um resto
+            // zero com casas decimais ainda altera a escala da primeira parte quando a quantidade é ignorada
+            if (mode == STRICTLY_PROPORTIONAL || ZERO.compareTo(remainder) == 0 && mode != IGNORING_QUANTITY) {
+                return new Allocation(shares, remainder);
+            }
+
+            for (int index : whole.sortedIndexes()) {
+                BigDecimal share = shares[index];
+                BigDecimal quantity = quantities[index];
 
-                if (mode != STRICTLY_PROPORTIONAL && (isRemainderDivisibleByQuantity(remainder, fraction.quantity()) || mode == IGNORING_QUANTITY)) {
+                if (mode != STRICTLY_PROPORTIONAL && (isRemainderDivisibleByQuantity(remainder, quantity, scale) || mode == IGNORING_QUANTITY)) {
 
-                    BigDecimal subtotal = fraction.value().multiply(fraction.quantity());
+                    BigDecimal subtotal = values[index].multiply(quantity);
 
                     BigDecimal available = subtotal.subtract(share);
 
@@ -115,31 +388,82 @@ public class MathUtils {
                     }
                 }
 
-                fraction.setShare(share);
+                shares[index] = share;
             }
 
-            return remainder;
+            return new Allocation(shares, remainder);
         }
 
-        private Collection<Fraction> sortedByValue(Collection<Fraction> whole) {
-            List<Fraction> listSortable = new ArrayList<Fraction>(whole);
-            Collections.sort(listSortable, Collections.reverseOrder(new Comparator<Fraction>() {
-                @Override
-                public int compare(Fraction o1, Fraction o2) {
-                    return o1.value().compareTo(o2.value());
-                }
-            }));
-            return listSortable;
+        /**
+         * Calcula a parte da fração arredondada para baixo e ajustada para ser divisível pela quantidade.
+         */
+        private BigDecimal floorShare(BigDecimal value, BigDecimal quantity, BigDecimal total) {
+            BigDecimal ratio = amount.multiply(value).divide(total, scale, FLOOR);
+
+            BigDecimal share = ratio.multiply(quantity).setScale(scale, FLOOR);
+
+            if (ZERO.compareTo(share) != 0) {
+                BigDecimal aux = share.divide(quantity, scale, FLOOR);
+
+                share = aux.multiply(quantity).setScale(scale, FLOOR);
+            }
+
+            return share;
         }
 
-        private BigDecimal total(Collection<Fraction> whole) {
-            BigDecimal total = ZERO;
+        /**
+         * Faz os cálculos proporcionais da distribuição (o total das frações e as partes arredondadas para baixo) em
+         * paralelo no pool informado, dividindo as frações em partes. Somente coleções grandes são divididas. A
+         * distribuição do resto continua sendo feita na thread corrente, na mesma ordem, e como as somas parciais são
+         * exatas o resultado é idêntico ao da distribuição sem paralelismo. Exemplo de uso:
+         *
+         * <pre>
+         * MathUtils.distribute(costs).inParallel(ForkJoinPool.commonPool()).over(values, quantities);
+         * </pre>
+         *
+         * @param pool
+         *            O pool usado para fazer os cálculos em paralelo ou <code>null</code> para fazer todos os cálculos
+         *            na thread corrente
+         * @return Retorna uma nova preparação para a distribuição do mesmo valor em paralelo no pool informado
+         */
+        public Preparation inParallel(ForkJoinPool pool) {
+            return new Preparation(amount, mode, isUsingScaledLongs, scale, pool);
+        }
 
-            for (Fraction fraction : whole) {
-                total = total.add(fraction.quantity().multiply(fraction.value()));
+        /**
+         * Faz a distribuição usando números inteiros do tipo <code>long</code> (centavos) em vez de
+         * <code>BigDecimal</code>. As partes e o resto são exatamente os mesmos (inclusive na escala) da distribuição
+         * com <code>BigDecimal</code>, mas o cálculo é bem mais rápido em coleções grandes. Caso algum valor não possa
+         * ser representado com <code>long</code> (mais de 18 dígitos ou estouro durante o cálculo), a distribuição é
+         * feita com <code>BigDecimal</code>. Exemplo de uso:
+         *
+         * <pre>
+         * MathUtils.distribute(new BigDecimal(2)).usingScaledLongs().over(collectionOfFractions);
+         * </pre>
+         *
+         * @return Retorna uma nova preparação para a distribuição do mesmo valor usando <code>long</code>
+         */
+        public Preparation usingScaledLongs() {
+            return new Preparation(amount, mode, true, scale, pool);
+        }
+
+        /**
+         * Define a escala (quantidade de casas decimais) das partes. A escala padrão é 2 (centavos). Exemplo de uso:
+         *
+         * <pre>
+         * MathUtils.distribute(new BigDecimal(2), LARGEST_REMAINDER).withScale(4).over(collectionOfFractions);
+         * </pre>
+         *
+         * @param scale
+         *            A escala das partes
+         * @return Retorna uma nova preparação para a distribuição do mesmo valor com a escala informada
+         */
+        public Preparation withScale(int scale) {
+            if (scale < 0) {
+                throw new IllegalArgumentException("The scale must be greater than or equal to zero.");
             }
 
-            return total;
+            return new Preparation(amount, mode, isUsingScaledLongs, scale, pool);
         }
     }
 
@@ -165,7 +489,39 @@ public class MathUtils {
          * Ignora o resto caso não seja possível distribuir o valor de forma proporcional, levando em conta a quantidade
          * de cada <code>Fraction</code>.
          */
-        UNEVENLY
+        UNEVENLY,
+
+        /**
+         * Método do maior resto (Hamilton). Cada <code>Fraction</code> recebe a sua parte proporcional arredondada para
+         * baixo e as unidades que sobram (centavos, na escala padrão) são dadas, uma para cada, às
+         * <code>Fraction</code>s com as maiores sobras no arredondamento. Todo o valor é distribuído, com exceção das
+         * casas decimais além da escala das partes, que são retornadas como resto.
+         * <p>
+         * Nesse modo, assim como em {@link #D_HONDT} e {@link #BANKERS_ROUNDING}, a quantidade é usada apenas no peso
+         * (<code>quantidade * valor</code>) de cada <code>Fraction</code> e as partes não precisam ser divisíveis pela
+         * quantidade.
+         */
+        LARGEST_REMAINDER,
+
+        /**
+         * Método D'Hondt (maiores médias). As unidades (centavos, na escala padrão) são distribuídas uma a uma para a
+         * <code>Fraction</code> com o maior quociente <code>peso / (unidades recebidas + 1)</code>, o que favorece as
+         * <code>Fraction</code>s de maior peso. Todo o valor é distribuído, com exceção das casas decimais além da
+         * escala das partes, que são retornadas como resto. O valor e os pesos não podem ser negativos.
+         */
+        D_HONDT,
+
+        /**
+         * Arredonda a parte proporcional de cada <code>Fraction</code> de forma independente para o valor mais próximo
+         * na escala das partes, ou para o par mais próximo quando a parte estiver exatamente no meio (arredondamento
+         * bancário). A soma das partes pode ser diferente do valor distribuído e a diferença, positiva ou negativa, é
+         * retornada como resto.
+         */
+        BANKERS_ROUNDING;
+
+        boolean isApportionment() {
+            return this == LARGEST_REMAINDER || this == D_HONDT || this == BANKERS_ROUNDING;
+        }
     }
 
     /**
@@ -197,7 +553,7 @@ public class MathUtils {
      *            o valor que será distribuído entre as <code>Fraction</code>s que compõem o todo
      */
     public static Preparation distribute(BigDecimal amount) {
-        return new Preparation(amount, UNEVENLY);
+        return new Preparation(amount, UNEVENLY, false, Preparation.DEFAULT_SCALE, null);
     }
 
     /**
@@ -214,7 +570,47 @@ public class MathUtils {
      *            define o que deve ser feito com o resto caso a divisão proporcional não seja exata
      */
     public static Preparation distribute(BigDecimal amount, RemainderDistributionMode mode) {
-        return new Preparation(amount, mode);
+        return new Preparation(amount, mode, false, Preparation.DEFAULT_SCALE, null);
+    }
+
+    /**
+     * Distribui vários valores de forma proporcional entre o mesmo conjunto de <code>Fraction</code>s. O resultado de
+     * cada valor é o mesmo de {@link #distribute(BigDecimal)}, mas o total e a ordenação das frações são calculados
+     * uma única vez. Exemplo de uso:
+     *
+     * <pre>
+     * Allocations allocations = MathUtils.distribute(freight, insurance, discount).over(values, quantities);
+     * </pre>
+     *
+     * @param amounts
+     *            os valores que serão distribuídos entre as <code>Fraction</code>s que compõem o todo
+     */
+    public static MultiAmountPreparation distribute(BigDecimal... amounts) {
+        return distribute(amounts, UNEVENLY);
+    }
+
+    /**
+     * Distribui vários valores de forma proporcional entre o mesmo conjunto de <code>Fraction</code>s. O resultado de
+     * cada valor é o mesmo de {@link #distribute(BigDecimal, RemainderDistributionMode)}, mas o total e a ordenação
+     * das frações são calculados uma única vez. Exemplo de uso:
+     *
+     * <pre>
+     * MathUtils.distribute(new BigDecimal[] { freight, insurance }, Mode.IGNORING_QUANTITY).over(values, quantities);
+     * </pre>
+     *
+     * @param amounts
+     *            os valores que serão distribuídos entre as <code>Fraction</code>s que compõem o todo
+     * @param mode
+     *            define o que deve ser feito com o resto caso a divisão proporcional não seja exata
+     */
+    public static MultiAmountPreparation distribute(BigDecimal[] amounts, RemainderDistributionMode mode) {
+        Preparation[] preparations = new Preparation[amounts.length];
+
+        for (int i = 0; i < amounts.length; i++) {
+            preparations[i] = distribute(amounts[i], mode);
+        }
+
+        return new MultiAmountPreparation(preparations);
     }
 
     /**
@@ -0,0 +1,100 @@
+package br.com.doit.commons.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Soma de valores calculados sobre intervalos de índices (de frações, por exemplo). Intervalos grandes podem ser
+ * divididos em partes somadas em paralelo em um {@link ForkJoinPool}.
+ * <p>
+ * As subclasses devem usar somas exatas, como as de <code>BigDecimal</code> ou de <code>long</code> com detecção de
+ * estouro. Dessa forma o resultado não depende da divisão dos índices e é idêntico ao da soma na thread corrente.
+ * Quando a soma também preenche arrays, cada parte deve escrever somente nas posições do seu intervalo.
+ *
+ * @param <T>
+ *            O tipo da soma
+ */
+abstract class RangeSum<T> {
+    /**
+     * Soma de <code>long</code>s. Um estouro em qualquer parte lança uma <code>ArithmeticException</code>.
+     */
+    abstract static class OfLong extends RangeSum<Long> {
+        @Override
+        Long add(Long sum, Long otherSum) {
+            return Math.addExact(sum, otherSum);
+        }
+    }
+
+    /**
+     * Soma de <code>BigInteger</code>s.
+     */
+    abstract static class OfBigInteger extends RangeSum<BigInteger> {
+        @Override
+        BigInteger add(BigInteger sum, BigInteger otherSum) {
+            return sum.add(otherSum);
+        }
+    }
+
+    /**
+     * Divide um intervalo grande em partes menores que são somadas em paralelo.
+     */
+    private final class SumTask extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        SumTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= PARALLEL_BATCH_SIZE) {
+                return sum(from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+
+            SumTask left = new SumTask(from, middle);
+
+            left.fork();
+
+            T right = new SumTask(middle, to).compute();
+
+            return add(left.join(), right);
+        }
+    }
+
+    private static final int PARALLEL_BATCH_SIZE = 8 * 1024;
+
+    /**
+     * Soma duas somas parciais.
+     */
+    abstract T add(T sum, T otherSum);
+
+    /**
+     * Calcula a soma dos índices de <code>from</code> (inclusive) a <code>to</code> (exclusive).
+     */
+    abstract T sum(int from, int to);
+
+    /**
+     * Calcula a soma dos índices de <code>0</code> a <code>size - 1</code>.
+     *
+     * @param size
+     *            A quantidade de índices
+     * @param pool
+     *            O pool usado para somar as partes do intervalo em paralelo ou <code>null</code> para somar todos os
+     *            índices na thread corrente
+     * @return Retorna a soma
+     */
+    T sum(int size, ForkJoinPool pool) {
+        if (pool == null || size <= PARALLEL_BATCH_SIZE) {
+            return sum(0, size);
+        }
+
+        return pool.invoke(new SumTask(0, size));
+    }
+}
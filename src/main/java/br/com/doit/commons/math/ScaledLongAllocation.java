@@ -0,0 +1,333 @@
+package br.com.doit.commons.math;
+
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.IGNORING_QUANTITY;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.STRICTLY_PROPORTIONAL;
+import static java.lang.Math.addExact;
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.max;
+import static java.lang.Math.multiplyExact;
+import static java.lang.Math.subtractExact;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+import br.com.doit.commons.math.MathUtils.RemainderDistributionMode;
+
+/**
+ * Implementação da distribuição proporcional de {@link MathUtils.Preparation#over(java.util.Collection)} usando
+ * números inteiros do tipo <code>long</code> em vez de <code>BigDecimal</code>.
+ * <p>
+ * Todos os valores monetários (o valor distribuído, o total, as partes e o resto) são representados em uma escala fixa
+ * comum, a maior escala necessária para representá-los de forma exata. Os cálculos são feitos nessa escala com
+ * arredondamento para baixo nos mesmos pontos da implementação com <code>BigDecimal</code> e a escala que cada
+ * resultado teria é acompanhada à parte, de forma que as partes e o resto gerados são idênticos (inclusive na escala)
+ * aos da implementação original.
+ * <p>
+ * Quando algum valor não pode ser representado (escala negativa ou maior do que 18, mais de 18 dígitos ou um estouro
+ * de <code>long</code> em qualquer etapa do cálculo) nenhum resultado é gerado e a distribuição deve ser feita com
+ * <code>BigDecimal</code>.
+ */
+final class ScaledLongAllocation {
+    private static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Faz a distribuição proporcional do valor entre as frações que formam o todo informado.
+     *
+     * @param amount
+     *            O valor que será distribuído
+     * @param mode
+     *            O modo de distribuição do resto
+     * @param shareScale
+     *            A escala das partes
+     * @param whole
+     *            As frações que formam o todo
+     * @param pool
+     *            O pool usado para fazer os cálculos proporcionais em paralelo ou <code>null</code> para fazer todos
+     *            os cálculos na thread corrente
+     * @return Retorna o resultado da distribuição ou <code>null</code> caso algum valor não possa ser representado
+     *         com <code>long</code>
+     */
+    static ScaledLongAllocation allocate(BigDecimal amount, RemainderDistributionMode mode, int shareScale,
+            Whole whole, ForkJoinPool pool) {
+        if (!whole.convertToUnscaledLongs() || !isRepresentable(amount) || shareScale > MAX_SCALE
+                || whole.weights() == null) {
+            return null;
+        }
+
+        ScaledLongAllocation allocation = new ScaledLongAllocation(shareScale, whole, pool);
+
+        try {
+            allocation.allocate(amount.unscaledValue().longValue(), amount.scale(), mode);
+        } catch (ArithmeticException exception) {
+            // Estouro de long
+            return null;
+        }
+
+        return allocation;
+    }
+
+    static boolean isRepresentable(BigDecimal value) {
+        return isRepresentableScale(value.scale()) && value.precision() <= MAX_SCALE;
+    }
+
+    static boolean isRepresentableScale(int scale) {
+        return scale >= 0 && scale <= MAX_SCALE;
+    }
+
+    static long powerOfTen(int exponent) {
+        if (exponent > MAX_SCALE) {
+            throw new ArithmeticException("long overflow");
+        }
+
+        return POWERS_OF_TEN[exponent];
+    }
+
+    private final int shareScale;
+
+    private final Whole whole;
+
+    private final long[] values;
+
+    private final int[] valueScales;
+
+    private final long[] quantities;
+
+    private final int[] quantityScales;
+
+    private final long[] weights;
+
+    private final ForkJoinPool pool;
+
+    private final long[] shares;
+
+    private final int[] shareScales;
+
+    private int scale;
+
+    /**
+     * Fator que leva os pesos do todo para a escala comum.
+     */
+    private long weightFactor;
+
+    private long remainder;
+
+    private int remainderScale;
+
+    private boolean isTotalZero;
+
+    private ScaledLongAllocation(int shareScale, Whole whole, ForkJoinPool pool) {
+        this.shareScale = shareScale;
+        this.whole = whole;
+        this.pool = pool;
+
+        values = whole.unscaledValues();
+        valueScales = whole.valueScales();
+        quantities = whole.unscaledQuantities();
+        quantityScales = whole.quantityScales();
+        weights = whole.weights();
+
+        shares = new long[values.length];
+        shareScales = new int[values.length];
+    }
+
+    private void allocate(long amount, int amountScale, RemainderDistributionMode mode) {
+        int size = values.length;
+
+        // A escala comum precisa representar o valor, as partes e o peso (quantidade * valor) de cada fração. Os pesos
+        // e o total são calculados pelo todo uma única vez, na escala dos pesos, e apenas ajustados para a escala comum
+        int weightScale = whole.weightScale();
+
+        scale = max(max(amountScale, shareScale), weightScale);
+
+        final long scaledAmount = multiplyExact(amount, powerOfTen(scale - amountScale));
+
+        BigInteger weightTotal = whole.weightTotal(pool);
+
+        if (weightTotal.signum() == 0) {
+            isTotalZero = true;
+
+            return;
+        }
+
+        weightFactor = powerOfTen(scale - weightScale);
+
+        final long total = multiplyExact(weightTotal.longValueExact(), weightFactor);
+
+        final long shareFactor = powerOfTen(scale - shareScale);
+
+        long totalShare = new RangeSum.OfLong() {
+            @Override
+            Long sum(int from, int to) {
+                long sum = 0;
+
+                for (int i = from; i < to; i++) {
+                    shares[i] = multiplyExact(floorShare(scaledAmount, total, i), shareFactor);
+                    shareScales[i] = shareScale;
+
+                    sum = addExact(sum, shares[i]);
+                }
+
+                return sum;
+            }
+        }.sum(size, pool);
+
+        remainder = subtractExact(scaledAmount, totalShare);
+        remainderScale = max(amountScale, shareScale);
+
+        if (mode == STRICTLY_PROPORTIONAL) {
+            return;
+        }
+
+        // O resto é distribuído em ordem decrescente de valor. Depois que o resto é zerado as partes não mudam mais,
+        // por isso as frações são retiradas de uma fila de prioridade em vez de ordenadas, a não ser que o todo já
+        // guarde a ordenação completa para vários valores. Um resto zero com casas decimais ainda altera a escala da
+        // primeira parte quando a quantidade é ignorada
+        if (whole.isUsingSortedIndexes()) {
+            int[] sortedIndexes = whole.sortedIndexes();
+
+            for (int i = 0; i < size && isRemainderPending(mode); i++) {
+                distributeRemainder(sortedIndexes[i], mode);
+            }
+
+            return;
+        }
+
+        final long[] sortKeys = whole.sortKeys();
+
+        if (sortKeys == null) {
+            throw new ArithmeticException("long overflow");
+        }
+
+        IndexHeap heap = new IndexHeap(size) {
+            @Override
+            boolean isBefore(int index, int otherIndex) {
+                long key = sortKeys[index];
+                long otherKey = sortKeys[otherIndex];
+
+                return key > otherKey || key == otherKey && index < otherIndex;
+            }
+        };
+
+        heap.addAll(size);
+
+        while (!heap.isEmpty() && isRemainderPending(mode)) {
+            distributeRemainder(heap.poll(), mode);
+        }
+    }
+
+    private boolean isRemainderPending(RemainderDistributionMode mode) {
+        return remainder != 0 || mode == IGNORING_QUANTITY && remainderScale != 0;
+    }
+
+    private void distributeRemainder(int index, RemainderDistributionMode mode) {
+        if (mode == IGNORING_QUANTITY || isRemainderDivisibleByQuantity(index)) {
+            distributeRemainder(index);
+        }
+    }
+
+    private void distributeRemainder(int index) {
+        long subtotal = weight(index);
+        int subtotalScale = valueScales[index] + quantityScales[index];
+
+        long available = subtractExact(subtotal, shares[index]);
+
+        if (available > 0 && remainder > available) {
+            remainder -= available;
+            remainderScale = max(remainderScale, max(subtotalScale, shareScales[index]));
+
+            shares[index] = subtotal;
+            shareScales[index] = subtotalScale;
+        } else {
+            shares[index] = addExact(shares[index], remainder);
+            shareScales[index] = max(shareScales[index], remainderScale);
+
+            remainder = 0;
+            remainderScale = 0;
+        }
+    }
+
+    /**
+     * Calcula a parte da fração na escala das partes, arredondando para baixo: a razão entre o valor da fração e o
+     * total é aplicada ao valor distribuído e multiplicada pela quantidade, e o resultado é ajustado para ser
+     * divisível pela quantidade.
+     */
+    private long floorShare(long scaledAmount, long total, int index) {
+        long quantity = quantities[index];
+        long quantityFactor = powerOfTen(quantityScales[index]);
+
+        // ratio = amount * value / total na escala das partes
+        int exponent = shareScale - valueScales[index];
+
+        long ratio;
+
+        if (exponent >= 0) {
+            ratio = floorDiv(multiplyExact(multiplyExact(scaledAmount, values[index]), powerOfTen(exponent)), total);
+        } else {
+            ratio = floorDiv(multiplyExact(scaledAmount, values[index]), multiplyExact(total, powerOfTen(-exponent)));
+        }
+
+        long share = floorDiv(multiplyExact(ratio, quantity), quantityFactor);
+
+        if (share != 0) {
+            long unitShare = floorDiv(multiplyExact(share, quantityFactor), quantity);
+
+            share = floorDiv(multiplyExact(unitShare, quantity), quantityFactor);
+        }
+
+        return share;
+    }
+
+    private boolean isRemainderDivisibleByQuantity(int index) {
+        long quantity = quantities[index];
+
+        if (remainder == 0 || quantity == 0) {
+            return false;
+        }
+
+        // remainder * 10^shareScale / quantity deve ser inteiro
+        int exponent = shareScale + quantityScales[index] - scale;
+
+        if (exponent >= 0) {
+            return multiplyExact(remainder, powerOfTen(exponent)) % quantity == 0;
+        }
+
+        return remainder % multiplyExact(quantity, powerOfTen(-exponent)) == 0;
+    }
+
+    /**
+     * @return Retorna o peso (quantidade * valor) da fração na escala comum.
+     */
+    private long weight(int index) {
+        return multiplyExact(weights[index], weightFactor);
+    }
+
+    /**
+     * @return Retorna as partes e o resto da distribuição ou <code>null</code> caso o total das frações seja zero.
+     *         Nesse caso nenhuma parte é calculada.
+     */
+    Allocation toAllocation() {
+        if (isTotalZero) {
+            return null;
+        }
+
+        BigDecimal[] result = new BigDecimal[shares.length];
+
+        for (int i = 0; i < shares.length; i++) {
+            result[i] = BigDecimal.valueOf(shares[i] / POWERS_OF_TEN[scale - shareScales[i]], shareScales[i]);
+        }
+
+        return new Allocation(result, BigDecimal.valueOf(remainder / POWERS_OF_TEN[scale - remainderScale],
+                remainderScale));
+    }
+}
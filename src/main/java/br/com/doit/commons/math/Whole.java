@@ -0,0 +1,531 @@
+package br.com.doit.commons.math;
+
+import static java.lang.Math.multiplyExact;
+import static java.math.BigDecimal.ZERO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * As frações que formam o todo de uma distribuição proporcional, representadas pelos seus valores e quantidades.
+ * <p>
+ * Os dados que dependem apenas das frações (o total, a ordem decrescente dos valores, os pesos e a representação com
+ * <code>long</code>) são calculados somente quando usados pela primeira vez e guardados, de forma que vários valores
+ * possam ser distribuídos sobre as mesmas frações sem repetir esses cálculos.
+ */
+final class Whole {
+    /**
+     * Cria o todo a partir dos valores e quantidades das frações.
+     *
+     * @param values
+     *            Os valores das frações
+     * @param quantities
+     *            As quantidades das frações, na mesma ordem dos valores
+     * @return Retorna o todo formado pelas frações
+     */
+    static Whole of(BigDecimal[] values, BigDecimal[] quantities) {
+        Whole whole = new Whole(values.length, false);
+
+        whole.values = values;
+        whole.quantities = quantities;
+
+        return whole;
+    }
+
+    /**
+     * Cria o todo a partir dos valores e quantidades sem escala das frações.
+     *
+     * @param values
+     *            Os valores das frações sem escala
+     * @param valueScale
+     *            A escala dos valores
+     * @param quantities
+     *            As quantidades das frações sem escala, na mesma ordem dos valores
+     * @param quantityScale
+     *            A escala das quantidades
+     * @return Retorna o todo formado pelas frações
+     */
+    static Whole ofUnscaled(long[] values, int valueScale, long[] quantities, int quantityScale) {
+        Whole whole = new Whole(values.length, true);
+
+        whole.unscaledValues = values;
+        whole.unscaledQuantities = quantities;
+        whole.valueScale = valueScale;
+        whole.quantityScale = quantityScale;
+
+        if (ScaledLongAllocation.isRepresentableScale(valueScale)
+                && ScaledLongAllocation.isRepresentableScale(quantityScale)) {
+            whole.valueScales = new int[values.length];
+            whole.quantityScales = new int[quantities.length];
+
+            Arrays.fill(whole.valueScales, valueScale);
+            Arrays.fill(whole.quantityScales, quantityScale);
+        }
+
+        return whole;
+    }
+
+    /**
+     * Ordena os índices de forma decrescente pelos valores. A ordenação é estável: valores iguais mantêm a ordem
+     * original.
+     */
+    private static int[] sortedByValue(final BigDecimal[] values) {
+        return sortedByValue(values.length, new IndexComparator() {
+            @Override
+            boolean isBeforeOrEqual(int index, int otherIndex) {
+                return values[index].compareTo(values[otherIndex]) >= 0;
+            }
+        });
+    }
+
+    /**
+     * Ordena os índices de forma decrescente pelas chaves, que devem ter a mesma ordem dos valores. A ordenação é
+     * estável: valores iguais mantêm a ordem original.
+     */
+    private static int[] sortedByValue(final long[] sortKeys) {
+        return sortedByValue(sortKeys.length, new IndexComparator() {
+            @Override
+            boolean isBeforeOrEqual(int index, int otherIndex) {
+                return sortKeys[index] >= sortKeys[otherIndex];
+            }
+        });
+    }
+
+    private static int[] sortedByValue(int size, IndexComparator comparator) {
+        int[] indexes = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+
+        int[] buffer = new int[size];
+
+        for (int width = 1; width < size; width *= 2) {
+            for (int start = 0; start < size; start += 2 * width) {
+                int middle = Math.min(start + width, size);
+                int end = Math.min(start + 2 * width, size);
+
+                int left = start;
+                int right = middle;
+
+                for (int i = start; i < end; i++) {
+                    if (left < middle && (right >= end || comparator.isBeforeOrEqual(indexes[left], indexes[right]))) {
+                        buffer[i] = indexes[left++];
+                    } else {
+                        buffer[i] = indexes[right++];
+                    }
+                }
+            }
+
+            int[] sorted = buffer;
+
+            buffer = indexes;
+            indexes = sorted;
+        }
+
+        return indexes;
+    }
+
+    /**
+     * @return Retorna os pesos como <code>long</code> ou <code>null</code> caso algum peso não possa ser representado
+     */
+    private static long[] toLongs(BigInteger[] exactWeights) {
+        long[] result = new long[exactWeights.length];
+
+        for (int i = 0; i < exactWeights.length; i++) {
+            if (exactWeights[i].bitLength() >= Long.SIZE) {
+                return null;
+            }
+
+            result[i] = exactWeights[i].longValue();
+        }
+
+        return result;
+    }
+
+    /**
+     * Comparação de frações pelos seus índices.
+     */
+    private abstract static class IndexComparator {
+        /**
+         * @return Retorna <code>true</code> caso a primeira fração não deva ficar depois da segunda na ordenação.
+         */
+        abstract boolean isBeforeOrEqual(int index, int otherIndex);
+    }
+
+    private final int size;
+
+    private final boolean isUnscaled;
+
+    private BigDecimal[] values;
+
+    private BigDecimal[] quantities;
+
+    private long[] unscaledValues;
+
+    private int valueScale;
+
+    private int[] valueScales;
+
+    private long[] unscaledQuantities;
+
+    private int quantityScale;
+
+    private int[] quantityScales;
+
+    private boolean isConverted;
+
+    private BigDecimal total;
+
+    private int[] sortedIndexes;
+
+    private boolean isUsingSortedIndexes;
+
+    private boolean isWeightsConverted;
+
+    private long[] weights;
+
+    private int weightScale;
+
+    private BigInteger[] exactWeights;
+
+    private BigInteger weightTotal;
+
+    private boolean isSortKeysConverted;
+
+    private long[] sortKeys;
+
+    private Whole(int size, boolean isUnscaled) {
+        this.size = size;
+        this.isUnscaled = isUnscaled;
+
+        isConverted = isUnscaled;
+    }
+
+    /**
+     * Converte os valores e quantidades para <code>long</code> sem escala, caso ainda não tenham sido convertidos.
+     *
+     * @return Retorna <code>true</code> caso todos os valores e quantidades possam ser representados com
+     *         <code>long</code>
+     */
+    boolean convertToUnscaledLongs() {
+        if (!isConverted) {
+            isConverted = true;
+
+            long[] convertedValues = new long[size];
+            int[] convertedValueScales = new int[size];
+            long[] convertedQuantities = new long[size];
+            int[] convertedQuantityScales = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                if (!ScaledLongAllocation.isRepresentable(values[i])
+                        || !ScaledLongAllocation.isRepresentable(quantities[i])) {
+                    return false;
+                }
+
+                convertedValues[i] = values[i].unscaledValue().longValue();
+                convertedValueScales[i] = values[i].scale();
+                convertedQuantities[i] = quantities[i].unscaledValue().longValue();
+                convertedQuantityScales[i] = quantities[i].scale();
+            }
+
+            unscaledValues = convertedValues;
+            valueScales = convertedValueScales;
+            unscaledQuantities = convertedQuantities;
+            quantityScales = convertedQuantityScales;
+        }
+
+        return valueScales != null;
+    }
+
+    /**
+     * @return Retorna <code>true</code> caso o todo tenha sido criado a partir de valores e quantidades sem escala.
+     */
+    boolean isUnscaled() {
+        return isUnscaled;
+    }
+
+    BigDecimal[] quantities() {
+        convertToBigDecimals();
+
+        return quantities;
+    }
+
+    int[] quantityScales() {
+        return quantityScales;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Retorna as chaves de ordenação das frações (os valores sem escala, todos na maior escala dos valores) ou
+     *         <code>null</code> caso alguma chave não possa ser representada com <code>long</code>. Deve ser usado
+     *         somente quando {@link #convertToUnscaledLongs()} retornar <code>true</code>.
+     */
+    long[] sortKeys() {
+        if (!isSortKeysConverted) {
+            isSortKeysConverted = true;
+
+            int maxValueScale = 0;
+
+            for (int i = 0; i < size; i++) {
+                maxValueScale = Math.max(maxValueScale, valueScales[i]);
+            }
+
+            long[] result = new long[size];
+
+            try {
+                for (int i = 0; i < size; i++) {
+                    result[i] = multiplyExact(unscaledValues[i], ScaledLongAllocation.powerOfTen(maxValueScale
+                            - valueScales[i]));
+                }
+            } catch (ArithmeticException exception) {
+                return null;
+            }
+
+            sortKeys = result;
+        }
+
+        return sortKeys;
+    }
+
+    /**
+     * @return Retorna os índices das frações em ordem decrescente de valor.
+     */
+    int[] sortedIndexes() {
+        if (sortedIndexes == null) {
+            long[] keys = isConverted && valueScales != null ? sortKeys() : null;
+
+            sortedIndexes = keys != null ? sortedByValue(keys) : sortedByValue(values());
+        }
+
+        return sortedIndexes;
+    }
+
+    /**
+     * Indica que vários valores serão distribuídos sobre o todo. Nesse caso a ordem decrescente dos valores é calculada
+     * por completo uma única vez através de {@link #sortedIndexes()}, em vez de ser obtida parcialmente com uma fila
+     * de prioridade em cada distribuição.
+     */
+    void useSortedIndexes() {
+        isUsingSortedIndexes = true;
+    }
+
+    boolean isUsingSortedIndexes() {
+        return isUsingSortedIndexes;
+    }
+
+    /**
+     * @param pool
+     *            O pool usado para somar os pesos em paralelo ou <code>null</code> para somar na thread corrente
+     * @return Retorna a soma dos pesos (quantidade * valor) das frações.
+     */
+    BigDecimal total(ForkJoinPool pool) {
+        if (total == null) {
+            convertToBigDecimals();
+
+            total = new RangeSum<BigDecimal>() {
+                @Override
+                BigDecimal add(BigDecimal sum, BigDecimal otherSum) {
+                    return sum.add(otherSum);
+                }
+
+                @Override
+                BigDecimal sum(int from, int to) {
+                    BigDecimal sum = ZERO;
+
+                    for (int i = from; i < to; i++) {
+                        sum = sum.add(quantities[i].multiply(values[i]));
+                    }
+
+                    return sum;
+                }
+            }.sum(size, pool);
+        }
+
+        return total;
+    }
+
+    long[] unscaledQuantities() {
+        return unscaledQuantities;
+    }
+
+    long[] unscaledValues() {
+        return unscaledValues;
+    }
+
+    int[] valueScales() {
+        return valueScales;
+    }
+
+    BigDecimal[] values() {
+        convertToBigDecimals();
+
+        return values;
+    }
+
+    /**
+     * @return Retorna os pesos (quantidade * valor) das frações sem escala, todos na mesma escala, ou
+     *         <code>null</code> caso algum peso não possa ser representado com <code>long</code>. Nesse caso os pesos
+     *         podem ser obtidos através de {@link #exactWeights()}.
+     */
+    long[] weights() {
+        if (!isWeightsConverted) {
+            isWeightsConverted = true;
+
+            weights = convertToUnscaledLongs() ? unscaledWeights() : toLongs(exactWeights());
+        }
+
+        return weights;
+    }
+
+    /**
+     * @return Retorna a escala dos pesos de {@link #weights()}, a maior escala entre os pesos das frações. Deve ser
+     *         usado somente quando {@link #convertToUnscaledLongs()} retornar <code>true</code> e os pesos puderem
+     *         ser representados com <code>long</code>.
+     */
+    int weightScale() {
+        weights();
+
+        return weightScale;
+    }
+
+    /**
+     * @param pool
+     *            O pool usado para somar os pesos em paralelo ou <code>null</code> para somar na thread corrente
+     * @return Retorna a soma dos pesos sem escala de {@link #weights()} e {@link #exactWeights()}.
+     */
+    BigInteger weightTotal(ForkJoinPool pool) {
+        if (weightTotal == null) {
+            final long[] longWeights = weights();
+
+            if (longWeights != null) {
+                try {
+                    weightTotal = BigInteger.valueOf(new RangeSum.OfLong() {
+                        @Override
+                        Long sum(int from, int to) {
+                            long sum = 0;
+
+                            for (int i = from; i < to; i++) {
+                                sum = Math.addExact(sum, longWeights[i]);
+                            }
+
+                            return sum;
+                        }
+                    }.sum(size, pool));
+                } catch (ArithmeticException exception) {
+                    // Estouro de long: a soma é refeita com BigInteger
+                }
+            }
+
+            if (weightTotal == null) {
+                final BigInteger[] bigIntegerWeights = exactWeights();
+
+                weightTotal = new RangeSum.OfBigInteger() {
+                    @Override
+                    BigInteger sum(int from, int to) {
+                        BigInteger sum = BigInteger.ZERO;
+
+                        for (int i = from; i < to; i++) {
+                            sum = sum.add(bigIntegerWeights[i]);
+                        }
+
+                        return sum;
+                    }
+                }.sum(size, pool);
+            }
+        }
+
+        return weightTotal;
+    }
+
+    /**
+     * @return Retorna os pesos (quantidade * valor) das frações sem escala, todos na mesma escala de
+     *         {@link #weights()}, como <code>BigInteger</code>.
+     */
+    BigInteger[] exactWeights() {
+        if (exactWeights == null) {
+            exactWeights = isUnscaled ? unscaledExactWeights() : decimalExactWeights();
+        }
+
+        return exactWeights;
+    }
+
+    /**
+     * Cria os valores e quantidades como <code>BigDecimal</code> a partir dos valores e quantidades sem escala, caso
+     * ainda não tenham sido criados.
+     */
+    private void convertToBigDecimals() {
+        if (values == null) {
+            values = new BigDecimal[size];
+            quantities = new BigDecimal[size];
+
+            for (int i = 0; i < size; i++) {
+                values[i] = BigDecimal.valueOf(unscaledValues[i], valueScale);
+                quantities[i] = BigDecimal.valueOf(unscaledQuantities[i], quantityScale);
+            }
+        }
+    }
+
+    private BigInteger[] decimalExactWeights() {
+        BigDecimal[] decimalWeights = new BigDecimal[size];
+
+        int weightScale = 0;
+
+        for (int i = 0; i < size; i++) {
+            decimalWeights[i] = values[i].multiply(quantities[i]);
+
+            weightScale = Math.max(weightScale, decimalWeights[i].scale());
+        }
+
+        BigInteger[] result = new BigInteger[size];
+
+        for (int i = 0; i < size; i++) {
+            result[i] = decimalWeights[i].setScale(weightScale).unscaledValue();
+        }
+
+        return result;
+    }
+
+
+    private BigInteger[] unscaledExactWeights() {
+        BigInteger[] result = new BigInteger[size];
+
+        for (int i = 0; i < size; i++) {
+            result[i] = BigInteger.valueOf(unscaledValues[i]).multiply(BigInteger.valueOf(unscaledQuantities[i]));
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Retorna os pesos na maior escala entre os pesos das frações como <code>long</code> ou <code>null</code>
+     *         caso algum peso não possa ser representado
+     */
+    private long[] unscaledWeights() {
+        weightScale = 0;
+
+        for (int i = 0; i < size; i++) {
+            weightScale = Math.max(weightScale, valueScales[i] + quantityScales[i]);
+        }
+
+        long[] result = new long[size];
+
+        try {
+            for (int i = 0; i < size; i++) {
+                long weight = multiplyExact(unscaledValues[i], unscaledQuantities[i]);
+
+                result[i] = multiplyExact(weight, ScaledLongAllocation.powerOfTen(weightScale - valueScales[i]
+                        - quantityScales[i]));
+            }
+        } catch (ArithmeticException exception) {
+            return null;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.doit.commons.text;
+
+/**
+ * Remove emojis de um texto em uma única passagem, percorrendo o texto por code point.
+ * <p>
+ * São mantidos apenas os code points das categorias de letras, marcas, números, pontuação, separadores, formatação e
+ * surrogates isolados, além dos espaços em branco. Os demais (símbolos, modificadores de tom de pele e etc.) são
+ * removidos, assim como os componentes de sequências de emojis: seletores de apresentação (<code>U+FE0E</code> e
+ * <code>U+FE0F</code>), o símbolo de tecla (<code>U+20E3</code>), os caracteres de tag (<code>U+E0020</code> a
+ * <code>U+E007F</code>) e o <em>zero width joiner</em> (<code>U+200D</code>) que une dois emojis. O <em>zero width
+ * joiner</em> usado entre letras (como nos alfabetos indianos) é mantido.
+ * <p>
+ * Sequências de espaços que se formam após a remoção dos emojis (ou que já existiam no texto) são substituídas por um
+ * único espaço.
+ */
+final class EmojiFilter {
+    private static final int KEPT_TYPES = 1 << Character.UPPERCASE_LETTER | 1 << Character.LOWERCASE_LETTER | 1 << Character.TITLECASE_LETTER | 1 << Character.MODIFIER_LETTER | 1 << Character.OTHER_LETTER | 1 << Character.NON_SPACING_MARK | 1 << Character.ENCLOSING_MARK | 1 << Character.COMBINING_SPACING_MARK | 1 << Character.DECIMAL_DIGIT_NUMBER | 1 << Character.LETTER_NUMBER | 1 << Character.OTHER_NUMBER | 1 << Character.CONNECTOR_PUNCTUATION | 1 << Character.DASH_PUNCTUATION | 1 << Character.START_PUNCTUATION | 1 << Character.END_PUNCTUATION | 1 << Character.INITIAL_QUOTE_PUNCTUATION | 1 << Character.FINAL_QUOTE_PUNCTUATION | 1 << Character.OTHER_PUNCTUATION | 1 << Character.SPACE_SEPARATOR | 1 << Character.LINE_SEPARATOR | 1 << Character.PARAGRAPH_SEPARATOR | 1 << Character.FORMAT | 1 << Character.SURROGATE;
+
+    private static final int ZERO_WIDTH_JOINER = 0x200D;
+
+    /**
+     * Indica, para cada caractere do BMP, se ele é mantido no texto (um bit por caractere).
+     */
+    private static final long[] KEPT_BMP_CHARS = createKeptBmpChars();
+
+    private static long[] createKeptBmpChars() {
+        long[] kept = new long[(Character.MAX_VALUE + 1) / 64];
+
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (isKeptType(c) && !isEmojiComponent(c) && c != ZERO_WIDTH_JOINER) {
+                kept[c >>> 6] |= 1L << c;
+            }
+        }
+
+        return kept;
+    }
+
+    private static boolean isEmojiComponent(int codePoint) {
+        return codePoint == 0xFE0E || codePoint == 0xFE0F || codePoint == 0x20E3 || codePoint >= 0xE0020 && codePoint <= 0xE007F;
+    }
+
+    private static boolean isKept(int codePoint) {
+        if (codePoint <= Character.MAX_VALUE) {
+            return (KEPT_BMP_CHARS[codePoint >>> 6] & 1L << codePoint) != 0;
+        }
+
+        return isKeptType(codePoint) && !isEmojiComponent(codePoint);
+    }
+
+    private static boolean isKeptType(int codePoint) {
+        if (codePoint >= '\t' && codePoint <= '\r') {
+            // Espaços em branco da categoria de caracteres de controle
+            return true;
+        }
+
+        return (KEPT_TYPES >>> Character.getType(codePoint) & 1) != 0;
+    }
+
+    /**
+     * Remove os emojis do texto.
+     *
+     * @param text
+     *            O texto que deverá ser tratado
+     * @return Retorna o texto sem emojis ou o próprio texto caso ele não contenha emojis nem sequências de espaços
+     */
+    static String remove(String text) {
+        int length = text.length();
+
+        StringBuilder result = null;
+
+        boolean isPreviousRemoved = false;
+
+        int previousKept = -1;
+
+        for (int i = 0; i < length;) {
+            int codePoint = text.codePointAt(i);
+
+            int charCount = Character.charCount(codePoint);
+
+            boolean isRemoved = codePoint == ZERO_WIDTH_JOINER ? isPreviousRemoved : !isKept(codePoint);
+
+            if (isRemoved || codePoint == ' ' && previousKept == ' ') {
+                if (result == null) {
+                    result = new StringBuilder(length);
+
+                    result.append(text, 0, i);
+                }
+            } else {
+                if (result != null) {
+                    result.append(text, i, i + charCount);
+                }
+
+                previousKept = codePoint;
+            }
+
+            isPreviousRemoved = isRemoved;
+
+            i += charCount;
+        }
+
+        return result == null ? text : result.toString();
+    }
+
+    private EmojiFilter() {
+    }
+}
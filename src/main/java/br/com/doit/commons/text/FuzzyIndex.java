@@ -0,0 +1,521 @@
+package br.com.doit.commons.text;
+
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Índice em memória para busca aproximada de textos (nomes de produtos, clientes e etc.). Para um texto de busca, o
+ * índice encontra os textos indexados mais parecidos sem comparar o texto de busca com todos os textos indexados.
+ * <p>
+ * O índice é um índice invertido dos trigramas gerados por {@link SearchKeys#trigrams(String)}: para cada trigrama é
+ * guardada a lista das posições dos textos que o contém. As listas ficam em um único array de <code>int</code>s,
+ * delimitadas por um array de deslocamentos indexado pelo código do trigrama, de forma que o índice ocupa
+ * aproximadamente 4 bytes por trigrama indexado.
+ * <p>
+ * A semelhança entre dois textos é medida pelo coeficiente de Dice dos seus trigramas:
+ * <code>2 * |comuns| / (|busca| + |indexado|)</code>, que varia de <code>0</code> (nenhum trigrama em comum) a
+ * <code>1</code> (mesmos trigramas).
+ * <p>
+ * Uma busca percorre as listas dos trigramas da busca, das mais curtas para as mais longas, e custa aproximadamente a
+ * soma dos tamanhos das listas percorridas por completo mais <code>O(c log k)</code> para escolher os <code>k</code>
+ * textos mais parecidos entre os <code>c</code> candidatos. Um texto só se torna candidato enquanto ainda pode
+ * alcançar a semelhança mínima e a semelhança dos melhores candidatos, considerando os trigramas restantes da busca e a
+ * quantidade de trigramas do texto. Quando nenhum texto novo pode mais alcançá-las, as listas restantes (as mais
+ * longas) são usadas apenas para completar a contagem dos candidatos que ainda podem fazer parte do resultado. Por
+ * isso as buscas com semelhança mínima são bem mais rápidas do que as buscas sem semelhança mínima, que percorrem
+ * quase todas as listas.
+ * <p>
+ * Cada busca usa contadores que ocupam 4 bytes por texto indexado. O índice guarda no máximo quatro desses contadores
+ * para reaproveitá-los nas buscas seguintes; os contadores das buscas simultâneas além desse limite são descartados.
+ * <p>
+ * O índice é imutável e pode ser consultado por várias threads ao mesmo tempo.
+ */
+public final class FuzzyIndex {
+    /**
+     * Um texto indexado encontrado por uma busca.
+     */
+    public static final class Match {
+        private final int index;
+        private final String key;
+        private final double score;
+
+        private Match(int index, String key, double score) {
+            this.index = index;
+            this.key = key;
+            this.score = score;
+        }
+
+        /**
+         * @return Retorna a posição do texto na lista de textos indexados.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return Retorna o texto indexado.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return Retorna a semelhança entre o texto indexado e o texto de busca (de <code>0</code> a <code>1</code>).
+         */
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return key + " (" + score + ")";
+        }
+    }
+
+    /**
+     * Contadores de trigramas em comum usados por uma busca. Os contadores são devolvidos zerados ao índice no final da
+     * busca para serem reaproveitados pelas buscas seguintes.
+     */
+    private static final class Scratch {
+        private final int[] overlaps;
+        private int[] candidates = new int[1024];
+        private int candidateCount;
+
+        Scratch(int size) {
+            overlaps = new int[size];
+        }
+
+        void add(int document) {
+            if (overlaps[document]++ == 0) {
+                if (candidateCount == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                }
+
+                candidates[candidateCount++] = document;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < candidateCount; i++) {
+                overlaps[candidates[i]] = 0;
+            }
+
+            candidateCount = 0;
+        }
+    }
+
+    /**
+     * Custo aproximado de procurar um texto em uma lista de trigramas, em relação ao custo de percorrer um elemento da
+     * lista.
+     */
+    private static final int BINARY_SEARCH_COST = 16;
+
+    /**
+     * Quantidade máxima de contadores guardados pelo índice para as buscas seguintes. Buscas simultâneas além desse
+     * limite criam contadores que são descartados no final da busca.
+     */
+    private static final int MAX_POOLED_SCRATCHES = 4;
+
+    /**
+     * @return Retorna <code>true</code> se o primeiro texto é menos parecido do que o segundo. Em caso de empate, o
+     *         texto indexado por último é considerado o menos parecido.
+     */
+    private static boolean isWorse(int document, double score, int otherDocument, double otherScore) {
+        return score < otherScore || score == otherScore && document > otherDocument;
+    }
+
+    private static void siftDown(int[] heap, double[] scores, int size) {
+        int i = 0;
+
+        while (true) {
+            int child = 2 * i + 1;
+
+            if (child >= size) {
+                return;
+            }
+
+            if (child + 1 < size && isWorse(heap[child + 1], scores[child + 1], heap[child], scores[child])) {
+                child++;
+            }
+
+            if (!isWorse(heap[child], scores[child], heap[i], scores[i])) {
+                return;
+            }
+
+            swap(heap, scores, i, child);
+
+            i = child;
+        }
+    }
+
+    private static void siftUp(int[] heap, double[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+
+            if (!isWorse(heap[i], scores[i], heap[parent], scores[parent])) {
+                return;
+            }
+
+            swap(heap, scores, i, parent);
+
+            i = parent;
+        }
+    }
+
+    private static void swap(int[] heap, double[] scores, int i, int j) {
+        int document = heap[i];
+        double score = scores[i];
+
+        heap[i] = heap[j];
+        scores[i] = scores[j];
+        heap[j] = document;
+        scores[j] = score;
+    }
+
+    private final List<String> keys;
+
+    /**
+     * A posição inicial da lista de cada trigrama em <code>postings</code>. A lista do trigrama <code>t</code> vai de
+     * <code>offsets[t]</code> (inclusive) a <code>offsets[t + 1]</code> (exclusive).
+     */
+    private final int[] offsets;
+
+    private final int[] postings;
+
+    private final int[] trigramCounts;
+
+    private final AtomicReferenceArray<Scratch> scratches = new AtomicReferenceArray<>(MAX_POOLED_SCRATCHES);
+
+    /**
+     * Cria um novo índice com os textos informados. Os textos nulos ou sem letras e dígitos são mantidos nas suas
+     * posições, mas nunca são encontrados pelas buscas.
+     *
+     * @param keys
+     *            Os textos que serão indexados
+     */
+    public FuzzyIndex(List<String> keys) {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+
+        int size = this.keys.size();
+
+        int[][] trigrams = new int[size][];
+
+        trigramCounts = new int[size];
+        offsets = new int[SearchKeys.MAX_TRIGRAM + 2];
+
+        for (int i = 0; i < size; i++) {
+            trigrams[i] = SearchKeys.trigrams(this.keys.get(i));
+            trigramCounts[i] = trigrams[i].length;
+
+            for (int trigram : trigrams[i]) {
+                offsets[trigram + 1]++;
+            }
+        }
+
+        for (int t = 1; t < offsets.length; t++) {
+            offsets[t] += offsets[t - 1];
+        }
+
+        postings = new int[offsets[offsets.length - 1]];
+
+        int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+
+        for (int i = 0; i < size; i++) {
+            for (int trigram : trigrams[i]) {
+                postings[positions[trigram]++] = i;
+            }
+
+            // Libera os trigramas do texto assim que eles são indexados
+            trigrams[i] = null;
+        }
+    }
+
+    /**
+     * @return Retorna contadores zerados guardados pelo índice ou novos contadores caso todos estejam em uso.
+     */
+    private Scratch borrowScratch() {
+        for (int i = 0; i < MAX_POOLED_SCRATCHES; i++) {
+            Scratch scratch = scratches.getAndSet(i, null);
+
+            if (scratch != null) {
+                return scratch;
+            }
+        }
+
+        return new Scratch(keys.size());
+    }
+
+    /**
+     * Busca os textos indexados mais parecidos com o texto informado.
+     *
+     * @param text
+     *            O texto de busca
+     * @param limit
+     *            A quantidade máxima de textos retornados
+     * @return Retorna os textos encontrados, do mais parecido para o menos parecido (ou na ordem em que foram indexados
+     *         em caso de empate)
+     */
+    public List<Match> search(String text, int limit) {
+        return search(text, limit, 0.0);
+    }
+
+    /**
+     * Busca os textos indexados mais parecidos com o texto informado que tenham uma semelhança mínima.
+     *
+     * @param text
+     *            O texto de busca
+     * @param limit
+     *            A quantidade máxima de textos retornados
+     * @param minimumScore
+     *            A semelhança mínima (de <code>0</code> a <code>1</code>) dos textos retornados
+     * @return Retorna os textos encontrados, do mais parecido para o menos parecido (ou na ordem em que foram indexados
+     *         em caso de empate)
+     */
+    public List<Match> search(String text, int limit, double minimumScore) {
+        int[] query = SearchKeys.trigrams(text);
+
+        if (query.length == 0 || limit <= 0) {
+            return emptyList();
+        }
+
+        sortByPostingLength(query);
+
+        Scratch overlaps = borrowScratch();
+
+        try {
+            countOverlaps(query, limit, minimumScore, overlaps);
+
+            return topMatches(overlaps, query.length, limit, minimumScore);
+        } finally {
+            overlaps.reset();
+
+            returnScratch(overlaps);
+        }
+    }
+
+    /**
+     * Conta os trigramas em comum com a busca, percorrendo as listas dos trigramas dos mais raros para os mais comuns.
+     * <p>
+     * Enquanto as listas são percorridas, os textos encontrados que ainda podem alcançar o resultado se tornam
+     * candidatos. Depois de percorrer <code>n</code> listas, um texto que ainda não foi encontrado tem no máximo
+     * <code>length - n</code> trigramas em comum com a busca, o que limita a sua semelhança. Quando esse limite fica
+     * abaixo da semelhança mínima ou da semelhança que os candidatos já garantem ocupar o resultado, nenhum texto novo
+     * pode fazer parte do resultado: as listas restantes (as mais longas) são usadas apenas para completar a contagem
+     * dos candidatos, procurando cada candidato na lista (as listas estão ordenadas pela posição do texto) quando há
+     * poucos candidatos. Antes de cada lista, são descartados os candidatos que não alcançariam o resultado mesmo
+     * contendo todos os trigramas restantes.
+     */
+    private void countOverlaps(int[] query, int limit, double minimumScore, Scratch overlaps) {
+        boolean isAdmitting = true;
+
+        double threshold = minimumScore;
+
+        for (int q = 0; q < query.length; q++) {
+            int from = offsets[query[q]];
+            int to = offsets[query[q] + 1];
+
+            if (isAdmitting) {
+                admit(query.length, query.length - q, threshold, from, to, overlaps);
+
+                int maxOverlap = query.length - q - 1;
+
+                double maxScore = 2.0 * maxOverlap / (query.length + maxOverlap);
+
+                if (minimumScore > maxScore) {
+                    isAdmitting = false;
+                } else if (q + 1 < query.length && offsets[query[q + 1] + 1] - offsets[query[q + 1]] > overlaps.candidateCount) {
+                    // Só vale a pena verificar os candidatos quando a próxima lista é maior do que a lista de candidatos
+                    threshold = Math.max(threshold, guaranteedScore(overlaps, query.length, limit));
+
+                    isAdmitting = threshold <= maxScore;
+                }
+
+                continue;
+            }
+
+            prune(overlaps, query.length, query.length - q, Math.max(minimumScore, guaranteedScore(overlaps, query.length, limit)));
+
+            if (to - from <= overlaps.candidateCount * BINARY_SEARCH_COST) {
+                for (int p = from; p < to; p++) {
+                    if (overlaps.overlaps[postings[p]] > 0) {
+                        overlaps.overlaps[postings[p]]++;
+                    }
+                }
+            } else {
+                for (int c = 0; c < overlaps.candidateCount; c++) {
+                    int document = overlaps.candidates[c];
+
+                    if (Arrays.binarySearch(postings, from, to, document) >= 0) {
+                        overlaps.overlaps[document]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Conta os trigramas da lista de <code>from</code> a <code>to</code> e torna candidatos os textos encontrados pela
+     * primeira vez que ainda podem alcançar a semelhança informada. A semelhança de um texto encontrado pela primeira
+     * vez é limitada pelos trigramas restantes da busca (incluindo o da lista) e pela quantidade de trigramas do texto,
+     * o que descarta os textos muito mais curtos ou muito mais longos do que a busca.
+     */
+    private void admit(int queryCount, int remaining, double threshold, int from, int to, Scratch overlaps) {
+        for (int p = from; p < to; p++) {
+            int document = postings[p];
+
+            if (overlaps.overlaps[document] > 0) {
+                overlaps.overlaps[document]++;
+            } else {
+                int trigramCount = trigramCounts[document];
+
+                if (2.0 * Math.min(remaining, trigramCount) / (queryCount + trigramCount) >= threshold) {
+                    overlaps.add(document);
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta os candidatos que não alcançam a semelhança mínima informada mesmo que contenham todos os trigramas das
+     * listas restantes.
+     */
+    private void prune(Scratch overlaps, int queryCount, int remaining, double threshold) {
+        int kept = 0;
+
+        for (int c = 0; c < overlaps.candidateCount; c++) {
+            int document = overlaps.candidates[c];
+
+            if (2.0 * (overlaps.overlaps[document] + remaining) / (queryCount + trigramCounts[document]) < threshold) {
+                overlaps.overlaps[document] = 0;
+            } else {
+                overlaps.candidates[kept++] = document;
+            }
+        }
+
+        overlaps.candidateCount = kept;
+    }
+
+    /**
+     * @return Retorna a menor semelhança entre os <code>limit</code> candidatos mais parecidos, considerando apenas os
+     *         trigramas contados até o momento (ou <code>0</code> caso não existam candidatos suficientes).
+     */
+    private double guaranteedScore(Scratch overlaps, int queryCount, int limit) {
+        if (overlaps.candidateCount < limit) {
+            return 0.0;
+        }
+
+        int[] heap = new int[limit];
+        double[] scores = new double[limit];
+
+        int heapSize = 0;
+
+        for (int c = 0; c < overlaps.candidateCount; c++) {
+            int document = overlaps.candidates[c];
+
+            double score = 2.0 * overlaps.overlaps[document] / (queryCount + trigramCounts[document]);
+
+            if (heapSize < limit) {
+                heap[heapSize] = document;
+                scores[heapSize] = score;
+
+                siftUp(heap, scores, heapSize++);
+            } else if (score > scores[0]) {
+                heap[0] = document;
+                scores[0] = score;
+
+                siftDown(heap, scores, heapSize);
+            }
+        }
+
+        return scores[0];
+    }
+
+    /**
+     * Ordena os trigramas da busca pela quantidade de textos que contêm cada trigrama (dos mais raros para os mais
+     * comuns).
+     */
+    private void sortByPostingLength(int[] query) {
+        long[] sorted = new long[query.length];
+
+        for (int i = 0; i < query.length; i++) {
+            sorted[i] = (long) (offsets[query[i] + 1] - offsets[query[i]]) << 32 | query[i];
+        }
+
+        Arrays.sort(sorted);
+
+        for (int i = 0; i < query.length; i++) {
+            query[i] = (int) sorted[i];
+        }
+    }
+
+    /**
+     * Devolve os contadores zerados ao índice, caso ainda exista espaço para guardá-los.
+     */
+    private void returnScratch(Scratch scratch) {
+        for (int i = 0; i < MAX_POOLED_SCRATCHES; i++) {
+            if (scratches.compareAndSet(i, null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Retorna a quantidade de textos indexados.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Seleciona os textos com maior semelhança usando um heap mínimo de tamanho limitado: o heap mantém os melhores
+     * textos encontrados até o momento e o pior deles fica na raiz, para ser substituído por um texto melhor.
+     */
+    private List<Match> topMatches(Scratch overlaps, int queryCount, int limit, double minimumScore) {
+        int capacity = Math.min(limit, overlaps.candidateCount);
+
+        int[] heap = new int[capacity];
+        double[] scores = new double[capacity];
+
+        int heapSize = 0;
+
+        for (int c = 0; c < overlaps.candidateCount; c++) {
+            int document = overlaps.candidates[c];
+
+            double score = 2.0 * overlaps.overlaps[document] / (queryCount + trigramCounts[document]);
+
+            if (score < minimumScore) {
+                continue;
+            }
+
+            if (heapSize < capacity) {
+                heap[heapSize] = document;
+                scores[heapSize] = score;
+
+                siftUp(heap, scores, heapSize++);
+            } else if (isWorse(heap[0], scores[0], document, score)) {
+                heap[0] = document;
+                scores[0] = score;
+
+                siftDown(heap, scores, heapSize);
+            }
+        }
+
+        Match[] matches = new Match[heapSize];
+
+        for (int i = heapSize - 1; i >= 0; i--) {
+            matches[i] = new Match(heap[0], keys.get(heap[0]), scores[0]);
+
+            heap[0] = heap[i];
+            scores[0] = scores[i];
+
+            siftDown(heap, scores, i);
+        }
+
+        return Arrays.asList(matches);
+    }
+}
@@ -1,64 +1,369 @@
 package br.com.doit.commons.text;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.FieldPosition;
 import java.text.Format;
 import java.text.ParseException;
 import java.text.ParsePosition;
-
-import org.apache.commons.lang.StringUtils;
+import java.time.Duration;
 
 /**
  * <code>HoursFormat</code> formats integer numbers into hours representation and vice-versa.
- * 
+ * <p>
+ * Values are formatted as <code>hh:mm</code>. Hours are padded to two digits and, from 1000 hours on, grouped by
+ * thousands using a dot (<code>1.000:30</code>). The digits are written straight into the target buffer and the parser
+ * scans the characters of the source, so neither formatting nor parsing creates intermediate objects.
+ * <p>
+ * The static methods {@link #formatMinutes(long, Appendable)} and {@link #parseMinutes(CharSequence)} work with
+ * primitive <code>long</code> minutes. The <code>Format</code> methods are adapters over them that accept
+ * <code>Integer</code>, <code>Long</code> and <code>Duration</code> values and, for compatibility, parse into
+ * <code>Integer</code> minutes.
+ *
  * @author <a href="mailto:hprange@gmail.com">Henrique Prange</a>
  */
 public class HoursFormat extends Format {
     private static final int MINUTES_PER_HOUR = 60;
 
-    @Override
-    public StringBuffer format(Object object, StringBuffer toAppendTo, FieldPosition position) {
-        if (object == null) {
-            return toAppendTo;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    private static final long INVALID = Long.MIN_VALUE;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private static long checkedMinutes(Object object) {
+        if (object instanceof Integer || object instanceof Long) {
+            return ((Number) object).longValue();
+        }
+
+        if (object instanceof Duration) {
+            return ((Duration) object).toMinutes();
+        }
+
+        throw new IllegalArgumentException("Cannot parse an object of type " + object.getClass().getName()
+                + " when expecting an Integer, a Long or a Duration.");
+    }
+
+    /**
+     * Parses a number from the given range of the source with the same rules of {@link Long#parseLong(String)}.
+     *
+     * @param isIgnoringDots
+     *            whether dots (thousand separators) should be skipped
+     * @param isIgnoringDashes
+     *            whether dashes should be skipped (the sign of the value was already read)
+     * @return the parsed value or {@link #INVALID} if the range doesn't contain a valid number
+     */
+    private static long parseLong(CharSequence source, int from, int to, boolean isIgnoringDots, boolean isIgnoringDashes) {
+        // The value is accumulated as a negative number, as in Long.parseLong, to reach Long.MIN_VALUE
+        long value = 0;
+        long limit = -Long.MAX_VALUE;
+
+        boolean isNegative = false;
+        boolean hasSign = false;
+        boolean hasDigits = false;
+
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+
+            if (c == '.' && isIgnoringDots || c == '-' && isIgnoringDashes) {
+                continue;
+            }
+
+            if ((c == '-' || c == '+') && !hasSign) {
+                hasSign = true;
+
+                if (c == '-') {
+                    isNegative = true;
+                    limit = Long.MIN_VALUE;
+                }
+
+                continue;
+            }
+
+            int digit = Character.digit(c, 10);
+
+            if (digit < 0 || value < limit / 10) {
+                return INVALID;
+            }
+
+            value *= 10;
+
+            if (value < limit + digit) {
+                return INVALID;
+            }
+
+            value -= digit;
+
+            hasSign = true;
+            hasDigits = true;
+        }
+
+        if (!hasDigits) {
+            return INVALID;
+        }
+
+        return isNegative ? value : -value;
+    }
+
+    /**
+     * Parses a value in the format <code>hh:mm</code> or <code>hh</code> (hours may contain dots as thousand
+     * separators).
+     *
+     * @return the parsed minutes or {@link #INVALID} if the source is not a valid value or the minutes don't fit in a
+     *         <code>long</code>
+     */
+    private static long scanMinutes(CharSequence source) {
+        int length = source.length();
+
+        int colon = -1;
+
+        for (int i = 0; i < length && colon < 0; i++) {
+            if (source.charAt(i) == ':') {
+                colon = i;
+            }
+        }
+
+        if (colon < 0) {
+            long hours = parseLong(source, 0, length, true, false);
+
+            return toMinutes(hours, 0);
+        }
+
+        boolean isNegative = length > 0 && source.charAt(0) == '-';
+
+        // Empty fields (as in "::30") are skipped and the fields after the minutes are ignored
+        int hoursStart = -1;
+        int hoursEnd = -1;
+        int minutesStart = -1;
+        int minutesEnd = -1;
+
+        int start = 0;
+
+        for (int i = 0; i <= length && minutesEnd < 0; i++) {
+            if (i < length && source.charAt(i) != ':') {
+                continue;
+            }
+
+            if (!isEmptyField(source, start, i, isNegative)) {
+                if (hoursEnd < 0) {
+                    hoursStart = start;
+                    hoursEnd = i;
+                } else {
+                    minutesStart = start;
+                    minutesEnd = i;
+                }
+            }
+
+            start = i + 1;
+        }
+
+        if (minutesEnd < 0) {
+            return INVALID;
+        }
+
+        long hours = parseLong(source, hoursStart, hoursEnd, true, isNegative);
+        long minutes = parseLong(source, minutesStart, minutesEnd, false, isNegative);
+
+        long result = toMinutes(hours, minutes);
+
+        return isNegative && result != INVALID ? -result : result;
+    }
+
+    private static long toMinutes(long hours, long minutes) {
+        if (hours == INVALID || minutes == INVALID || hours > Long.MAX_VALUE / MINUTES_PER_HOUR
+                || hours < -Long.MAX_VALUE / MINUTES_PER_HOUR) {
+            return INVALID;
+        }
+
+        long hoursInMinutes = hours * MINUTES_PER_HOUR;
+
+        long result = hoursInMinutes + minutes;
+
+        // Overflow if both operands have the same sign and the result has a different one
+        if (((hoursInMinutes ^ result) & (minutes ^ result)) < 0) {
+            return INVALID;
         }
 
-        if (!(object instanceof Integer)) {
-            throw new IllegalArgumentException("Cannot parse an object of type " + object.getClass().getName()
-                    + " when expecting an Integer.");
+        return result;
+    }
+
+    private static boolean isEmptyField(CharSequence source, int from, int to, boolean isIgnoringDashes) {
+        for (int i = from; i < to; i++) {
+            if (source.charAt(i) != '-' || !isIgnoringDashes) {
+                return false;
+            }
         }
 
-        Integer minutes = (Integer) object;
+        return true;
+    }
 
+    /**
+     * Formats the given minutes as hours (<code>hh:mm</code>) and appends the result to the given
+     * <code>Appendable</code>.
+     *
+     * @param minutes
+     *            the minutes to format
+     * @param toAppendTo
+     *            where the formatted value is appended
+     * @return the given <code>Appendable</code>
+     * @throws IOException
+     *             if an I/O error occurs while appending the value
+     */
+    public static <T extends Appendable> T formatMinutes(long minutes, T toAppendTo) throws IOException {
         if (minutes < 0) {
-            toAppendTo.append("-");
+            toAppendTo.append('-');
+        }
+
+        // Negating the quotient and the remainder (instead of the value) also works for Long.MIN_VALUE
+        long hours = Math.abs(minutes / MINUTES_PER_HOUR);
+        int remainder = (int) Math.abs(minutes % MINUTES_PER_HOUR);
+
+        if (hours < 10) {
+            toAppendTo.append('0');
         }
 
-        minutes = Math.abs(minutes);
+        int digits = 1;
 
-        Integer hours = minutes / MINUTES_PER_HOUR;
+        while (digits < POWERS_OF_TEN.length && hours >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
 
-        String formattedValue;
+        boolean isGrouped = hours >= 1000;
 
-        if (hours < 1000) {
-            formattedValue = String.format("%2d:%2d", hours, minutes % MINUTES_PER_HOUR);
-        } else {
-            formattedValue = String.format(":%2d", minutes % MINUTES_PER_HOUR);
+        for (int i = digits - 1; i >= 0; i--) {
+            toAppendTo.append((char) ('0' + hours / POWERS_OF_TEN[i] % 10));
 
-            DecimalFormat df = new DecimalFormat("#,##0");
+            if (isGrouped && i > 0 && i % 3 == 0) {
+                toAppendTo.append('.');
+            }
+        }
+
+        toAppendTo.append(':');
+        toAppendTo.append((char) ('0' + remainder / 10));
+        toAppendTo.append((char) ('0' + remainder % 10));
+
+        return toAppendTo;
+    }
+
+    /**
+     * Formats the given minutes as hours (<code>hh:mm</code>) and appends the result to the given
+     * <code>StringBuilder</code>.
+     *
+     * @param minutes
+     *            the minutes to format
+     * @param toAppendTo
+     *            where the formatted value is appended
+     * @return the given <code>StringBuilder</code>
+     */
+    public static StringBuilder formatMinutes(long minutes, StringBuilder toAppendTo) {
+        try {
+            formatMinutes(minutes, (Appendable) toAppendTo);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return toAppendTo;
+    }
+
+    /**
+     * Formats the given minutes as hours (<code>hh:mm</code>).
+     *
+     * @param minutes
+     *            the minutes to format
+     * @return the formatted value
+     */
+    public static String formatMinutes(long minutes) {
+        return formatMinutes(minutes, new StringBuilder(16)).toString();
+    }
+
+    /**
+     * Parses the minutes represented by a value in the format <code>hh:mm</code> or <code>hh</code>. Hours may contain
+     * dots as thousand separators (<code>1.000:30</code>) and are not limited to the <code>int</code> range.
+     *
+     * @param source
+     *            the value to parse
+     * @return the parsed minutes
+     * @throws ParseException
+     *             if the source is not a valid value or the minutes don't fit in a <code>long</code>
+     */
+    public static long parseMinutes(CharSequence source) throws ParseException {
+        long minutes = scanMinutes(source);
+
+        if (minutes == INVALID) {
+            throw new ParseException("Cannot parse the String '" + source
+                    + "'. Expecting some value in the format hh:mm or hh.", 0);
+        }
 
-            DecimalFormatSymbols symbols = new DecimalFormatSymbols();
+        return minutes;
+    }
 
-            symbols.setGroupingSeparator('.');
+    /**
+     * Parses the duration represented by a value in the format <code>hh:mm</code> or <code>hh</code>.
+     *
+     * @param source
+     *            the value to parse
+     * @return the parsed duration
+     * @throws ParseException
+     *             if the source is not a valid value or the minutes don't fit in a <code>long</code>
+     * @see #parseMinutes(CharSequence)
+     */
+    public static Duration parseDuration(CharSequence source) throws ParseException {
+        return Duration.ofMinutes(parseMinutes(source));
+    }
 
-            df.setDecimalFormatSymbols(symbols);
+    /**
+     * Formats the minutes represented by the given object and appends the result to the given
+     * <code>Appendable</code>.
+     *
+     * @param object
+     *            the minutes to format (an <code>Integer</code>, a <code>Long</code> or a <code>Duration</code>)
+     * @param toAppendTo
+     *            where the formatted value is appended
+     * @return the given <code>Appendable</code>
+     * @throws IOException
+     *             if an I/O error occurs while appending the value
+     */
+    public <T extends Appendable> T format(Object object, T toAppendTo) throws IOException {
+        if (object != null) {
+            formatMinutes(checkedMinutes(object), toAppendTo);
+        }
 
-            String formatHours = df.format(hours);
+        return toAppendTo;
+    }
 
-            formattedValue = formatHours + formattedValue;
+    private void formatUnchecked(Object object, Appendable toAppendTo) {
+        try {
+            format(object, toAppendTo);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
         }
+    }
 
-        toAppendTo.append(formattedValue.replaceAll(" ", "0"));
+    /**
+     * Formats the minutes represented by the given object and appends the result to the given
+     * <code>StringBuilder</code>.
+     *
+     * @param object
+     *            the minutes to format (an <code>Integer</code>, a <code>Long</code> or a <code>Duration</code>)
+     * @param toAppendTo
+     *            where the formatted value is appended
+     * @return the given <code>StringBuilder</code>
+     */
+    public StringBuilder format(Object object, StringBuilder toAppendTo) {
+        formatUnchecked(object, toAppendTo);
+
+        return toAppendTo;
+    }
+
+    @Override
+    public StringBuffer format(Object object, StringBuffer toAppendTo, FieldPosition position) {
+        formatUnchecked(object, toAppendTo);
 
         return toAppendTo;
     }
@@ -81,39 +386,17 @@ public class HoursFormat extends Format {
             return null;
         }
 
-        if (!source.contains(":")) {
-            position.setIndex(1);
+        long minutes = scanMinutes(source);
 
-            source = source.replaceAll("\\.", "");
+        // The legacy API returns Integer minutes
+        if (minutes < Integer.MIN_VALUE || minutes > Integer.MAX_VALUE) {
+            position.setErrorIndex(position.getIndex());
 
-            return Integer.parseInt(source) * MINUTES_PER_HOUR;
-        }
-
-        boolean isNegative = false;
-
-        if (source.startsWith("-")) {
-            source = source.replace("-", "");
-
-            isNegative = true;
+            return null;
         }
 
-        String[] splittedValues = StringUtils.split(source, ":");
-
-        String hoursStr = splittedValues[0].replaceAll("\\.", "");
-
-        Integer hours = Integer.parseInt(hoursStr);
-        Integer minutes = Integer.parseInt(splittedValues[1]);
+        position.setIndex(source.length());
 
-        position.setIndex(5);
-
-        int result = hours * MINUTES_PER_HOUR + minutes;
-
-        if (isNegative) {
-            result = result * -1;
-
-            position.setIndex(6);
-        }
-
-        return result;
+        return (int) minutes;
     }
 }
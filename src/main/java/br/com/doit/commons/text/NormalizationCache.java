@@ -0,0 +1,157 @@
+package br.com.doit.commons.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache dos resultados de um {@link TextNormalizer}. Textos repetidos com frequência (nomes de cidades, marcas,
+ * categorias e etc.) são normalizados apenas uma vez enquanto estiverem no cache.
+ * <p>
+ * O cache tem tamanho limitado: quando o limite é atingido, os textos usados há mais tempo são descartados (LRU). Para
+ * reduzir a disputa entre threads, os textos são distribuídos em partes independentes, cada uma com o seu próprio
+ * bloqueio e limite proporcional de textos. Textos maiores do que {@value #MAX_CACHED_TEXT_LENGTH} caracteres não são
+ * guardados no cache.
+ * <p>
+ * Essa classe é thread safe.
+ */
+public class NormalizationCache {
+    /**
+     * O tamanho máximo dos textos guardados no cache.
+     */
+    public static final int MAX_CACHED_TEXT_LENGTH = 256;
+
+    private static final int STRIPES = 16;
+
+    /**
+     * Parte do cache com os textos mais recentes em ordem de acesso.
+     */
+    private static class Stripe extends LinkedHashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Stripe(int maximumSize) {
+            super(16, 0.75f, true);
+
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+    private final TextNormalizer normalizer;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Cria um novo cache para os resultados do normalizador informado.
+     *
+     * @param normalizer
+     *            O normalizador cujos resultados serão guardados
+     * @param maximumSize
+     *            A quantidade máxima aproximada de textos guardados no cache
+     */
+    public NormalizationCache(TextNormalizer normalizer, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache must be greater than zero.");
+        }
+
+        this.normalizer = normalizer;
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(Math.max(1, maximumSize / STRIPES));
+        }
+    }
+
+    /**
+     * Remove todos os textos do cache. Os contadores de acertos e falhas não são alterados.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * @return Retorna a quantidade de textos encontrados no cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Retorna a quantidade de textos que não foram encontrados no cache e precisaram ser normalizados.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retorna o texto normalizado, usando o resultado guardado no cache quando o texto já foi normalizado antes.
+     *
+     * @param text
+     *            O texto que deverá ser tratado
+     * @return Retorna o texto tratado ou <code>null</code> caso o texto seja nulo
+     */
+    public String normalize(String text) {
+        if (text == null || text.length() > MAX_CACHED_TEXT_LENGTH) {
+            return normalizer.normalize(text);
+        }
+
+        Stripe stripe = stripeFor(text);
+
+        String normalized;
+
+        synchronized (stripe) {
+            normalized = stripe.get(text);
+        }
+
+        if (normalized != null) {
+            hits.increment();
+
+            return normalized;
+        }
+
+        misses.increment();
+
+        // A normalização é feita fora do bloqueio para não bloquear as demais threads que usam a mesma parte do cache
+        normalized = normalizer.normalize(text);
+
+        synchronized (stripe) {
+            stripe.put(text, normalized);
+        }
+
+        return normalized;
+    }
+
+    /**
+     * @return Retorna a quantidade de textos guardados no cache.
+     */
+    public int size() {
+        int size = 0;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+
+        return size;
+    }
+
+    private Stripe stripeFor(String text) {
+        int hash = text.hashCode();
+
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,356 @@
+package br.com.doit.commons.text;
+
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A classe <code>SearchKeys</code> gera chaves de busca a partir de textos (nomes de produtos, clientes e etc.) para a
+ * construção de índices de busca aproximada, em memória ou no banco de dados.
+ * <p>
+ * Todas as chaves são geradas a partir dos termos do texto: o texto é convertido para ASCII (com a mesma conversão de
+ * {@link TextNormalizerUtils#toAscii(String)}) e para minúsculas, e os termos são as sequências de letras e dígitos
+ * separadas por qualquer outro caractere. A partir dos termos são geradas:
+ * <ul>
+ * <li><b>hashes dos termos</b> ({@link #tokenHashes(String)}): um <code>int</code> por termo, para buscas exatas por
+ * palavra;</li>
+ * <li><b>trigramas</b> ({@link #trigrams(String)}): códigos de todas as sequências de três caracteres dos termos, para
+ * buscas por similaridade e por parte das palavras;</li>
+ * <li><b>chaves fonéticas</b> ({@link #phoneticKey(String)} e {@link #phoneticHashes(String)}): termos reescritos de
+ * acordo com a pronúncia em português, de forma que grafias diferentes de uma mesma palavra (como <em>Souza</em> e
+ * <em>Sousa</em> ou <em>Thiago</em> e <em>Tiago</em>) gerem a mesma chave.</li>
+ * </ul>
+ * Os hashes e códigos gerados são estáveis (não dependem da JVM ou da execução) e podem ser persistidos. Todas as
+ * funções são capazes de tratar um parâmetro nulo sem gerar uma exceção.
+ */
+public final class SearchKeys {
+    /**
+     * Quantidade de caracteres distintos que podem fazer parte de um trigrama: o espaço usado para completar o início
+     * e o fim dos termos, as letras de <code>a</code> a <code>z</code> e os dígitos.
+     */
+    private static final int TRIGRAM_ALPHABET_SIZE = 37;
+
+    /**
+     * O maior código de trigrama gerado por {@link #trigrams(String)}.
+     */
+    public static final int MAX_TRIGRAM = TRIGRAM_ALPHABET_SIZE * TRIGRAM_ALPHABET_SIZE * TRIGRAM_ALPHABET_SIZE - 1;
+
+    private static final TextNormalizer NORMALIZER = TextNormalizer.builder().foldAccents().lowerCase().build();
+
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+
+    private static final int FNV_PRIME = 0x01000193;
+
+    private static int hash(CharSequence token) {
+        int hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static int[] hashes(List<String> tokens) {
+        int[] hashes = new int[tokens.size()];
+
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash(tokens.get(i));
+        }
+
+        return hashes;
+    }
+
+    private static boolean isFrontVowel(char c) {
+        return c == 'e' || c == 'i' || c == 'y';
+    }
+
+    private static boolean isTokenChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= '0' && c <= '9';
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    /**
+     * Reescreve um termo de acordo com a pronúncia em português. As principais regras são:
+     * <ul>
+     * <li><code>ph</code> soa como <code>f</code>, <code>ch</code> e <code>sh</code> como <code>x</code> e
+     * <code>lh</code> e <code>nh</code> como <code>l</code> e <code>n</code>;</li>
+     * <li><code>c</code>, <code>sc</code> e <code>xc</code> antes de <code>e</code> ou <code>i</code> soam como
+     * <code>s</code>, e <code>c</code> e <code>q</code> nos demais casos como <code>k</code>;</li>
+     * <li><code>g</code> antes de <code>e</code> ou <code>i</code> soa como <code>j</code>, e o <code>u</code> de
+     * <code>gue</code>, <code>gui</code>, <code>que</code> e <code>qui</code> é mudo;</li>
+     * <li><code>z</code> soa como <code>s</code>, <code>y</code> como <code>i</code> e <code>w</code> como
+     * <code>v</code>;</li>
+     * <li><code>m</code> antes de consoante ou no final do termo soa como <code>n</code>;</li>
+     * <li>o <code>h</code> isolado é mudo e letras repetidas soam como uma única letra.</li>
+     * </ul>
+     */
+    private static String phonetic(String token) {
+        StringBuilder key = new StringBuilder(token.length());
+
+        int length = token.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            char next = i + 1 < length ? token.charAt(i + 1) : 0;
+            char afterNext = i + 2 < length ? token.charAt(i + 2) : 0;
+
+            char sound;
+
+            switch (c) {
+                case 'c':
+                    if (next == 'h') {
+                        sound = 'x';
+                        i++;
+                    } else {
+                        sound = isFrontVowel(next) ? 's' : 'k';
+                    }
+                    break;
+                case 'g':
+                    if (isFrontVowel(next)) {
+                        sound = 'j';
+                    } else {
+                        sound = 'g';
+
+                        if (next == 'u' && isFrontVowel(afterNext)) {
+                            i++;
+                        }
+                    }
+                    break;
+                case 'h':
+                    continue;
+                case 'l':
+                case 'n':
+                    sound = c;
+
+                    if (next == 'h') {
+                        i++;
+                    }
+                    break;
+                case 'm':
+                    sound = next == 0 || !isVowel(next) ? 'n' : 'm';
+                    break;
+                case 'p':
+                    if (next == 'h') {
+                        sound = 'f';
+                        i++;
+                    } else {
+                        sound = 'p';
+                    }
+                    break;
+                case 'q':
+                    sound = 'k';
+
+                    if (next == 'u' && isFrontVowel(afterNext)) {
+                        i++;
+                    }
+                    break;
+                case 's':
+                    if (next == 'h') {
+                        sound = 'x';
+                        i++;
+                    } else {
+                        sound = 's';
+
+                        if (next == 'c' && isFrontVowel(afterNext)) {
+                            i++;
+                        }
+                    }
+                    break;
+                case 'w':
+                    sound = 'v';
+                    break;
+                case 'x':
+                    if (next == 'c' && isFrontVowel(afterNext)) {
+                        sound = 's';
+                        i++;
+                    } else {
+                        sound = 'x';
+                    }
+                    break;
+                case 'y':
+                    sound = 'i';
+                    break;
+                case 'z':
+                    sound = 's';
+                    break;
+                default:
+                    sound = c;
+            }
+
+            if (key.length() == 0 || key.charAt(key.length() - 1) != sound) {
+                key.append(sound);
+            }
+        }
+
+        return key.toString();
+    }
+
+    private static List<String> phoneticTokens(String text) {
+        // O ç é convertido antes da conversão para ASCII para manter o som de s
+        List<String> tokens = tokens(text.replace('ç', 's').replace('Ç', 'S'));
+
+        for (int i = 0; i < tokens.size(); i++) {
+            tokens.set(i, phonetic(tokens.get(i)));
+        }
+
+        return tokens;
+    }
+
+    private static int trigramCode(char c) {
+        if (c == ' ') {
+            return 0;
+        }
+
+        if (c <= '9') {
+            return c - '0' + 27;
+        }
+
+        return c - 'a' + 1;
+    }
+
+    /**
+     * Gera a chave fonética do texto: os termos do texto reescritos de acordo com a pronúncia em português e
+     * separados por um espaço.
+     *
+     * @param text
+     *            O texto de onde a chave será gerada
+     * @return Retorna a chave fonética do texto ou <code>null</code> caso o texto seja nulo
+     */
+    public static String phoneticKey(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        return String.join(" ", phoneticTokens(text));
+    }
+
+    /**
+     * Gera um hash para a chave fonética de cada termo do texto, na ordem em que os termos aparecem.
+     *
+     * @param text
+     *            O texto de onde as chaves serão geradas
+     * @return Retorna os hashes das chaves fonéticas dos termos do texto (vazio caso o texto seja nulo)
+     * @see #phoneticKey(String)
+     */
+    public static int[] phoneticHashes(String text) {
+        if (text == null) {
+            return new int[0];
+        }
+
+        return hashes(phoneticTokens(text));
+    }
+
+    /**
+     * Gera um hash para cada termo do texto, na ordem em que os termos aparecem.
+     *
+     * @param text
+     *            O texto de onde as chaves serão geradas
+     * @return Retorna os hashes dos termos do texto (vazio caso o texto seja nulo)
+     */
+    public static int[] tokenHashes(String text) {
+        if (text == null) {
+            return new int[0];
+        }
+
+        return hashes(tokens(text));
+    }
+
+    /**
+     * Separa os termos do texto. O texto é convertido para ASCII e para minúsculas e os termos são as sequências de
+     * letras e dígitos separadas por qualquer outro caractere.
+     *
+     * @param text
+     *            O texto de onde os termos serão extraídos
+     * @return Retorna os termos do texto na ordem em que aparecem (vazio caso o texto seja nulo)
+     */
+    public static List<String> tokens(String text) {
+        if (text == null) {
+            return emptyList();
+        }
+
+        String normalized = NORMALIZER.normalize(text);
+
+        List<String> tokens = new ArrayList<>();
+
+        int length = normalized.length();
+
+        int start = -1;
+
+        for (int i = 0; i <= length; i++) {
+            boolean isTokenChar = i < length && isTokenChar(normalized.charAt(i));
+
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+
+                start = -1;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Gera os trigramas dos termos do texto. Cada termo é completado com dois espaços no início e um no final
+     * (<code>"pao"</code> gera <code>"  p"</code>, <code>" pa"</code>, <code>"pao"</code> e <code>"ao "</code>), de
+     * forma que termos curtos também gerem trigramas e o início dos termos tenha mais peso na comparação.
+     * <p>
+     * Cada trigrama é representado por um código único entre <code>0</code> e {@value #MAX_TRIGRAM}, sem colisões.
+     *
+     * @param text
+     *            O texto de onde os trigramas serão gerados
+     * @return Retorna os códigos dos trigramas distintos do texto em ordem crescente (vazio caso o texto seja nulo)
+     */
+    public static int[] trigrams(String text) {
+        if (text == null) {
+            return new int[0];
+        }
+
+        List<String> tokens = tokens(text);
+
+        int count = 0;
+
+        for (String token : tokens) {
+            count += token.length() + 1;
+        }
+
+        int[] trigrams = new int[count];
+
+        int size = 0;
+
+        for (String token : tokens) {
+            int code = 0;
+
+            for (int i = 0; i <= token.length(); i++) {
+                int charCode = i < token.length() ? trigramCode(token.charAt(i)) : 0;
+
+                code = code % (TRIGRAM_ALPHABET_SIZE * TRIGRAM_ALPHABET_SIZE) * TRIGRAM_ALPHABET_SIZE + charCode;
+
+                trigrams[size++] = code;
+            }
+        }
+
+        Arrays.sort(trigrams);
+
+        int distinct = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+
+        return distinct == trigrams.length ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+
+    private SearchKeys() {
+    }
+}
@@ -0,0 +1,618 @@
+package br.com.doit.commons.text;
+
+import static br.com.doit.commons.text.TextNormalizer.CharClass.ALNUM;
+import static br.com.doit.commons.text.TextNormalizer.CharClass.DIGIT;
+import static br.com.doit.commons.text.TextNormalizer.CharClass.SPACE;
+
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collector;
+
+/**
+ * A classe <code>TextNormalizer</code> combina várias etapas de normalização de texto em uma única operação. As etapas
+ * são configuradas através de um {@link Builder} e executadas em uma única passagem pelo texto, caractere a caractere,
+ * sem gerar textos intermediários:
+ *
+ * <pre>
+ * TextNormalizer normalizer = TextNormalizer.builder().foldAccents().keep(ALNUM, SPACE).keep('.', ':').collapseWhitespace().lowerCase().build();
+ *
+ * normalizer.normalize(&quot;Rua  Guaipá, 1443&quot;); // rua guaipa 1443
+ * </pre>
+ *
+ * Independente da ordem em que foram configuradas, as etapas são aplicadas a cada caractere na seguinte ordem:
+ * conversão para ASCII, seleção dos caracteres mantidos, conversão para minúsculas, agrupamento de espaços em branco e,
+ * ao final, a remoção dos espaços antes e depois do texto.
+ * <p>
+ * Colunas inteiras de textos podem ser normalizadas de uma só vez com {@link #normalizeAll(List)},
+ * {@link #normalizeInto(String[], String[])} ou {@link #toNormalizedList()}. Nesses casos, os textos repetidos são
+ * normalizados uma única vez e compartilham o mesmo resultado.
+ * <p>
+ * Instâncias dessa classe são imutáveis e podem ser compartilhadas entre threads.
+ *
+ * @see TextNormalizerUtils
+ */
+public final class TextNormalizer {
+    /**
+     * Construtor de instâncias de {@link TextNormalizer}. Cada método habilita uma etapa da normalização e retorna o
+     * próprio construtor para permitir o encadeamento das chamadas.
+     */
+    public static final class Builder {
+        private boolean foldAccents;
+        private final boolean[] keptAsciiChars = new boolean[128];
+        private final StringBuilder keptChars = new StringBuilder();
+        private boolean isKeepingAll = true;
+        private boolean lowerCase;
+        private boolean collapseWhitespace;
+        private boolean trim;
+
+        private Builder() {
+        }
+
+        /**
+         * @return Retorna um novo normalizador com as etapas configuradas nesse construtor.
+         */
+        public TextNormalizer build() {
+            char[] otherChars = keptChars.toString().toCharArray();
+
+            Arrays.sort(otherChars);
+
+            return new TextNormalizer(foldAccents, isKeepingAll ? null : keptAsciiChars.clone(), otherChars, lowerCase, collapseWhitespace, trim);
+        }
+
+        /**
+         * Substitui sequências de espaços em branco (incluindo quebras de linha e tabulações) por um único espaço.
+         *
+         * @return Retorna esse construtor
+         */
+        public Builder collapseWhitespace() {
+            collapseWhitespace = true;
+
+            return this;
+        }
+
+        /**
+         * Converte todos os caracteres para a representação ASCII. Os acentos são removidos das letras acentuadas e
+         * os caracteres sem representação ASCII são removidos do texto.
+         *
+         * @return Retorna esse construtor
+         */
+        public Builder foldAccents() {
+            foldAccents = true;
+
+            return this;
+        }
+
+        /**
+         * Mantém no texto os caracteres das classes informadas. Pode ser combinado com as demais chamadas de
+         * <code>keep</code>. Os caracteres que não pertencerem a nenhuma das classes ou caracteres mantidos são
+         * removidos do texto.
+         *
+         * @param classes
+         *            As classes de caracteres mantidos
+         * @return Retorna esse construtor
+         */
+        public Builder keep(CharClass... classes) {
+            isKeepingAll = false;
+
+            for (CharClass charClass : classes) {
+                for (char c : charClass.chars) {
+                    keptAsciiChars[c] = true;
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * Mantém no texto os caracteres informados. Pode ser combinado com as demais chamadas de <code>keep</code>. Os
+         * caracteres que não pertencerem a nenhuma das classes ou caracteres mantidos são removidos do texto.
+         *
+         * @param chars
+         *            Os caracteres mantidos
+         * @return Retorna esse construtor
+         */
+        public Builder keep(char... chars) {
+            isKeepingAll = false;
+
+            for (char c : chars) {
+                if (c < 128) {
+                    keptAsciiChars[c] = true;
+                } else if (keptChars.indexOf(String.valueOf(c)) < 0) {
+                    keptChars.append(c);
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * Converte todos os caracteres para minúsculas (caractere a caractere, independente do locale).
+         *
+         * @return Retorna esse construtor
+         */
+        public Builder lowerCase() {
+            lowerCase = true;
+
+            return this;
+        }
+
+        /**
+         * Remove espaços em branco antes e depois do texto (com a mesma regra de {@link String#trim()}).
+         *
+         * @return Retorna esse construtor
+         */
+        public Builder trim() {
+            trim = true;
+
+            return this;
+        }
+    }
+
+    /**
+     * Classes de caracteres ASCII que podem ser mantidas no texto.
+     *
+     * @see Builder#keep(CharClass...)
+     */
+    public enum CharClass {
+        /**
+         * Letras de <code>a</code> a <code>z</code> (maiúsculas e minúsculas).
+         */
+        ALPHA(range('a', 'z') + range('A', 'Z')),
+
+        /**
+         * Dígitos de <code>0</code> a <code>9</code>.
+         */
+        DIGIT(range('0', '9')),
+
+        /**
+         * Letras e dígitos.
+         */
+        ALNUM(range('a', 'z') + range('A', 'Z') + range('0', '9')),
+
+        /**
+         * Espaços em branco que não representam quebras de linha ou tabulação horizontal (espaço, tabulação vertical e
+         * avanço de página).
+         */
+        SPACE(" \u000B\f"),
+
+        /**
+         * Todos os espaços em branco, incluindo quebras de linha e tabulações (equivale a <code>\s</code> nas
+         * expressões regulares).
+         */
+        WHITESPACE(" \t\n\u000B\f\r");
+
+        private final char[] chars;
+
+        private CharClass(String chars) {
+            this.chars = chars.toCharArray();
+        }
+    }
+
+    /**
+     * Normaliza os textos de um lote, guardando o resultado de cada texto distinto para que os textos repetidos não
+     * sejam normalizados novamente.
+     */
+    private final class Batch {
+        private final Map<String, String> normalizedTexts = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void add(String text) {
+            values.add(normalize(text));
+        }
+
+        Batch combine(Batch other) {
+            values.addAll(other.values);
+
+            return this;
+        }
+
+        String normalize(String text) {
+            if (text == null) {
+                return null;
+            }
+
+            String normalized = normalizedTexts.get(text);
+
+            if (normalized == null) {
+                normalized = TextNormalizer.this.normalize(text);
+
+                normalizedTexts.put(text, normalized);
+            }
+
+            return normalized;
+        }
+
+        void normalize(String[] source, String[] destination, int from, int to) {
+            for (int i = from; i < to; i++) {
+                destination[i] = normalize(source[i]);
+            }
+        }
+    }
+
+    /**
+     * Divide um lote grande em partes menores que são normalizadas em paralelo. Cada parte evita normalizar novamente
+     * os textos repetidos dentro dela.
+     */
+    private final class NormalizeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] source;
+        private final String[] destination;
+        private final int from;
+        private final int to;
+
+        NormalizeTask(String[] source, String[] destination, int from, int to) {
+            this.source = source;
+            this.destination = destination;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_BATCH_SIZE) {
+                new Batch().normalize(source, destination, from, to);
+
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+
+            invokeAll(new NormalizeTask(source, destination, from, middle), new NormalizeTask(source, destination, middle, to));
+        }
+    }
+
+    private static final int FOLDING_TABLE_SIZE = 0x180;
+
+    private static final int PARALLEL_BATCH_SIZE = 4 * 1024;
+
+    private static final int MAX_CACHED_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Representação ASCII de cada caractere dos blocos Latin-1 e Latin Extended-A (ou <code>-1</code> quando o
+     * caractere não possui representação ASCII). Equivale a decompor o caractere (NFD) e manter apenas a parte ASCII.
+     */
+    private static final int[] ASCII_FOLDING = createAsciiFolding();
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[256]);
+
+    /**
+     * Converte todos os caracteres para a representação ASCII.
+     *
+     * @see TextNormalizerUtils#toAscii(String)
+     */
+    public static final TextNormalizer ASCII = builder().foldAccents().build();
+
+    /**
+     * Remove todos os caracteres não alfanuméricos do texto.
+     *
+     * @see TextNormalizerUtils#stripNonAlphanumericChars(String)
+     */
+    public static final TextNormalizer ALPHANUMERIC = builder().foldAccents().keep(ALNUM, SPACE).trim().build();
+
+    /**
+     * Remove caracteres não alfanuméricos do texto, mantendo espaços, pontos, dois-pontos e hífen.
+     *
+     * @see TextNormalizerUtils#lightStripNonAlphanumericChars(String)
+     */
+    public static final TextNormalizer LIGHT_ALPHANUMERIC = builder().foldAccents().keep(ALNUM, SPACE).keep('.', ':', '-').trim().build();
+
+    /**
+     * Remove caracteres não alfanuméricos do texto, mantendo espaços, ponto, vírgula, porcentagem e barra.
+     *
+     * @see TextNormalizerUtils#stripNonAlphanumericCharsForProducts(String)
+     */
+    public static final TextNormalizer PRODUCT_ALPHANUMERIC = builder().foldAccents().keep(ALNUM, SPACE).keep('.', ',', '%', '/').trim().build();
+
+    /**
+     * Remove todos os caracteres não numéricos do texto.
+     *
+     * @see TextNormalizerUtils#stripNonNumericChars(String)
+     */
+    public static final TextNormalizer NUMERIC = builder().keep(DIGIT).build();
+
+    private static char[] buffer(int length) {
+        if (length > MAX_CACHED_BUFFER_SIZE) {
+            return new char[length];
+        }
+
+        char[] buffer = BUFFER.get();
+
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+
+            BUFFER.set(buffer);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * @return Retorna um novo construtor de normalizadores sem nenhuma etapa configurada.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int[] createAsciiFolding() {
+        int[] folding = new int[FOLDING_TABLE_SIZE];
+
+        for (char c = 0; c < FOLDING_TABLE_SIZE; c++) {
+            folding[c] = -1;
+
+            for (char decomposed : Normalizer.normalize(String.valueOf(c), Form.NFD).toCharArray()) {
+                if (decomposed < 128) {
+                    folding[c] = decomposed;
+                }
+            }
+        }
+
+        return folding;
+    }
+
+    private static String range(char first, char last) {
+        StringBuilder chars = new StringBuilder();
+
+        for (char c = first; c <= last; c++) {
+            chars.append(c);
+        }
+
+        return chars.toString();
+    }
+
+    private final boolean foldAccents;
+
+    private final boolean[] keptAsciiChars;
+
+    private final char[] keptChars;
+
+    private final boolean lowerCase;
+
+    private final boolean collapseWhitespace;
+
+    private final boolean trim;
+
+    private TextNormalizer(boolean foldAccents, boolean[] keptAsciiChars, char[] keptChars, boolean lowerCase, boolean collapseWhitespace, boolean trim) {
+        this.foldAccents = foldAccents;
+        this.keptAsciiChars = keptAsciiChars;
+        this.keptChars = keptChars;
+        this.lowerCase = lowerCase;
+        this.collapseWhitespace = collapseWhitespace;
+        this.trim = trim;
+    }
+
+    private boolean isKept(char c) {
+        if (keptAsciiChars == null) {
+            return true;
+        }
+
+        if (c < 128) {
+            return keptAsciiChars[c];
+        }
+
+        return keptChars.length > 0 && Arrays.binarySearch(keptChars, c) >= 0;
+    }
+
+    /**
+     * Aplica as etapas de normalização configuradas ao texto.
+     * <p>
+     * O texto é verificado antes de ser copiado: enquanto nenhuma etapa alterar os caracteres (como acontece com textos
+     * que já estão em ASCII), nada é copiado, e o próprio texto é retornado quando nenhum caractere precisa ser
+     * alterado.
+     *
+     * @param text
+     *            O texto que deverá ser tratado
+     * @return Retorna o texto tratado ou <code>null</code> caso o texto seja nulo
+     */
+    public String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        int length = text.length();
+
+        int unchanged = unchangedPrefixLength(text);
+
+        if (unchanged == length) {
+            return trim ? text.trim() : text;
+        }
+
+        char[] buffer = buffer(length);
+
+        text.getChars(0, unchanged, buffer, 0);
+
+        return normalize(text, unchanged, false, buffer, unchanged);
+    }
+
+    /**
+     * Normaliza todos os textos da lista. Os textos repetidos são normalizados uma única vez.
+     *
+     * @param texts
+     *            Os textos que deverão ser tratados (podem conter elementos nulos)
+     * @return Retorna uma nova lista com os textos tratados, na mesma ordem da lista original
+     */
+    public List<String> normalizeAll(List<String> texts) {
+        return normalizeAll(texts, null);
+    }
+
+    /**
+     * Normaliza todos os textos da lista. Os textos repetidos são normalizados uma única vez. Listas grandes são
+     * divididas em partes normalizadas em paralelo no pool informado.
+     *
+     * @param texts
+     *            Os textos que deverão ser tratados (podem conter elementos nulos)
+     * @param pool
+     *            O pool usado para normalizar as partes da lista em paralelo ou <code>null</code> para normalizar
+     *            todos os textos na thread corrente
+     * @return Retorna uma nova lista com os textos tratados, na mesma ordem da lista original
+     */
+    public List<String> normalizeAll(List<String> texts, ForkJoinPool pool) {
+        String[] values = texts.toArray(new String[texts.size()]);
+
+        normalizeInto(values, values, pool);
+
+        return new ArrayList<>(Arrays.asList(values));
+    }
+
+    /**
+     * Normaliza todos os textos do array <code>source</code> e guarda o resultado nas mesmas posições do array
+     * <code>destination</code>. Os dois parâmetros podem ser o mesmo array. Os textos repetidos são normalizados uma
+     * única vez.
+     *
+     * @param source
+     *            Os textos que deverão ser tratados (podem conter elementos nulos)
+     * @param destination
+     *            O array onde os textos tratados serão guardados
+     * @throws IllegalArgumentException
+     *             Caso o array <code>destination</code> seja menor do que o array <code>source</code>
+     */
+    public void normalizeInto(String[] source, String[] destination) {
+        normalizeInto(source, destination, null);
+    }
+
+    /**
+     * Normaliza todos os textos do array <code>source</code> e guarda o resultado nas mesmas posições do array
+     * <code>destination</code>. Os dois parâmetros podem ser o mesmo array. Os textos repetidos são normalizados uma
+     * única vez. Arrays grandes são divididos em partes normalizadas em paralelo no pool informado.
+     *
+     * @param source
+     *            Os textos que deverão ser tratados (podem conter elementos nulos)
+     * @param destination
+     *            O array onde os textos tratados serão guardados
+     * @param pool
+     *            O pool usado para normalizar as partes do array em paralelo ou <code>null</code> para normalizar
+     *            todos os textos na thread corrente
+     * @throws IllegalArgumentException
+     *             Caso o array <code>destination</code> seja menor do que o array <code>source</code>
+     */
+    public void normalizeInto(String[] source, String[] destination, ForkJoinPool pool) {
+        if (destination.length < source.length) {
+            throw new IllegalArgumentException("The destination array must have at least " + source.length + " elements.");
+        }
+
+        if (pool == null || source.length <= PARALLEL_BATCH_SIZE) {
+            new Batch().normalize(source, destination, 0, source.length);
+
+            return;
+        }
+
+        pool.invoke(new NormalizeTask(source, destination, 0, source.length));
+    }
+
+    /**
+     * Cria um {@code Collector} que normaliza os textos de um {@code Stream} e os acumula em uma lista. Os textos
+     * repetidos são normalizados uma única vez (em streams paralelos, uma única vez por parte do stream).
+     *
+     * @return Retorna um {@code Collector} que acumula os textos tratados em uma lista
+     */
+    public Collector<String, ?, List<String>> toNormalizedList() {
+        return Collector.of(Batch::new, Batch::add, Batch::combine, batch -> batch.values);
+    }
+
+    /**
+     * Percorre o texto a partir da posição informada aplicando todas as etapas a cada caractere. Quando a conversão
+     * para ASCII está habilitada e o texto contém caracteres fora da tabela de conversão, apenas o restante do texto é
+     * decomposto (NFD) e percorrido. Como a decomposição não altera a posição dos caracteres ASCII, o resultado é o
+     * mesmo da decomposição do texto completo.
+     */
+    private String normalize(String text, int from, boolean isDecomposed, char[] buffer, int size) {
+        int length = text.length();
+
+        for (int i = from; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (foldAccents) {
+                if (c >= FOLDING_TABLE_SIZE) {
+                    if (isDecomposed) {
+                        continue;
+                    }
+
+                    String decomposed = Normalizer.normalize(text.substring(i), Form.NFD);
+
+                    if (buffer.length < size + decomposed.length()) {
+                        buffer = Arrays.copyOf(buffer, size + decomposed.length());
+                    }
+
+                    return normalize(decomposed, 0, true, buffer, size);
+                }
+
+                int folded = ASCII_FOLDING[c];
+
+                if (folded < 0) {
+                    continue;
+                }
+
+                c = (char) folded;
+            }
+
+            if (!isKept(c)) {
+                continue;
+            }
+
+            if (lowerCase) {
+                c = Character.toLowerCase(c);
+            }
+
+            if (collapseWhitespace && Character.isWhitespace(c)) {
+                if (size > 0 && buffer[size - 1] == ' ') {
+                    continue;
+                }
+
+                c = ' ';
+            }
+
+            buffer[size++] = c;
+        }
+
+        int start = 0;
+        int end = size;
+
+        if (trim) {
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+
+            while (end > start && buffer[end - 1] <= ' ') {
+                end--;
+            }
+        }
+
+        return new String(buffer, start, end - start);
+    }
+
+    /**
+     * @return Retorna a quantidade de caracteres do início do texto que não são alterados por nenhuma etapa.
+     */
+    private int unchangedPrefixLength(String text) {
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (foldAccents && c >= 128) {
+                return i;
+            }
+
+            if (!isKept(c)) {
+                return i;
+            }
+
+            if (lowerCase && Character.toLowerCase(c) != c) {
+                return i;
+            }
+
+            if (collapseWhitespace && Character.isWhitespace(c) && (c != ' ' || i > 0 && text.charAt(i - 1) == ' ')) {
+                return i;
+            }
+        }
+
+        return length;
+    }
+}
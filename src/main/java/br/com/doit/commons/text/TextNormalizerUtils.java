@@ -1,12 +1,14 @@
 package br.com.doit.commons.text;
 
-import java.text.Normalizer;
-import java.text.Normalizer.Form;
-
 /**
  * A classe <code>TextNormalizerUtils</code> contém funções auxiliares para facilitar o tratamento/normalização de
  * textos (<code>String</code>). Todas as funções auxiliares são capazes de tratar um parâmetro nulo sem gerar uma
  * exceção.
+ * <p>
+ * As funções que convertem ou removem caracteres são combinações pré-configuradas de {@link TextNormalizer}. Use um
+ * {@link TextNormalizer} diretamente para combinar outras etapas de normalização em uma única passagem pelo texto e
+ * um {@link NormalizationCache} em torno de {@link TextNormalizer#ASCII} ou {@link TextNormalizer#ALPHANUMERIC} para
+ * normalizar apenas uma vez os textos repetidos com frequência.
  * 
  * @author <a href="mailto:hprange@gmail.com.br">Henrique Prange</a>
  */
@@ -24,11 +26,7 @@ public class TextNormalizerUtils {
             return null;
         }
 
-        return stripChars(stripChars(toAscii(text), "[^a-zA-Z0-9\\s\\.:-]"), "[\\n\\r\\t]").trim();
-    }
-
-    private static String stripChars(String text, String pattern) {
-        return text.replaceAll(pattern, "");
+        return TextNormalizer.LIGHT_ALPHANUMERIC.normalize(text);
     }
 
     /**
@@ -43,7 +41,7 @@ public class TextNormalizerUtils {
             return null;
         }
 
-        return stripChars(stripChars(toAscii(text), "[^a-zA-Z0-9\\s]"), "[\\n\\r\\t]").trim();
+        return TextNormalizer.ALPHANUMERIC.normalize(text);
     }
 
     /**
@@ -58,7 +56,7 @@ public class TextNormalizerUtils {
             return null;
         }
 
-        return text.replaceAll("[^\\d]", "");
+        return TextNormalizer.NUMERIC.normalize(text);
     }
 
     /**
@@ -73,7 +71,7 @@ public class TextNormalizerUtils {
             return null;
         }
 
-        return Normalizer.normalize(text, Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+        return TextNormalizer.ASCII.normalize(text);
     }
 
     /**
@@ -92,18 +90,19 @@ public class TextNormalizerUtils {
     }
 
     /**
-     * Remove emojis presentes no texto.
+     * Remove emojis presentes no texto, incluindo sequências de emojis unidas por <em>zero width joiner</em>,
+     * modificadores de tom de pele e seletores de variação. Sequências de espaços são substituídas por um único espaço.
      *
      * @param text
      *            O texto que deverá ser tratado
-     * @return Retorna uma cópia do texto sem emojis
+     * @return Retorna uma cópia do texto sem emojis (ou o próprio texto quando não há nada para remover)
      */
     public static String removeEmojis(String text) {
         if (text == null) {
             return null;
         }
 
-        return text.replaceAll("[^\\p{L}\\p{M}\\p{N}\\p{P}\\p{Z}\\p{Cf}\\p{Cs}\\s]", "").replaceAll("  ", " ");
+        return EmojiFilter.remove(text);
     }
 
     /**
@@ -125,7 +124,7 @@ public class TextNormalizerUtils {
             return null;
         }
 
-        return stripChars(stripChars(toAscii(text), "[^a-zA-Z0-9\\s\\.,%/]"), "[\\n\\r\\t]").trim();
+        return TextNormalizer.PRODUCT_ALPHANUMERIC.normalize(text);
     }
 }
 
@@ -0,0 +1,68 @@
+package br.com.doit.commons.excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Currency;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestCellConverters {
+    @Mock
+    private Cell cell;
+
+    @Test
+    public void convertCellUsingRegisteredConverter() throws Exception {
+        Function<Cell, Currency> converter = cell -> Currency.getInstance(cell.getStringCellValue().trim());
+
+        CellConverters converters = CellConverters.DEFAULT.with(Currency.class, converter);
+
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_STRING);
+        when(cell.getStringCellValue()).thenReturn(" BRL ");
+
+        Currency result = converters.converterFor(Currency.class).apply(cell);
+
+        assertThat(result, is(Currency.getInstance("BRL")));
+    }
+
+    @Test
+    public void keepDefaultConvertersWhenRegisteringConverter() throws Exception {
+        CellConverters converters = CellConverters.DEFAULT.with(Integer.class, cell -> 42);
+
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_NUMERIC);
+        when(cell.getNumericCellValue()).thenReturn(7.0);
+
+        assertThat(converters.converterFor(Integer.class).apply(cell), is(42));
+        assertThat(Cells.toObject(cell, Integer.class), is(7));
+        assertThat(CellConverters.DEFAULT.converterFor(Integer.class).apply(cell), is(7));
+    }
+
+    @Test
+    public void convertCellToStringWhenTypeIsNotRegistered() throws Exception {
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_NUMERIC);
+        when(cell.getNumericCellValue()).thenReturn(123.0);
+
+        Object result = Cells.toObject(cell, Thread.class);
+
+        assertThat(result, is((Object) "123"));
+    }
+
+    @Test
+    public void reuseConverterResolvedForTheSameType() throws Exception {
+        assertThat(CellConverters.DEFAULT.converterFor(Integer.class), sameInstance(CellConverters.DEFAULT.converterFor(
+                Integer.class)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionWhenRegisteringNullConverter() throws Exception {
+        CellConverters.DEFAULT.with(Integer.class, null);
+    }
+}
@@ -7,11 +7,14 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.UUID;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.junit.Before;
@@ -92,6 +95,141 @@ public class TestCells {
         verifyObjectConversion(Integer.class, parameters);
     }
 
+    @Test
+    public void returnLongWhenConvertingToObjectWithTypeLong() throws Exception {
+        Object[][] parameters = {
+                { Cell.CELL_TYPE_BOOLEAN, 0L },
+                { Cell.CELL_TYPE_NUMERIC, 123L },
+                { Cell.CELL_TYPE_STRING, 321L }
+        };
+
+        verifyObjectConversion(Long.class, parameters);
+    }
+
+    @Test
+    public void returnShortWhenConvertingToObjectWithTypeShort() throws Exception {
+        Object[][] parameters = {
+                { Cell.CELL_TYPE_BOOLEAN, (short) 0 },
+                { Cell.CELL_TYPE_NUMERIC, (short) 123 },
+                { Cell.CELL_TYPE_STRING, (short) 321 }
+        };
+
+        verifyObjectConversion(Short.class, parameters);
+    }
+
+    @Test
+    public void returnDoubleWhenConvertingToObjectWithTypeDouble() throws Exception {
+        Object[][] parameters = {
+                { Cell.CELL_TYPE_BOOLEAN, 0.0 },
+                { Cell.CELL_TYPE_NUMERIC, 123.0 },
+                { Cell.CELL_TYPE_STRING, 321.0 }
+        };
+
+        verifyObjectConversion(Double.class, parameters);
+    }
+
+    @Test
+    public void returnPrimitiveValuesWhenConvertingWithoutBoxing() throws Exception {
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_NUMERIC);
+        when(cell.getNumericCellValue()).thenReturn(12.75);
+
+        assertThat(Cells.toIntValue(cell, -1), is(12));
+        assertThat(Cells.toDoubleValue(cell, -1.0), is(12.75));
+
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_BLANK);
+
+        assertThat(Cells.toIntValue(cell, -1), is(-1));
+        assertThat(Cells.toDoubleValue(cell, -1.0), is(-1.0));
+    }
+
+    @Test
+    public void returnUUIDWhenConvertingToObjectWithTypeUUID() throws Exception {
+        UUID uuid = UUID.randomUUID();
+
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_STRING);
+        when(cell.getStringCellValue()).thenReturn(" " + uuid + " ");
+
+        UUID result = Cells.toObject(cell, UUID.class);
+
+        assertThat(result, is(uuid));
+    }
+
+    @Test
+    public void returnEnumWhenConvertingToObjectWithEnumType() throws Exception {
+        Object[][] parameters = {
+                { "UP", RoundingMode.UP },
+                { " half_even ", RoundingMode.HALF_EVEN },
+                { "Céiling", RoundingMode.CEILING }
+        };
+
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_STRING);
+
+        for (Object[] parameter : parameters) {
+            when(cell.getStringCellValue()).thenReturn((String) parameter[0]);
+
+            RoundingMode result = Cells.toObject(cell, RoundingMode.class);
+
+            assertThat(result, is(parameter[1]));
+        }
+    }
+
+    @Test
+    public void returnInstantWhenConvertingToObjectWithTypeInstant() throws Exception {
+        Date date = new Date();
+        when(cell.getDateCellValue()).thenReturn(date);
+
+        Instant result = Cells.toObject(cell, Instant.class);
+
+        assertThat(result, is(date.toInstant()));
+    }
+
+    @Test
+    public void returnCachedResultWhenConvertingFormulaCell() throws Exception {
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_FORMULA);
+
+        Object[][] parameters = {
+                { Cell.CELL_TYPE_NUMERIC, 123 },
+                { Cell.CELL_TYPE_STRING, 321 },
+                { Cell.CELL_TYPE_BOOLEAN, 0 }
+        };
+
+        for (Object[] parameter : parameters) {
+            when(cell.getCachedFormulaResultType()).thenReturn((int) parameter[0]);
+
+            Integer result = Cells.toObject(cell, Integer.class);
+
+            assertThat(result, is(parameter[1]));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void throwExceptionWhenConvertingFormulaCellWithCachedError() throws Exception {
+        when(cell.getCellType()).thenReturn(Cell.CELL_TYPE_FORMULA);
+        when(cell.getCachedFormulaResultType()).thenReturn(Cell.CELL_TYPE_ERROR);
+
+        Cells.toInteger(cell);
+    }
+
+    @Test
+    public void hasValueOnlyWhenTextRepresentationIsNotNull() throws Exception {
+        Object[][] parameters = {
+                { Cell.CELL_TYPE_BLANK, "", false },
+                { Cell.CELL_TYPE_STRING, "   ", false },
+                { Cell.CELL_TYPE_STRING, " x ", true },
+                { Cell.CELL_TYPE_NUMERIC, "", true },
+                { Cell.CELL_TYPE_BOOLEAN, "", true },
+                { Cell.CELL_TYPE_ERROR, "", false }
+        };
+
+        for (Object[] parameter : parameters) {
+            when(cell.getCellType()).thenReturn((int) parameter[0]);
+            when(cell.getStringCellValue()).thenReturn((String) parameter[1]);
+
+            assertThat(Cells.hasValue(cell), is(parameter[2]));
+            assertThat(Cells.hasValue(cell), is(Cells.toString(cell) != null));
+        }
+    }
+
     @Test
     public void returnNSTimestampWhenConvertingToObjectWithTypeNSTimestamp() throws Exception {
         Date date = new Date();
@@ -130,7 +268,13 @@ public class TestCells {
                 LocalDate.class,
                 LocalDateTime.class,
                 OffsetDateTime.class,
-                Boolean.class
+                Boolean.class,
+                Long.class,
+                Short.class,
+                Double.class,
+                UUID.class,
+                RoundingMode.class,
+                Instant.class
         };
 
         for (Class<?> type : types) {
@@ -0,0 +1,190 @@
+package br.com.doit.commons.excel;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TestCsvImporter {
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(UTF_8));
+    }
+
+    private Map<String, Class<?>> config;
+
+    private CsvImporter importer;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void extractTwoLinesOfDataWhenProcessingFile() throws Exception {
+        URL url = getClass().getResource("/importer/two_lines.csv");
+
+        List<Map<String, Object>> results = importer.extractRows(url);
+
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).get("NAME"), is((Object) "John Doe"));
+        assertThat(results.get(0).get("AMOUNT"), is((Object) 123));
+        assertThat(results.get(1).get("NAME"), is((Object) "Fulano de Tal"));
+        assertThat(results.get(1).get("AMOUNT"), is((Object) 321));
+    }
+
+    @Test
+    public void extractDataUsingTheCorrectDataTypeWhenProcessingFile() throws Exception {
+        InputStream input = csv("name,amount,currency,boolean,date,time\nJohn Doe,123,12.5,sim,2014-10-10,2014-10-10T08:30:15\n");
+
+        Map<String, Object> result = importer.extractRows(input).get(0);
+
+        assertThat(result.get("NAME"), is((Object) "John Doe"));
+        assertThat(result.get("AMOUNT"), is((Object) 123));
+        assertThat(result.get("CURRENCY"), is((Object) new BigDecimal("12.5")));
+        assertThat(result.get("BOOLEAN"), is((Object) true));
+        assertThat(result.get("DATE"), is((Object) LocalDate.of(2014, 10, 10)));
+        assertThat(result.get("TIME"), is((Object) LocalDateTime.of(2014, 10, 10, 8, 30, 15)));
+    }
+
+    @Test
+    public void extractBooleansWrittenAsNumbersWhenProcessingFile() throws Exception {
+        InputStream input = csv("Name,Boolean\nJohn Doe,1\nFulano,0\n");
+
+        List<Map<String, Object>> results = importer.extractRows(input);
+
+        assertThat(results.get(0).get("BOOLEAN"), is((Object) true));
+        assertThat(results.get(1).get("BOOLEAN"), is((Object) false));
+    }
+
+    @Test
+    public void ignoreSpacesAroundNumbersWhenProcessingFile() throws Exception {
+        InputStream input = csv("Amount,Currency,Boolean\n1, 12.5 , 1\n 2 ,\" 123456789012345678.25\",0 \n");
+
+        List<Map<String, Object>> results = importer.extractRows(input);
+
+        assertThat(results.get(0).get("AMOUNT"), is((Object) 1));
+        assertThat(results.get(0).get("CURRENCY"), is((Object) new BigDecimal("12.5")));
+        assertThat(results.get(0).get("BOOLEAN"), is((Object) true));
+        assertThat(results.get(1).get("AMOUNT"), is((Object) 2));
+        assertThat(results.get(1).get("CURRENCY"), is((Object) new BigDecimal("123456789012345678.25")));
+        assertThat(results.get(1).get("BOOLEAN"), is((Object) false));
+    }
+
+    @Test
+    public void ignoreSpacesAroundColumnNamesWhenProcessingFile() throws Exception {
+        InputStream input = csv(" Name , Currency\nJohn Doe,12.5\n");
+
+        Map<String, Object> result = importer.extractRows(input).get(0);
+
+        assertThat(result.get("NAME"), is((Object) "John Doe"));
+        assertThat(result.get("CURRENCY"), is((Object) new BigDecimal("12.5")));
+    }
+
+    @Test
+    public void extractQuotedFieldsWhenProcessingFile() throws Exception {
+        InputStream input = csv("Name,Amount\n\"Doe, John \"\"JD\"\"\",1\n\"Multi\r\nline\",2");
+
+        List<Map<String, Object>> results = importer.extractRows(input);
+
+        assertThat(results.get(0).get("NAME"), is((Object) "Doe, John \"JD\""));
+        assertThat(results.get(1).get("NAME"), is((Object) "Multi\r\nline"));
+        assertThat(results.get(1).get("AMOUNT"), is((Object) 2));
+    }
+
+    @Test
+    public void extractDataWhenProcessingTabSeparatedFile() throws Exception {
+        importer = new CsvImporter(config, '\t');
+
+        InputStream input = csv("Name\tAmount\nJohn, Doe\t123\n");
+
+        Map<String, Object> result = importer.extractRows(input).get(0);
+
+        assertThat(result.get("NAME"), is((Object) "John, Doe"));
+        assertThat(result.get("AMOUNT"), is((Object) 123));
+    }
+
+    @Test
+    public void extractClearDataMarkerAndEmptyFieldsWhenProcessingFile() throws Exception {
+        InputStream input = csv("Name,Amount,Boolean\n-,,-\n");
+
+        Map<String, Object> result = importer.extractRows(input).get(0);
+
+        assertThat(result.get("NAME"), is(ExcelImporter.CLEAR_DATA_MARKER));
+        assertThat(result.get("AMOUNT"), nullValue());
+        assertThat(result.get("BOOLEAN"), is(ExcelImporter.CLEAR_DATA_MARKER));
+    }
+
+    @Test
+    public void ignoreEmptyLinesAndByteOrderMarkWhenProcessingFile() throws Exception {
+        InputStream input = csv("\uFEFFName,Amount\n\nJohn Doe,1\n,\n");
+
+        List<Map<String, Object>> results = importer.extractRows(input);
+
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0).get("NAME"), is((Object) "John Doe"));
+    }
+
+    @Test
+    public void readFieldsLargerThanTheBufferWhenProcessingFile() throws Exception {
+        StringBuilder name = new StringBuilder();
+
+        for (int i = 0; i < 100000; i++) {
+            name.append((char) ('a' + i % 26));
+        }
+
+        InputStream input = csv("Name,Amount\n" + name + ",1\n\"" + name + "\",2\n");
+
+        List<Map<String, Object>> results = importer.extractRows(input);
+
+        assertThat(results.get(0).get("NAME"), is((Object) name.toString()));
+        assertThat(results.get(1).get("NAME"), is((Object) name.toString()));
+        assertThat(results.get(1).get("AMOUNT"), is((Object) 2));
+    }
+
+    @Before
+    public void setup() {
+        config = new HashMap<>();
+
+        config.put("NAME", String.class);
+        config.put("AMOUNT", Integer.class);
+        config.put("CURRENCY", BigDecimal.class);
+        config.put("BOOLEAN", Boolean.class);
+        config.put("DATE", LocalDate.class);
+        config.put("TIME", LocalDateTime.class);
+
+        importer = new CsvImporter(config);
+    }
+
+    @Test
+    public void includeLineAndColumnWhenThrowingExceptionForInvalidValue() throws Exception {
+        InputStream input = csv("Name,Amount\nJohn Doe,1\nFulano,abc\n");
+
+        thrown.expect(ExcelImporterException.class);
+        thrown.expectMessage(is("For input string: \"abc\" (at line 3, column B)."));
+
+        importer.extractRows(input);
+    }
+
+    @Test
+    public void throwExceptionWhenProcessingFileWithInvalidColumn() throws Exception {
+        InputStream input = csv("Name,Invalid\nJohn Doe,1\n");
+
+        thrown.expect(ExcelImporterException.class);
+        thrown.expectMessage(is("Unknown column named Invalid."));
+
+        importer.extractRows(input);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.doit.commons.excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestExcelExporter {
+    private Map<String, Class<?>> config;
+
+    private ExcelExporter exporter;
+
+    private byte[] export(Stream<? extends Map<String, ?>> rows) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exporter.export(rows, output);
+
+        return output.toByteArray();
+    }
+
+    @Test
+    public void exportRowsThatCanBeImportedWithTheSameConfig() throws Exception {
+        Map<String, Object> row = new HashMap<>();
+
+        row.put("NAME", "John Doe");
+        row.put("AMOUNT", 123);
+        row.put("CURRENCY", new BigDecimal("12.5"));
+        row.put("BOOLEAN", true);
+        row.put("DATE", LocalDate.of(2014, 10, 10));
+        row.put("TIME", LocalDateTime.of(2014, 10, 10, 8, 30, 15));
+
+        byte[] spreadsheet = export(Stream.of(row));
+
+        List<Map<String, Object>> results = new ExcelImporter(config).extractRows(new ByteArrayInputStream(spreadsheet));
+
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0), is(row));
+    }
+
+    @Test
+    public void exportClearDataMarkerAndSkipNullValues() throws Exception {
+        Map<String, Object> row = new HashMap<>();
+
+        row.put("NAME", "John Doe");
+        row.put("AMOUNT", ExcelImporter.CLEAR_DATA_MARKER);
+        row.put("CURRENCY", null);
+
+        byte[] spreadsheet = export(Stream.of(row));
+
+        Map<String, Object> result = new ExcelImporter(config).extractRows(new ByteArrayInputStream(spreadsheet)).get(0);
+
+        assertThat(result.get("AMOUNT"), is(ExcelImporter.CLEAR_DATA_MARKER));
+        assertThat(result.get("CURRENCY"), nullValue());
+    }
+
+    @Test
+    public void exportHeaderInTheConfigOrder() throws Exception {
+        byte[] spreadsheet = export(Stream.empty());
+
+        Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(spreadsheet));
+
+        Row header = workbook.getSheetAt(0).getRow(0);
+
+        assertThat(header.getCell(0).getStringCellValue(), is("NAME"));
+        assertThat(header.getCell(5).getStringCellValue(), is("TIME"));
+    }
+
+    @Test
+    public void exportMoreRowsThanTheWindowKeptInMemory() throws Exception {
+        exporter = new ExcelExporter(config, 10);
+
+        byte[] spreadsheet = export(IntStream.range(0, 1000).mapToObj(i -> {
+            Map<String, Object> row = new HashMap<>();
+
+            row.put("AMOUNT", i);
+
+            return row;
+        }));
+
+        List<Map<String, Object>> results = new ExcelImporter(config, ExcelImporter.ReadingMode.STREAMING).extractRows(new ByteArrayInputStream(spreadsheet));
+
+        assertThat(results.size(), is(1000));
+        assertThat(results.get(999).get("AMOUNT"), is((Object) 999));
+    }
+
+    @Test(expected = ExcelExporterException.class)
+    public void throwExceptionWhenFailingToWriteSpreadsheet() throws Exception {
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+
+        exporter.export(Stream.empty(), output);
+    }
+
+    @Before
+    public void setup() {
+        config = new LinkedHashMap<>();
+
+        config.put("NAME", String.class);
+        config.put("AMOUNT", Integer.class);
+        config.put("CURRENCY", BigDecimal.class);
+        config.put("BOOLEAN", Boolean.class);
+        config.put("DATE", LocalDate.class);
+        config.put("TIME", LocalDateTime.class);
+
+        exporter = new ExcelExporter(config);
+    }
+}
@@ -1,15 +1,21 @@
 package br.com.doit.commons.excel;
 
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.joda.time.LocalDate;
 import org.junit.Before;
@@ -17,13 +23,16 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import br.com.doit.commons.excel.ExcelImporter.ReadingMode;
+import br.com.doit.commons.util.Try;
+
 import com.webobjects.foundation.NSTimestamp;
 
 /**
  * @author <a href="mailto:hprange@gmail.com.br">Henrique Prange</a>
  */
 public class TestExcelImporter {
-    private ExcelImporter importer;
+    protected ExcelImporter importer;
 
     @Rule
     public ExpectedException thrown = ExpectedException.none();
@@ -155,6 +164,137 @@ public class TestExcelImporter {
         assertThat(results.get(1).get("AMOUNT"), is((Object) 321));
     }
 
+    @Test
+    public void streamRowsOnDemandWhenProcessingSpreadsheet() throws Exception {
+        URL url = getClass().getResource("/importer/two_lines.xlsx");
+
+        try (Stream<Map<String, Object>> rows = importer.streamRows(url)) {
+            List<Object> names = rows.map(row -> row.get("NAME")).collect(toList());
+
+            assertThat(names, is(asList((Object) "John Doe", "Fulano de Tal")));
+        }
+    }
+
+    @Test
+    public void skipEmptyLineWhenStreamingRows() throws Exception {
+        InputStream input = getClass().getResourceAsStream("/importer/empty_line.xlsx");
+
+        try (Stream<Map<String, Object>> rows = importer.streamRows(input)) {
+            assertThat(rows.count(), is(1L));
+        }
+    }
+
+    @Test
+    public void processEachRowWhenProcessingSpreadsheet() throws Exception {
+        URL url = getClass().getResource("/importer/two_lines.xlsx");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        importer.forEachRow(url, results::add);
+
+        assertThat(results, is(importer.extractRows(url)));
+    }
+
+    @Test
+    public void extractRowsOfAllSheetsWhenProcessingSpreadsheetWithMultipleSheets() throws Exception {
+        URL url = getClass().getResource("/importer/multi_sheets.xlsx");
+
+        Map<String, Try<List<Map<String, Object>>>> results = importer.extractSheets(url);
+
+        assertThat(new ArrayList<>(results.keySet()), is(asList("Customers", "Suppliers", "Invalid")));
+
+        List<Map<String, Object>> customers = results.get("Customers").get();
+
+        assertThat(customers.size(), is(2));
+        assertThat(customers.get(1).get("NAME"), is((Object) "Fulano de Tal"));
+        assertThat(customers.get(1).get("AMOUNT"), is((Object) 321));
+        assertThat(results.get("Suppliers").get().get(0).get("NAME"), is((Object) "ACME"));
+        assertThat(results.get("Invalid").isFailure(), is(true));
+    }
+
+    @Test
+    public void useExecutorOnlyWhenSheetsCanBeReadConcurrently() throws Exception {
+        URL url = getClass().getResource("/importer/multi_sheets.xlsx");
+
+        AtomicInteger executedTasks = new AtomicInteger();
+
+        Map<String, Try<List<Map<String, Object>>>> results = importer.extractSheets(url, sheetName -> true, task -> {
+            executedTasks.incrementAndGet();
+
+            task.run();
+        });
+
+        assertThat(results.get("Customers").get().size(), is(2));
+        assertThat(executedTasks.get(), is(isConcurrentReadingSupported() ? 3 : 0));
+    }
+
+    @Test
+    public void extractRowsOnlyOfSelectedSheetsWhenProcessingSpreadsheetWithMultipleSheets() throws Exception {
+        URL url = getClass().getResource("/importer/multi_sheets.xlsx");
+
+        Map<String, Try<List<Map<String, Object>>>> results = importer.extractSheets(url, "Suppliers"::equals, Runnable::run);
+
+        assertThat(results.keySet().size(), is(1));
+        assertThat(results.get("Suppliers").get().get(0).get("AMOUNT"), is((Object) 7));
+    }
+
+    @Test
+    public void includeSheetNameWhenFailingToProcessOneOfMultipleSheets() throws Exception {
+        URL url = getClass().getResource("/importer/multi_sheets.xlsx");
+
+        Try<List<Map<String, Object>>> result = importer.extractSheets(url).get("Invalid");
+
+        List<RuntimeException> failures = new ArrayList<>();
+
+        result.ifFailure(failures::add);
+
+        assertThat(failures.get(0) instanceof ExcelImporterException, is(true));
+        assertThat(failures.get(0).getMessage(), is("Sheet Invalid: Unsupported cell type (at line 2, column B)."));
+    }
+
+    @Test
+    public void extractCachedResultOfFormulasWhenProcessingSpreadsheet() throws Exception {
+        URL url = getClass().getResource("/importer/formulas.xlsx");
+
+        List<Map<String, Object>> results = createImporterWithCategory().extractRows(url);
+
+        assertThat(results.get(0).get("NAME"), is((Object) "John Doe"));
+        assertThat(results.get(0).get("AMOUNT"), is((Object) 120));
+        assertThat(results.get(0).get("BOOLEAN"), is((Object) false));
+        assertThat(results.get(2).get("NAME"), is((Object) "Beltrano Doe"));
+        assertThat(results.get(2).get("AMOUNT"), is((Object) 122));
+        assertThat(results.get(2).get("BOOLEAN"), is((Object) true));
+    }
+
+    @Test
+    public void shareInstancesOfRepeatedTextsWhenStringDeduplicationIsEnabled() throws Exception {
+        URL url = getClass().getResource("/importer/formulas.xlsx");
+
+        ExcelImporter importer = new ExcelImporter(categoryConfig(), readingMode(), CellConverters.DEFAULT, true);
+
+        List<Map<String, Object>> results = importer.extractRows(url);
+
+        assertThat(results.get(0).get("CATEGORY"), is((Object) "Food"));
+        assertThat(results.get(1).get("CATEGORY"), sameInstance(results.get(0).get("CATEGORY")));
+        assertThat(results.get(2).get("CATEGORY"), sameInstance(results.get(0).get("CATEGORY")));
+    }
+
+    @Test
+    public void convertCellsUsingConvertersProvidedToImporter() throws Exception {
+        URL url = getClass().getResource("/importer/formulas.xlsx");
+
+        CellConverters converters = CellConverters.DEFAULT.with(String.class, cell -> Cells.toString(cell)
+                .toUpperCase());
+
+        ExcelImporter importer = new ExcelImporter(categoryConfig(), readingMode(), converters);
+
+        List<Map<String, Object>> results = importer.extractRows(url);
+
+        assertThat(results.get(0).get("NAME"), is((Object) "JOHN DOE"));
+        assertThat(results.get(0).get("AMOUNT"), is((Object) 120));
+        assertThat(createImporterWithCategory().extractRows(url).get(0).get("NAME"), is((Object) "John Doe"));
+    }
+
     @Test
     public void ignoreEmptyLineWhenProcessingSpreadsheet() throws Exception {
         URL url = getClass().getResource("/importer/empty_line.xlsx");
@@ -192,7 +332,34 @@ public class TestExcelImporter {
         config.put("CURRENCY", BigDecimal.class);
         config.put("BOOLEAN", Boolean.class);
 
-        importer = new ExcelImporter(config);
+        importer = createImporter(config);
+    }
+
+    private Map<String, Class<?>> categoryConfig() {
+        Map<String, Class<?>> config = new HashMap<>();
+
+        config.put("NAME", String.class);
+        config.put("AMOUNT", Integer.class);
+        config.put("BOOLEAN", Boolean.class);
+        config.put("CATEGORY", String.class);
+
+        return config;
+    }
+
+    private ExcelImporter createImporterWithCategory() {
+        return createImporter(categoryConfig());
+    }
+
+    protected ExcelImporter createImporter(Map<String, Class<?>> config) {
+        return new ExcelImporter(config, readingMode());
+    }
+
+    protected ReadingMode readingMode() {
+        return ReadingMode.IN_MEMORY;
+    }
+
+    protected boolean isConcurrentReadingSupported() {
+        return false;
     }
 
     @Test
@@ -205,6 +372,42 @@ public class TestExcelImporter {
         importer.extractRows(url);
     }
 
+    @Test
+    public void collectAllErrorsWhenProcessingSpreadsheetWithInvalidValues() throws Exception {
+        URL url = getClass().getResource("/importer/invalid_values.xlsx");
+
+        ExcelImportResult result = importer.extractRowsCollectingErrors(url);
+
+        assertThat(result.hasErrors(), is(true));
+        assertThat(result.getErrorCount(), is(2));
+        assertThat(result.getErrors(), is(asList("For input string: \"abc\" (at line 3, column B).", "Unsupported cell type (at line 4, column B).")));
+        assertThat(result.isErrorListTruncated(), is(false));
+        assertThat(result.getRows().size(), is(2));
+        assertThat(result.getRows().get(0).get("AMOUNT"), is((Object) 123));
+        assertThat(result.getRows().get(1).get("AMOUNT"), is((Object) 321));
+    }
+
+    @Test
+    public void limitErrorMessagesWhenCollectingErrors() throws Exception {
+        InputStream input = getClass().getResourceAsStream("/importer/invalid_values.xlsx");
+
+        ExcelImportResult result = importer.extractRowsCollectingErrors(input, 1);
+
+        assertThat(result.getErrorCount(), is(2));
+        assertThat(result.getErrors().size(), is(1));
+        assertThat(result.isErrorListTruncated(), is(true));
+    }
+
+    @Test
+    public void returnAllRowsWithoutErrorsWhenCollectingErrorsOfValidSpreadsheet() throws Exception {
+        URL url = getClass().getResource("/importer/two_lines.xlsx");
+
+        ExcelImportResult result = importer.extractRowsCollectingErrors(url);
+
+        assertThat(result.hasErrors(), is(false));
+        assertThat(result.getRows(), is(importer.extractRows(url)));
+    }
+
     @Test
     public void throwExceptionWhenProcessingSpreadsheetWithInvalidColumn() throws Exception {
         URL url = getClass().getResource("/importer/invalid_column.xlsx");
@@ -0,0 +1,114 @@
+package br.com.doit.commons.excel;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestExcelRow {
+    private ColumnPlan plan;
+
+    @Test
+    public void containOnlyColumnsThatWereSet() throws Exception {
+        ExcelRow row = plan.newRow();
+
+        row.setColumn(0, "John Doe");
+
+        assertThat(row.containsKey("NAME"), is(true));
+        assertThat(row.containsKey("AMOUNT"), is(false));
+        assertThat(row.size(), is(1));
+    }
+
+    @Test
+    public void containColumnsSetWithNullValue() throws Exception {
+        ExcelRow row = plan.newRow();
+
+        row.setColumn(1, null);
+
+        assertThat(row.containsKey("AMOUNT"), is(true));
+        assertThat(row.get("AMOUNT"), nullValue());
+    }
+
+    @Test
+    public void equalToHashMapWithSameEntries() throws Exception {
+        ExcelRow row = plan.newRow();
+
+        row.setColumn(0, "John Doe");
+        row.setColumn(1, 123);
+
+        Map<String, Object> expected = new HashMap<>();
+
+        expected.put("NAME", "John Doe");
+        expected.put("AMOUNT", 123);
+
+        assertThat(row.equals(expected), is(true));
+        assertThat(expected.equals(row), is(true));
+        assertThat(row.hashCode(), is(expected.hashCode()));
+    }
+
+    @Test
+    public void keepLastValueWhenColumnNameIsRepeated() throws Exception {
+        plan = new ColumnPlan(asList("NAME", "AMOUNT", "NAME"), config());
+
+        ExcelRow row = plan.newRow();
+
+        row.setColumn(0, "first");
+        row.setColumn(2, "second");
+
+        assertThat(row.get("NAME"), is((Object) "second"));
+        assertThat(row.size(), is(1));
+    }
+
+    @Test
+    public void putAndRemoveKeysOutsideOfThePlan() throws Exception {
+        ExcelRow row = plan.newRow();
+
+        row.put("EXTRA", BigDecimal.ONE);
+
+        assertThat(row.get("EXTRA"), is((Object) BigDecimal.ONE));
+        assertThat(row.size(), is(1));
+
+        row.remove("EXTRA");
+
+        assertThat(row.containsKey("EXTRA"), is(false));
+        assertThat(row.isEmpty(), is(true));
+    }
+
+    @Test
+    public void removeEntryThroughIterator() throws Exception {
+        ExcelRow row = plan.newRow();
+
+        row.setColumn(0, "John Doe");
+        row.setColumn(1, 123);
+
+        Iterator<Map.Entry<String, Object>> iterator = row.entrySet().iterator();
+
+        iterator.next();
+        iterator.remove();
+
+        assertThat(row.size(), is(1));
+        assertThat(row.containsKey("NAME"), is(false));
+    }
+
+    @Before
+    public void setup() {
+        plan = new ColumnPlan(asList("NAME", "AMOUNT"), config());
+    }
+
+    private Map<String, Class<?>> config() {
+        Map<String, Class<?>> config = new HashMap<>();
+
+        config.put("NAME", String.class);
+        config.put("AMOUNT", Integer.class);
+
+        return config;
+    }
+}
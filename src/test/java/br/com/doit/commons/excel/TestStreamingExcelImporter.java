@@ -0,0 +1,53 @@
+package br.com.doit.commons.excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import br.com.doit.commons.excel.ExcelImporter.ReadingMode;
+
+/**
+ * Executa os mesmos cenários de {@link TestExcelImporter} lendo as planilhas em modo streaming.
+ */
+public class TestStreamingExcelImporter extends TestExcelImporter {
+    @Override
+    protected ReadingMode readingMode() {
+        return ReadingMode.STREAMING;
+    }
+
+    @Override
+    protected boolean isConcurrentReadingSupported() {
+        return true;
+    }
+
+    @Test
+    public void extractSameRowsAsInMemoryModeWhenProcessingSpreadsheet() throws Exception {
+        Map<String, Class<?>> config = new HashMap<>();
+
+        config.put("NAME", String.class);
+        config.put("CURRENCY", BigDecimal.class);
+
+        List<Map<String, Object>> expected = new ExcelImporter(config).extractRows(getClass().getResource("/importer/empty_line.xlsx"));
+
+        List<Map<String, Object>> result = createImporter(config).extractRows(getClass().getResource("/importer/empty_line.xlsx"));
+
+        assertThat(result, is(expected));
+    }
+
+    @Test
+    public void throwExceptionWhenProcessingNonXlsxContent() throws Exception {
+        InputStream input = new ByteArrayInputStream("not a spreadsheet".getBytes());
+
+        thrown.expect(ExcelImporterException.class);
+
+        importer.extractRows(input);
+    }
+}
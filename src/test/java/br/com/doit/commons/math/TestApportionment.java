@@ -0,0 +1,382 @@
+package br.com.doit.commons.math;
+
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.BANKERS_ROUNDING;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.D_HONDT;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.LARGEST_REMAINDER;
+import static java.math.BigDecimal.ONE;
+import static java.math.BigDecimal.ZERO;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.doit.commons.math.MathUtils.RemainderDistributionMode;
+
+public class TestApportionment {
+    private static BigDecimal[] decimals(String... values) {
+        BigDecimal[] decimals = new BigDecimal[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            decimals[i] = new BigDecimal(values[i]);
+        }
+
+        return decimals;
+    }
+
+    private static BigDecimal[] ones(int size) {
+        BigDecimal[] ones = new BigDecimal[size];
+
+        for (int i = 0; i < size; i++) {
+            ones[i] = ONE;
+        }
+
+        return ones;
+    }
+
+    private static long[] unscaledShares(Allocation allocation) {
+        long[] shares = new long[allocation.size()];
+
+        for (int i = 0; i < shares.length; i++) {
+            shares[i] = allocation.getShare(i).unscaledValue().longValueExact();
+        }
+
+        return shares;
+    }
+
+    private Collection<Fraction> whole;
+
+    private Fraction addFraction(BigDecimal quantity, BigDecimal value) {
+        Fraction fraction = mock(Fraction.class);
+
+        when(fraction.quantity()).thenReturn(quantity);
+        when(fraction.value()).thenReturn(value);
+
+        whole.add(fraction);
+
+        return fraction;
+    }
+
+    /**
+     * Implementação direta dos métodos, ordenando todas as frações a cada unidade.
+     */
+    private long[] naiveShares(RemainderDistributionMode mode, long units, long[] weights) {
+        long total = 0;
+
+        for (long weight : weights) {
+            total += weight;
+        }
+
+        long[] shares = new long[weights.length];
+
+        if (mode == LARGEST_REMAINDER) {
+            long[] remainders = new long[weights.length];
+
+            long distributed = 0;
+
+            for (int i = 0; i < weights.length; i++) {
+                shares[i] = units * weights[i] / total;
+                remainders[i] = units * weights[i] % total;
+
+                distributed += shares[i];
+            }
+
+            for (; distributed < units; distributed++) {
+                int best = 0;
+
+                for (int i = 1; i < weights.length; i++) {
+                    if (remainders[i] > remainders[best]) {
+                        best = i;
+                    }
+                }
+
+                shares[best]++;
+                remainders[best] = -1;
+            }
+        } else {
+            for (long unit = 0; unit < units; unit++) {
+                int best = 0;
+
+                for (int i = 1; i < weights.length; i++) {
+                    if (weights[i] * (shares[best] + 1) > weights[best] * (shares[i] + 1)) {
+                        best = i;
+                    }
+                }
+
+                shares[best]++;
+            }
+        }
+
+        return shares;
+    }
+
+    @Test
+    public void distributeAmountWhenUsingLargestRemainderMethod() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("0.07"), LARGEST_REMAINDER).over(decimals("5",
+                "3", "2"), ones(3));
+
+        assertThat(allocation.getShares(), is(decimals("0.04", "0.02", "0.01")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeAmountWhenUsingLargestRemainderMethodAndRemaindersAreTied() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("10.00"), LARGEST_REMAINDER).over(decimals("1",
+                "1", "1"), ones(3));
+
+        assertThat(allocation.getShares(), is(decimals("3.34", "3.33", "3.33")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeNegativeAmountWhenUsingLargestRemainderMethod() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("-0.07"), LARGEST_REMAINDER).over(decimals("5",
+                "3", "2"), ones(3));
+
+        assertThat(allocation.getShares(), is(decimals("-0.04", "-0.02", "-0.01")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeAmountWhenTotalOfWeightsIsNegative() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("0.07"), LARGEST_REMAINDER).over(decimals("-5",
+                "-3", "-2"), ones(3));
+
+        assertThat(allocation.getShares(), is(decimals("0.04", "0.02", "0.01")));
+    }
+
+    @Test
+    public void distributeAmountWhenUsingDHondtMethod() throws Exception {
+        BigDecimal[] values = decimals("6", "1", "1", "1", "1");
+
+        Allocation largestRemainder = MathUtils.distribute(new BigDecimal("0.05"), LARGEST_REMAINDER).over(values,
+                ones(5));
+        Allocation dHondt = MathUtils.distribute(new BigDecimal("0.05"), D_HONDT).over(values, ones(5));
+
+        assertThat(largestRemainder.getShares(), is(decimals("0.03", "0.01", "0.01", "0.00", "0.00")));
+        assertThat(dHondt.getShares(), is(decimals("0.05", "0.00", "0.00", "0.00", "0.00")));
+        assertThat(dHondt.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionWhenDistributingNegativeAmountUsingDHondtMethod() throws Exception {
+        MathUtils.distribute(new BigDecimal("-1.00"), D_HONDT).over(decimals("1", "2"), ones(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionWhenWeightsHaveDifferentSignsUsingDHondtMethod() throws Exception {
+        MathUtils.distribute(new BigDecimal("1.00"), D_HONDT).over(decimals("-1", "2"), ones(2));
+    }
+
+    @Test
+    public void distributeAmountWhenUsingBankersRounding() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("0.05"), BANKERS_ROUNDING).over(decimals("6", "1",
+                "1", "1", "1"), ones(5));
+
+        assertThat(allocation.getShares(), is(decimals("0.03", "0.00", "0.00", "0.00", "0.00")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.02")));
+    }
+
+    @Test
+    public void returnNegativeRemainderWhenBankersRoundingDistributesMoreThanAmount() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("0.03"), BANKERS_ROUNDING).over(decimals("1", "1"),
+                ones(2));
+
+        assertThat(allocation.getShares(), is(decimals("0.02", "0.02")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("-0.01")));
+    }
+
+    @Test
+    public void distributeAmountUsingQuantityAsPartOfTheWeight() throws Exception {
+        Fraction fraction = addFraction(new BigDecimal("3"), new BigDecimal("0.5"));
+        Fraction fraction2 = addFraction(ONE, new BigDecimal("0.5"));
+
+        BigDecimal remainder = MathUtils.distribute(new BigDecimal("0.10"), LARGEST_REMAINDER).over(whole);
+
+        verify(fraction).setShare(new BigDecimal("0.08"));
+        verify(fraction2).setShare(new BigDecimal("0.02"));
+        assertThat(remainder, is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeAmountUsingCustomScale() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("10.50"), LARGEST_REMAINDER).withScale(0).over(
+                decimals("1", "1", "1"), ones(3));
+
+        assertThat(allocation.getShares(), is(decimals("4", "3", "3")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.50")));
+    }
+
+    @Test
+    public void distributeAmountUsingCustomScaleInOtherModes() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("10")).withScale(3).over(decimals("1", "1", "1"),
+                ones(3));
+
+        assertThat(allocation.getShares(), is(decimals("3.334", "3.333", "3.333")));
+        assertThat(allocation.getRemainder(), is(ZERO));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionWhenScaleIsNegative() throws Exception {
+        MathUtils.distribute(ONE).withScale(-1);
+    }
+
+    @Test
+    public void distributeAmountOverArraysOfUnscaledValues() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("0.07"), LARGEST_REMAINDER).over(new long[] { 50,
+                30, 20 }, 1, new long[] { 1, 1, 1 }, 0);
+
+        assertThat(allocation.getShares(), is(decimals("0.04", "0.02", "0.01")));
+    }
+
+    @Test
+    public void distributeAmountWhenWeightsOverflowLong() throws Exception {
+        Allocation allocation = MathUtils.distribute(ONE, LARGEST_REMAINDER).over(decimals("99999999999", "1"),
+                decimals("99999999999", "1"));
+
+        assertThat(allocation.getShares(), is(decimals("1.00", "0.00")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeAmountWhenWeightsInTheSameScaleOverflowLong() throws Exception {
+        BigDecimal[] values = decimals("0.0000000001", "1000000000");
+
+        for (RemainderDistributionMode mode : new RemainderDistributionMode[] { LARGEST_REMAINDER, D_HONDT,
+                BANKERS_ROUNDING }) {
+            Allocation allocation = MathUtils.distribute(new BigDecimal("10.00"), mode).over(values, ones(2));
+
+            assertThat(allocation.getShares(), is(decimals("0.00", "10.00")));
+            assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+        }
+    }
+
+    @Test
+    public void distributeAmountWhenAmountOverflowsLong() throws Exception {
+        Allocation allocation = MathUtils.distribute(new BigDecimal("100000000000000000000.01"), LARGEST_REMAINDER)
+                .over(decimals("1", "1"), ones(2));
+
+        assertThat(allocation.getShares(), is(decimals("50000000000000000000.01", "50000000000000000000.00")));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeWithSameResultsWhenWeightsOverflowLong() throws Exception {
+        Random random = new Random(17);
+
+        for (int i = 0; i < 500; i++) {
+            int size = 1 + random.nextInt(20);
+
+            BigDecimal[] values = new BigDecimal[size];
+
+            // Uma fração de valor zero com muitas casas decimais leva os demais pesos para além do limite do long
+            BigDecimal[] paddedValues = new BigDecimal[size + 1];
+
+            for (int j = 0; j < size; j++) {
+                values[j] = BigDecimal.valueOf(1 + random.nextInt(100000));
+                paddedValues[j] = values[j];
+            }
+
+            paddedValues[size] = new BigDecimal("0E-20");
+
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(5000), 2);
+
+            for (RemainderDistributionMode mode : new RemainderDistributionMode[] { LARGEST_REMAINDER, D_HONDT,
+                    BANKERS_ROUNDING }) {
+                Allocation expected = MathUtils.distribute(amount, mode).over(values, ones(size));
+                Allocation allocation = MathUtils.distribute(amount, mode).over(paddedValues, ones(size + 1));
+
+                assertThat(Arrays.copyOf(allocation.getShares(), size), is(expected.getShares()));
+                assertThat(allocation.getShare(size), is(new BigDecimal("0.00")));
+                assertThat(allocation.getRemainder(), is(expected.getRemainder()));
+            }
+        }
+    }
+
+    @Test
+    public void returnZeroWhenTotalOfWeightsIsZero() throws Exception {
+        Allocation allocation = MathUtils.distribute(ONE, D_HONDT).over(decimals("1", "-1"), ones(2));
+
+        assertThat(allocation.getShares(), is(new BigDecimal[] { ZERO, ZERO }));
+        assertThat(allocation.getRemainder(), is(ZERO));
+    }
+
+    @Test
+    public void distributeWithSameResultsOfNaiveImplementation() throws Exception {
+        Random random = new Random(5);
+
+        for (int i = 0; i < 2000; i++) {
+            int size = 1 + random.nextInt(30);
+
+            long[] weights = new long[size];
+
+            for (int j = 0; j < size; j++) {
+                weights[j] = random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(100000);
+            }
+
+            weights[random.nextInt(size)]++;
+
+            long[] quantities = new long[size];
+
+            Arrays.fill(quantities, 1);
+
+            long units = random.nextInt(5000);
+
+            BigDecimal amount = BigDecimal.valueOf(units, 2);
+
+            for (RemainderDistributionMode mode : new RemainderDistributionMode[] { LARGEST_REMAINDER, D_HONDT }) {
+                Allocation allocation = MathUtils.distribute(amount, mode).over(weights, 0, quantities, 0);
+
+                assertThat(allocation.toString(), unscaledShares(allocation), is(naiveShares(mode, units, weights)));
+            }
+        }
+    }
+
+    @Test
+    public void distributeInParallelWithSameResultsOfSequentialDistribution() throws Exception {
+        Random random = new Random(13);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            int size = 50000;
+
+            long[] values = new long[size];
+            long[] quantities = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                values[i] = random.nextInt(100000);
+                quantities[i] = 1 + random.nextInt(10);
+            }
+
+            BigDecimal amount = new BigDecimal("123456.789");
+
+            for (RemainderDistributionMode mode : new RemainderDistributionMode[] { LARGEST_REMAINDER, D_HONDT,
+                    BANKERS_ROUNDING }) {
+                Allocation expected = MathUtils.distribute(amount, mode).over(values, 2, quantities, 0);
+                Allocation allocation = MathUtils.distribute(amount, mode).inParallel(pool).over(values, 2, quantities,
+                        0);
+
+                assertThat(allocation.getShares(), is(expected.getShares()));
+                assertThat(allocation.getRemainder(), is(expected.getRemainder()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Before
+    public void setup() {
+        whole = new ArrayList<>();
+    }
+}
@@ -8,7 +8,9 @@ import static java.math.BigDecimal.ZERO;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +51,108 @@ public class TestProRataAllocationUtils {
         assertThat(remainder, is(new BigDecimal("0.02")));
     }
 
+    @Test
+    public void distributeAmountOverArrays() throws Exception {
+        BigDecimal[] values = { new BigDecimal("1.00"), new BigDecimal("1.00"), new BigDecimal("1.00") };
+        BigDecimal[] quantities = { ONE, ONE, ONE };
+
+        Allocation allocation = MathUtils.distribute(new BigDecimal("10.00")).over(values, quantities);
+
+        assertThat(allocation.getShares(), is(new BigDecimal[] { new BigDecimal("3.34"), new BigDecimal("3.33"),
+                new BigDecimal("3.33") }));
+        assertThat(allocation.getRemainder(), is(ZERO));
+    }
+
+    @Test
+    public void distributeAmountOverArraysOfUnscaledValues() throws Exception {
+        long[] values = { 1, 3989, 1, 3989 };
+        long[] quantities = { 1, 1, 1, 1 };
+
+        Allocation allocation = MathUtils.distribute(new BigDecimal("70")).over(values, 2, quantities, 0);
+
+        assertThat(allocation.getShares(), is(new BigDecimal[] { new BigDecimal("0.00"), new BigDecimal("35.01"),
+                new BigDecimal("0.00"), new BigDecimal("34.99") }));
+        assertThat(allocation.getRemainder(), is(ZERO));
+    }
+
+    @Test
+    public void distributeAmountOverArraysOfUnscaledValuesThatOverflowLong() throws Exception {
+        long[] values = { Long.MAX_VALUE, Long.MAX_VALUE };
+        long[] quantities = { 1, 3 };
+
+        Allocation allocation = MathUtils.distribute(new BigDecimal("10.00"), STRICTLY_PROPORTIONAL).over(values, 2,
+                quantities, 0);
+
+        assertThat(allocation.getShares(), is(new BigDecimal[] { new BigDecimal("2.50"), new BigDecimal("7.50") }));
+        assertThat(allocation.getRemainder(), is(new BigDecimal("0.00")));
+    }
+
+    @Test
+    public void distributeAmountOverArraysWhenTotalIsZero() throws Exception {
+        Allocation allocation = MathUtils.distribute(ONE).over(new BigDecimal[] { ONE }, new BigDecimal[] { ZERO });
+
+        assertThat(allocation.getShares(), is(new BigDecimal[] { ZERO }));
+        assertThat(allocation.getRemainder(), is(ZERO));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void distributeAmountOverArraysWithDifferentLengthsThrowsException() throws Exception {
+        MathUtils.distribute(ONE).over(new long[] { 1, 2 }, 2, new long[] { 1 }, 0);
+    }
+
+    @Test
+    public void distributeManyAmountsOverArrays() throws Exception {
+        BigDecimal[] values = { new BigDecimal("1.00"), new BigDecimal("1.00"), new BigDecimal("1.00") };
+        BigDecimal[] quantities = { ONE, ONE, ONE };
+
+        Allocations allocations = MathUtils.distribute(new BigDecimal("10.00"), new BigDecimal("0.10")).over(values,
+                quantities);
+
+        assertThat(allocations.size(), is(2));
+        assertThat(allocations.getShares(), is(new BigDecimal[][] {
+                { new BigDecimal("3.34"), new BigDecimal("3.33"), new BigDecimal("3.33") },
+                { new BigDecimal("0.04"), new BigDecimal("0.03"), new BigDecimal("0.03") } }));
+        assertThat(allocations.getRemainders(), is(new BigDecimal[] { ZERO, ZERO }));
+    }
+
+    @Test
+    public void distributeManyAmountsOverArraysOfUnscaledValuesUsingMode() throws Exception {
+        long[] values = { 1, 3 };
+        long[] quantities = { 1, 1 };
+
+        Allocations allocations = MathUtils.distribute(new BigDecimal[] { new BigDecimal("10.00"), new BigDecimal(
+                "0.03") }, STRICTLY_PROPORTIONAL).over(values, 2, quantities, 0);
+
+        assertThat(allocations.getShare(0, 1), is(new BigDecimal("7.50")));
+        assertThat(allocations.getShare(1, 0), is(new BigDecimal("0.00")));
+        assertThat(allocations.getShare(1, 1), is(new BigDecimal("0.02")));
+        assertThat(allocations.get(1).getRemainder(), is(new BigDecimal("0.01")));
+    }
+
+    @Test
+    public void distributeManyAmountsOverFractionsWithoutSettingShares() throws Exception {
+        Fraction fraction = addFraction(new BigDecimal("2"), ONE);
+        Fraction fraction2 = addFraction(new BigDecimal("2"), ONE);
+
+        Allocations allocations = MathUtils.distribute(TEN, ONE).over(whole);
+
+        assertThat(allocations.get(0).getShares(), is(new BigDecimal[] { new BigDecimal("5.00"),
+                new BigDecimal("5.00") }));
+        assertThat(allocations.get(1).getShares(), is(new BigDecimal[] { new BigDecimal("0.50"),
+                new BigDecimal("0.50") }));
+        verify(fraction, never()).setShare(any(BigDecimal.class));
+        verify(fraction2, never()).setShare(any(BigDecimal.class));
+    }
+
+    @Test
+    public void distributeManyAmountsWhenTotalIsZero() throws Exception {
+        Allocations allocations = MathUtils.distribute(ONE, TEN).over(new BigDecimal[] { ONE },
+                new BigDecimal[] { ZERO });
+
+        assertThat(allocations.getShares(), is(new BigDecimal[][] { { ZERO }, { ZERO } }));
+        assertThat(allocations.getRemainders(), is(new BigDecimal[] { ZERO, ZERO }));
+    }
+
     @Test
     public void distributeAmountEqualToZeroWhenAtLeastOneFraction() throws Exception {
         Fraction fraction = addFraction(ONE, ONE);
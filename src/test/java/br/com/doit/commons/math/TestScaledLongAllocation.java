@@ -0,0 +1,459 @@
+package br.com.doit.commons.math;
+
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.IGNORING_QUANTITY;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.STRICTLY_PROPORTIONAL;
+import static br.com.doit.commons.math.MathUtils.RemainderDistributionMode.UNEVENLY;
+import static java.math.BigDecimal.ONE;
+import static java.math.BigDecimal.ZERO;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import br.com.doit.commons.math.MathUtils.RemainderDistributionMode;
+
+public class TestScaledLongAllocation {
+    private static class Item implements Fraction {
+        private final BigDecimal quantity;
+        private final BigDecimal value;
+        private BigDecimal share;
+
+        Item(BigDecimal quantity, BigDecimal value) {
+            this.quantity = quantity;
+            this.value = value;
+        }
+
+        @Override
+        public BigDecimal quantity() {
+            return quantity;
+        }
+
+        @Override
+        public void setShare(BigDecimal share) {
+            this.share = share;
+        }
+
+        @Override
+        public BigDecimal value() {
+            return value;
+        }
+    }
+
+    /**
+     * Modos calculados com <code>long</code>s escalados. Os demais modos usam a mesma implementação nos dois caminhos.
+     */
+    private static final RemainderDistributionMode[] SCALED_MODES = { IGNORING_QUANTITY, STRICTLY_PROPORTIONAL,
+            UNEVENLY };
+
+    /**
+     * Cópia congelada da implementação original de <code>MathUtils.distribute(amount, mode).over(whole)</code>, usada
+     * como referência para os resultados dos demais caminhos de cálculo. A escala, fixa em <code>2</code> na
+     * implementação original, é recebida por parâmetro. Não deve acompanhar as alterações de {@link MathUtils}.
+     */
+    private static BigDecimal distributeAsOriginalImplementation(BigDecimal amount, RemainderDistributionMode mode,
+            int scale, Collection<Fraction> whole) {
+        List<Fraction> sorted = new ArrayList<Fraction>(whole);
+
+        Collections.sort(sorted, Collections.reverseOrder(new Comparator<Fraction>() {
+            @Override
+            public int compare(Fraction o1, Fraction o2) {
+                return o1.value().compareTo(o2.value());
+            }
+        }));
+
+        BigDecimal total = ZERO;
+
+        for (Fraction fraction : sorted) {
+            total = total.add(fraction.quantity().multiply(fraction.value()));
+        }
+
+        if (ZERO.compareTo(total) == 0) {
+            return ZERO;
+        }
+
+        BigDecimal totalShare = ZERO;
+
+        Map<Fraction, BigDecimal> shares = new HashMap<Fraction, BigDecimal>(sorted.size());
+
+        for (Fraction fraction : sorted) {
+            BigDecimal ratio = amount.multiply(fraction.value()).divide(total, scale, RoundingMode.FLOOR);
+
+            BigDecimal share = ratio.multiply(fraction.quantity()).setScale(scale, RoundingMode.FLOOR);
+
+            if (ZERO.compareTo(share) != 0) {
+                BigDecimal aux = share.divide(fraction.quantity(), scale, RoundingMode.FLOOR);
+
+                share = aux.multiply(fraction.quantity()).setScale(scale, RoundingMode.FLOOR);
+            }
+
+            shares.put(fraction, share);
+
+            totalShare = totalShare.add(share);
+        }
+
+        BigDecimal remainder = amount.subtract(totalShare);
+
+        for (Fraction fraction : sorted) {
+            BigDecimal share = shares.get(fraction);
+
+            if (mode != STRICTLY_PROPORTIONAL && (isRemainderDivisibleByQuantity(remainder, fraction.quantity(), scale) || mode == IGNORING_QUANTITY)) {
+                BigDecimal subtotal = fraction.value().multiply(fraction.quantity());
+
+                BigDecimal available = subtotal.subtract(share);
+
+                if (available.compareTo(ZERO) > 0 && remainder.compareTo(available) > 0) {
+                    remainder = remainder.subtract(available);
+
+                    share = subtotal;
+                } else {
+                    share = share.add(remainder);
+
+                    remainder = ZERO;
+                }
+            }
+
+            fraction.setShare(share);
+        }
+
+        return remainder;
+    }
+
+    private static boolean isRemainderDivisibleByQuantity(BigDecimal remainder, BigDecimal quantity, int scale) {
+        if (ZERO.compareTo(remainder) == 0 || ZERO.compareTo(quantity) == 0) {
+            return false;
+        }
+
+        return ZERO.compareTo(remainder.multiply(BigDecimal.TEN.pow(scale)).remainder(quantity)) == 0;
+    }
+
+    private static void assertSameDistribution(BigDecimal amount, RemainderDistributionMode mode, List<Item> items) {
+        assertSameDistribution(amount, mode, 2, items);
+    }
+
+    private static void assertSameDistribution(BigDecimal amount, RemainderDistributionMode mode, int scale,
+            List<Item> items) {
+        List<Fraction> expectedWhole = new ArrayList<>();
+        List<Fraction> decimalWhole = new ArrayList<>();
+        List<Fraction> whole = new ArrayList<>();
+
+        for (Item item : items) {
+            expectedWhole.add(new Item(item.quantity, item.value));
+            decimalWhole.add(new Item(item.quantity, item.value));
+            whole.add(new Item(item.quantity, item.value));
+        }
+
+        BigDecimal expectedRemainder = distributeAsOriginalImplementation(amount, mode, scale, expectedWhole);
+        BigDecimal decimalRemainder = MathUtils.distribute(amount, mode).withScale(scale).over(decimalWhole);
+        BigDecimal remainder = MathUtils.distribute(amount, mode).withScale(scale).usingScaledLongs().over(whole);
+
+        String description = "amount " + amount + ", mode " + mode + ", scale " + scale + ", items " + describe(items);
+
+        assertThat(description, decimalRemainder, is(expectedRemainder));
+        assertThat(description, remainder, is(expectedRemainder));
+
+        for (int i = 0; i < whole.size(); i++) {
+            assertThat(description, ((Item) decimalWhole.get(i)).share, is(((Item) expectedWhole.get(i)).share));
+            assertThat(description, ((Item) whole.get(i)).share, is(((Item) expectedWhole.get(i)).share));
+        }
+
+        BigDecimal[] values = new BigDecimal[items.size()];
+        BigDecimal[] quantities = new BigDecimal[items.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = items.get(i).value;
+            quantities[i] = items.get(i).quantity;
+        }
+
+        Allocation allocation = MathUtils.distribute(amount, mode).withScale(scale).usingScaledLongs().over(values,
+                quantities);
+
+        assertThat(description, allocation.getRemainder(), is(expectedRemainder));
+
+        for (int i = 0; i < values.length; i++) {
+            BigDecimal expectedShare = ((Item) expectedWhole.get(i)).share;
+
+            // Quando o total é zero nenhuma parte é atribuída às frações, mas o resultado em arrays contém zeros
+            assertThat(description, allocation.getShare(i), is(expectedShare == null ? ZERO : expectedShare));
+        }
+    }
+
+    private static void assertSameUnscaledDistribution(BigDecimal amount, RemainderDistributionMode mode, long[] values,
+            int valueScale, long[] quantities, int quantityScale) {
+        List<Fraction> expectedWhole = new ArrayList<>();
+
+        for (int i = 0; i < values.length; i++) {
+            expectedWhole.add(new Item(BigDecimal.valueOf(quantities[i], quantityScale), BigDecimal.valueOf(values[i],
+                    valueScale)));
+        }
+
+        BigDecimal expectedRemainder = distributeAsOriginalImplementation(amount, mode, 2, expectedWhole);
+
+        Allocation allocation = MathUtils.distribute(amount, mode).over(values, valueScale, quantities, quantityScale);
+
+        assertThat(allocation.toString(), allocation.getRemainder(), is(expectedRemainder));
+
+        for (int i = 0; i < values.length; i++) {
+            BigDecimal expectedShare = ((Item) expectedWhole.get(i)).share;
+
+            assertThat(allocation.toString(), allocation.getShare(i), is(expectedShare == null ? ZERO : expectedShare));
+        }
+    }
+
+    private static String describe(List<Item> items) {
+        StringBuilder description = new StringBuilder();
+
+        for (Item item : items) {
+            description.append(item.quantity).append(" x ").append(item.value).append("; ");
+        }
+
+        return description.toString();
+    }
+
+    private static BigDecimal randomDecimal(Random random, int maximumUnscaledValue, int maximumScale) {
+        return BigDecimal.valueOf(random.nextInt(maximumUnscaledValue + 1), random.nextInt(maximumScale + 1));
+    }
+
+    private static List<Item> randomItems(Random random) {
+        int size = random.nextInt(12);
+
+        List<Item> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            BigDecimal quantity = random.nextInt(8) == 0 ? ZERO : randomDecimal(random, 30, 3);
+            BigDecimal value = random.nextInt(8) == 0 ? ZERO : randomDecimal(random, 100000, 3);
+
+            if (random.nextInt(6) == 0) {
+                value = value.negate();
+            }
+
+            items.add(new Item(quantity, value));
+        }
+
+        return items;
+    }
+
+    @Test
+    public void distributeWithSameResultsOfBigDecimalImplementation() throws Exception {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            List<Item> items = randomItems(random);
+
+            BigDecimal amount = randomDecimal(random, 1000000, 4);
+
+            if (random.nextInt(10) == 0) {
+                amount = amount.negate();
+            }
+
+            for (RemainderDistributionMode mode : SCALED_MODES) {
+                assertSameDistribution(amount, mode, items);
+            }
+        }
+    }
+
+    @Test
+    public void distributeUnscaledValuesWithSameResultsOfBigDecimalImplementation() throws Exception {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 5000; i++) {
+            int size = random.nextInt(10);
+
+            long[] values = new long[size];
+            long[] quantities = new long[size];
+
+            for (int j = 0; j < size; j++) {
+                values[j] = random.nextInt(100000) - 10000;
+                quantities[j] = random.nextInt(50);
+            }
+
+            BigDecimal amount = randomDecimal(random, 1000000, 3);
+
+            for (RemainderDistributionMode mode : SCALED_MODES) {
+                assertSameUnscaledDistribution(amount, mode, values, random.nextInt(4), quantities, random.nextInt(4));
+            }
+        }
+    }
+
+    @Test
+    public void distributeWithSameResultsUsingOtherScales() throws Exception {
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5000; i++) {
+            List<Item> items = randomItems(random);
+
+            BigDecimal amount = randomDecimal(random, 1000000, 6);
+
+            for (RemainderDistributionMode mode : SCALED_MODES) {
+                assertSameDistribution(amount, mode, random.nextInt(7), items);
+            }
+        }
+    }
+
+    @Test
+    public void distributeManyAmountsWithSameResultsOfSingleAmounts() throws Exception {
+        Random random = new Random(19);
+
+        for (int i = 0; i < 2000; i++) {
+            List<Item> items = randomItems(random);
+
+            BigDecimal[] values = new BigDecimal[items.size()];
+            BigDecimal[] quantities = new BigDecimal[items.size()];
+
+            for (int j = 0; j < values.length; j++) {
+                values[j] = items.get(j).value;
+                quantities[j] = items.get(j).quantity;
+            }
+
+            BigDecimal[] amounts = new BigDecimal[1 + random.nextInt(4)];
+
+            for (int j = 0; j < amounts.length; j++) {
+                amounts[j] = randomDecimal(random, 100000, 3);
+            }
+
+            for (RemainderDistributionMode mode : SCALED_MODES) {
+                Allocations allocations = MathUtils.distribute(amounts, mode).over(values, quantities);
+                Allocations scaledAllocations = MathUtils.distribute(amounts, mode).usingScaledLongs().over(values,
+                        quantities);
+
+                for (int j = 0; j < amounts.length; j++) {
+                    Allocation expected = MathUtils.distribute(amounts[j], mode).over(values, quantities);
+
+                    assertThat(allocations.get(j).toString(), allocations.get(j).getShares(), is(expected.getShares()));
+                    assertThat(allocations.get(j).getRemainder(), is(expected.getRemainder()));
+                    assertThat(scaledAllocations.get(j).getShares(), is(expected.getShares()));
+                    assertThat(scaledAllocations.get(j).getRemainder(), is(expected.getRemainder()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void distributeInParallelWithSameResultsOfSequentialDistribution() throws Exception {
+        Random random = new Random(23);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                int size = 20000 + random.nextInt(20000);
+
+                BigDecimal[] values = new BigDecimal[size];
+                BigDecimal[] quantities = new BigDecimal[size];
+
+                for (int j = 0; j < size; j++) {
+                    values[j] = randomDecimal(random, 100000, 3);
+                    quantities[j] = randomDecimal(random, 30, 2);
+                }
+
+                BigDecimal amount = randomDecimal(random, 100000000, 3);
+
+                for (RemainderDistributionMode mode : SCALED_MODES) {
+                    Allocation expected = MathUtils.distribute(amount, mode).over(values, quantities);
+
+                    Allocation allocation = MathUtils.distribute(amount, mode).inParallel(pool).over(values, quantities);
+                    Allocation scaledAllocation = MathUtils.distribute(amount, mode).usingScaledLongs().inParallel(pool)
+                            .over(values, quantities);
+
+                    assertThat(allocation.getShares(), is(expected.getShares()));
+                    assertThat(allocation.getRemainder(), is(expected.getRemainder()));
+                    assertThat(scaledAllocation.getShares(), is(expected.getShares()));
+                    assertThat(scaledAllocation.getRemainder(), is(expected.getRemainder()));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void distributeWithSameResultsWhenValuesAreRepeated() throws Exception {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5000; i++) {
+            List<Item> items = new ArrayList<>();
+
+            for (int j = 0; j < 6; j++) {
+                items.add(new Item(BigDecimal.valueOf(1 + random.nextInt(13)), BigDecimal.valueOf(random.nextInt(3) + 1)));
+            }
+
+            BigDecimal amount = randomDecimal(random, 10000, 2);
+
+            for (RemainderDistributionMode mode : SCALED_MODES) {
+                assertSameDistribution(amount, mode, items);
+            }
+        }
+    }
+
+    @Test
+    public void distributeWithSameResultsWhenValuesOverflowLong() throws Exception {
+        List<Item> items = new ArrayList<>();
+
+        items.add(new Item(new BigDecimal("3"), new BigDecimal("123456789012345678901234.56")));
+        items.add(new Item(new BigDecimal("7"), new BigDecimal("987654321098765.43")));
+
+        for (RemainderDistributionMode mode : SCALED_MODES) {
+            assertSameDistribution(new BigDecimal("99999999999999999.99"), mode, items);
+            assertSameDistribution(new BigDecimal("1000.01"), mode, items);
+        }
+    }
+
+    @Test
+    public void distributeWithSameResultsWhenScalesAreNegative() throws Exception {
+        List<Item> items = new ArrayList<>();
+
+        items.add(new Item(new BigDecimal("2"), new BigDecimal("1E+3")));
+        items.add(new Item(ONE, new BigDecimal("3")));
+
+        assertSameDistribution(new BigDecimal("10.00"), UNEVENLY, items);
+        assertSameDistribution(new BigDecimal("10.00"), IGNORING_QUANTITY, items);
+        assertSameDistribution(new BigDecimal("10.00"), STRICTLY_PROPORTIONAL, items);
+    }
+
+    @Test
+    public void doNotAllocateWhenAmountHasTooManyDigits() throws Exception {
+        BigDecimal amount = new BigDecimal(BigInteger.TEN.pow(20));
+
+        ScaledLongAllocation allocation = ScaledLongAllocation.allocate(amount, UNEVENLY, 2, Whole.of(new BigDecimal[] {
+                ONE }, new BigDecimal[] { ONE }), null);
+
+        assertThat(allocation, nullValue());
+    }
+
+    @Test
+    public void doNotAllocateWhenCalculationOverflowsLong() throws Exception {
+        BigDecimal value = new BigDecimal("999999999999999999");
+
+        ScaledLongAllocation allocation = ScaledLongAllocation.allocate(ONE, UNEVENLY, 2, Whole.of(new BigDecimal[] {
+                value, value }, new BigDecimal[] { value, value }), null);
+
+        assertThat(allocation, nullValue());
+    }
+
+    @Test
+    public void returnZeroWhenTotalOfFractionsIsZero() throws Exception {
+        List<Fraction> whole = new ArrayList<>();
+
+        Item item = new Item(ZERO, ONE);
+
+        whole.add(item);
+
+        BigDecimal remainder = MathUtils.distribute(ONE).usingScaledLongs().over(whole);
+
+        assertThat(remainder, is(ZERO));
+        assertThat(item.share, nullValue());
+    }
+}
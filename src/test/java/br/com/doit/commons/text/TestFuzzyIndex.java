@@ -0,0 +1,181 @@
+package br.com.doit.commons.text;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import br.com.doit.commons.text.FuzzyIndex.Match;
+
+public class TestFuzzyIndex {
+    private static final List<String> PRODUCTS = asList("Refrigerante Guaraná Antarctica 2L", "Refrigerante Coca-Cola 2L", "Açúcar Refinado União 1kg", "Açúcar Cristal União 5kg", "Café Pilão Tradicional 500g", null, "Pão de Forma Integral 500g");
+
+    private final FuzzyIndex index = new FuzzyIndex(PRODUCTS);
+
+    @Test
+    public void findTheMostSimilarKeyDespiteTyposAndAccents() throws Exception {
+        List<Match> result = index.search("acucar refinado uniao 1 kg", 1);
+
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getIndex(), is(2));
+        assertThat(result.get(0).getKey(), is("Açúcar Refinado União 1kg"));
+    }
+
+    @Test
+    public void returnMatchesOrderedByScore() throws Exception {
+        List<Match> result = index.search("Guarana Antartica 2 litros", 3);
+
+        assertThat(result.get(0).getIndex(), is(0));
+
+        for (int i = 1; i < result.size(); i++) {
+            assertThat(result.get(i - 1).getScore() >= result.get(i).getScore(), is(true));
+        }
+    }
+
+    @Test
+    public void scoreIdenticalKeysWithOne() throws Exception {
+        List<Match> result = index.search("cafe pilao tradicional 500G", 5);
+
+        assertThat(result.get(0).getIndex(), is(4));
+        assertThat(result.get(0).getScore(), is(1.0));
+    }
+
+    @Test
+    public void limitTheNumberOfMatches() throws Exception {
+        assertThat(index.search("Refrigerante", 1).size(), is(1));
+        assertThat(index.search("Refrigerante", 10).size() > 1, is(true));
+    }
+
+    @Test
+    public void ignoreMatchesBelowTheMinimumScore() throws Exception {
+        for (Match match : index.search("Açúcar", 10, 0.3)) {
+            assertThat(match.getScore() >= 0.3, is(true));
+        }
+
+        assertThat(index.search("xyzw", 10, 0.1).isEmpty(), is(true));
+    }
+
+    @Test
+    public void breakTiesByIndexingOrder() throws Exception {
+        FuzzyIndex duplicates = new FuzzyIndex(asList("Leite", "Arroz", "Leite", "Leite"));
+
+        List<Match> result = duplicates.search("leite", 2);
+
+        assertThat(result.get(0).getIndex(), is(0));
+        assertThat(result.get(1).getIndex(), is(2));
+    }
+
+    @Test
+    public void returnNoMatchesForEmptyText() throws Exception {
+        assertThat(index.search(null, 10).isEmpty(), is(true));
+        assertThat(index.search(" - ", 10).isEmpty(), is(true));
+        assertThat(index.size(), is(7));
+    }
+
+    @Test
+    public void findTheSameMatchesAsALinearScan() throws Exception {
+        Random random = new Random(42);
+
+        List<String> keys = new ArrayList<>();
+
+        for (int i = 0; i < 3000; i++) {
+            keys.add("Produto " + random.nextInt(50) + " Marca " + random.nextInt(200) + (random.nextBoolean() ? " Integral" : " Light"));
+        }
+
+        FuzzyIndex large = new FuzzyIndex(keys);
+
+        for (int i = 0; i < 50; i++) {
+            String query = "produto " + random.nextInt(60) + " marca " + random.nextInt(250) + " integral";
+
+            double minimumScore = random.nextInt(3) * 0.3;
+
+            assertThat(indexes(large.search(query, 5, minimumScore)), is(linearScan(keys, query, 5, minimumScore)));
+        }
+    }
+
+    @Test
+    public void findTheSameMatchesWhenSearchingFromManyThreads() throws Exception {
+        List<String> queries = asList("acucar uniao", "refrigerante 2l", "pao integral", "cafe pilao", "coca cola");
+
+        List<List<Integer>> expected = new ArrayList<>();
+
+        for (String query : queries) {
+            expected.add(indexes(index.search(query, 3)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int t = 0; t < 16; t++) {
+                results.add(executor.submit(() -> {
+                    boolean isSame = true;
+
+                    for (int i = 0; i < 500; i++) {
+                        int q = i % queries.size();
+
+                        isSame &= indexes(index.search(queries.get(q), 3)).equals(expected.get(q));
+                    }
+
+                    return isSame;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Integer> indexes(List<Match> matches) {
+        List<Integer> indexes = new ArrayList<>();
+
+        for (Match match : matches) {
+            indexes.add(match.getIndex());
+        }
+
+        return indexes;
+    }
+
+    private static List<Integer> linearScan(List<String> keys, String query, int limit, double minimumScore) {
+        int[] queryTrigrams = SearchKeys.trigrams(query);
+
+        double[] scores = new double[keys.size()];
+
+        List<Integer> indexes = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i++) {
+            int[] trigrams = SearchKeys.trigrams(keys.get(i));
+
+            int common = 0;
+
+            for (int trigram : trigrams) {
+                if (Arrays.binarySearch(queryTrigrams, trigram) >= 0) {
+                    common++;
+                }
+            }
+
+            scores[i] = 2.0 * common / (queryTrigrams.length + trigrams.length);
+
+            if (common > 0 && scores[i] >= minimumScore) {
+                indexes.add(i);
+            }
+        }
+
+        indexes.sort((first, second) -> Double.compare(scores[second], scores[first]));
+
+        return indexes.subList(0, Math.min(limit, indexes.size()));
+    }
+}
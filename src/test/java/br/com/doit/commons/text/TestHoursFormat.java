@@ -4,7 +4,11 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.io.StringWriter;
+import java.text.FieldPosition;
 import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.Duration;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -36,6 +40,82 @@ public class TestHoursFormat {
         assertThat(result, is("1.000:01"));
     }
 
+    @Test
+    public void formatMoreThan1000000Hours() throws Exception {
+        String result = formatter.format(740740709);
+
+        assertThat(result, is("12.345.678:29"));
+    }
+
+    @Test
+    public void formatMinimumIntegerValue() throws Exception {
+        String result = formatter.format(Integer.MIN_VALUE);
+
+        assertThat(result, is("-35.791.394:08"));
+    }
+
+    @Test
+    public void formatIntoAppendable() throws Exception {
+        StringWriter writer = new StringWriter();
+
+        StringWriter result = formatter.format(-61, writer);
+
+        assertThat(result.toString(), is("-01:01"));
+    }
+
+    @Test
+    public void formatIntoStringBuilder() throws Exception {
+        StringBuilder builder = new StringBuilder("total: ");
+
+        StringBuilder result = formatter.format(60001, builder);
+
+        assertThat(result.toString(), is("total: 1.000:01"));
+    }
+
+    @Test
+    public void formatIntoStringBuffer() throws Exception {
+        StringBuffer buffer = new StringBuffer("total: ");
+
+        StringBuffer result = formatter.format(59, buffer, new FieldPosition(0));
+
+        assertThat(result.toString(), is("total: 00:59"));
+    }
+
+    @Test
+    public void formatDuration() throws Exception {
+        String result = formatter.format(Duration.ofHours(26).plusMinutes(5).plusSeconds(59));
+
+        assertThat(result, is("26:05"));
+    }
+
+    @Test
+    public void formatLong() throws Exception {
+        String result = formatter.format(6000000000L);
+
+        assertThat(result, is("100.000.000:00"));
+    }
+
+    @Test
+    public void formatMinutesMaximumLongValue() throws Exception {
+        String result = HoursFormat.formatMinutes(Long.MAX_VALUE);
+
+        assertThat(result, is("153.722.867.280.912.930:07"));
+    }
+
+    @Test
+    public void formatMinutesMinimumLongValue() throws Exception {
+        String result = HoursFormat.formatMinutes(Long.MIN_VALUE);
+
+        assertThat(result, is("-153.722.867.280.912.930:08"));
+    }
+
+    @Test
+    public void formatMinutesIntoStringBuilder() throws Exception {
+        StringBuilder result = HoursFormat.formatMinutes(-61L, new StringBuilder());
+
+        assertThat(result.toString(), is("-01:01"));
+    }
+
     @Test
     public void formatMoreThan60Minutes() throws Exception {
         String result = formatter.format(61);
@@ -88,6 +168,86 @@ public class TestHoursFormat {
         formatter.parseObject("asfdsfdaf");
     }
 
+    @Test
+    public void parseIgnoresFieldsAfterMinutes() throws Exception {
+        Object result = formatter.parseObject("01:02:03");
+
+        assertThat((Integer) result, is(62));
+    }
+
+    @Test
+    public void parseIgnoresEmptyFields() throws Exception {
+        Object result = formatter.parseObject("::01::30");
+
+        assertThat((Integer) result, is(90));
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseInvalidMinutesThrowsException() throws Exception {
+        formatter.parseObject("01:3x");
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseMissingMinutesThrowsException() throws Exception {
+        formatter.parseObject("01:");
+    }
+
+    @Test
+    public void parseWithPositionSetsErrorIndexForInvalidString() throws Exception {
+        ParsePosition position = new ParsePosition(0);
+
+        Object result = formatter.parseObject("1:aa", position);
+
+        assertThat(result, nullValue());
+        assertThat(position.getIndex(), is(0));
+        assertThat(position.getErrorIndex(), is(0));
+    }
+
+    @Test
+    public void parsePositiveSign() throws Exception {
+        Object result = formatter.parseObject("+01:30");
+
+        assertThat((Integer) result, is(90));
+    }
+
+    @Test
+    public void parseDuration() throws Exception {
+        Duration result = HoursFormat.parseDuration("26:05");
+
+        assertThat(result, is(Duration.ofMinutes(1565)));
+    }
+
+    @Test
+    public void parseMinutesBeyondIntegerRange() throws Exception {
+        long result = HoursFormat.parseMinutes("100.000.000:30");
+
+        assertThat(result, is(6000000030L));
+    }
+
+    @Test
+    public void parseMinutesMaximumLongValue() throws Exception {
+        long result = HoursFormat.parseMinutes("153.722.867.280.912.930:07");
+
+        assertThat(result, is(Long.MAX_VALUE));
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseMinutesOverflowThrowsException() throws Exception {
+        HoursFormat.parseMinutes("153.722.867.280.912.930:08");
+    }
+
+    @Test
+    public void parseMinutesNegativeHoursOnly() throws Exception {
+        long result = HoursFormat.parseMinutes("-100.000.000");
+
+        assertThat(result, is(-6000000000L));
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseObjectBeyondIntegerRangeThrowsException() throws Exception {
+        formatter.parseObject("100.000.000:30");
+    }
+
     @Test
     public void parseLessThan60Miutes() throws Exception {
         Object result = formatter.parseObject("00:59");
@@ -0,0 +1,97 @@
+package br.com.doit.commons.text;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class TestNormalizationCache {
+    @Test
+    public void countHitsAndMisses() throws Exception {
+        NormalizationCache cache = new NormalizationCache(TextNormalizer.ASCII, 100);
+
+        String first = cache.normalize("São Paulo");
+        String second = cache.normalize("São Paulo");
+        String third = cache.normalize("Florianópolis");
+
+        assertThat(first, is("Sao Paulo"));
+        assertThat(second, sameInstance(first));
+        assertThat(third, is("Florianopolis"));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void normalizeLikeTheCachedNormalizer() throws Exception {
+        NormalizationCache cache = new NormalizationCache(TextNormalizer.ALPHANUMERIC, 100);
+
+        String first = cache.normalize("Jaragu\u00e1 do Sul!");
+        String second = cache.normalize("Jaragu\u00e1 do Sul!");
+
+        assertThat(first, is(TextNormalizerUtils.stripNonAlphanumericChars("Jaragu\u00e1 do Sul!")));
+        assertThat(second, sameInstance(first));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void discardLeastRecentlyUsedTextsWhenCacheIsFull() throws Exception {
+        NormalizationCache cache = new NormalizationCache(TextNormalizer.ASCII, 160);
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.normalize("Cidade " + i);
+            cache.normalize("São Paulo");
+        }
+
+        assertThat(cache.size() <= 160, is(true));
+
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+
+        assertThat(cache.normalize("São Paulo"), is("Sao Paulo"));
+        assertThat(cache.getHitCount(), is(hits + 1));
+
+        assertThat(cache.normalize("Cidade 0"), is("Cidade 0"));
+        assertThat(cache.getMissCount(), is(misses + 1));
+    }
+
+    @Test
+    public void doNotCacheLongTexts() throws Exception {
+        NormalizationCache cache = new NormalizationCache(TextNormalizer.ASCII, 100);
+
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i <= NormalizationCache.MAX_CACHED_TEXT_LENGTH; i++) {
+            text.append('á');
+        }
+
+        cache.normalize(text.toString());
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void normalizeNullText() throws Exception {
+        NormalizationCache cache = new NormalizationCache(TextNormalizer.ASCII, 100);
+
+        assertThat(cache.normalize(null), nullValue());
+    }
+
+    @Test
+    public void clearCache() throws Exception {
+        NormalizationCache cache = new NormalizationCache(TextNormalizer.ASCII, 100);
+
+        cache.normalize("São Paulo");
+        cache.clear();
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionWhenMaximumSizeIsNotPositive() throws Exception {
+        new NormalizationCache(TextNormalizer.ASCII, 0);
+    }
+}
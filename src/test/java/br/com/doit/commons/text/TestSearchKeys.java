@@ -0,0 +1,74 @@
+package br.com.doit.commons.text;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class TestSearchKeys {
+    @Test
+    public void splitTextIntoFoldedLowerCaseTokens() throws Exception {
+        assertThat(SearchKeys.tokens("Coca-Cola Zero 2L (PET) c/ 6 un."), is(asList("coca", "cola", "zero", "2l", "pet", "c", "6", "un")));
+        assertThat(SearchKeys.tokens("  Açúcar  União "), is(asList("acucar", "uniao")));
+    }
+
+    @Test
+    public void generateTheSameTokenHashesForEquivalentTexts() throws Exception {
+        assertThat(SearchKeys.tokenHashes("Pão de Açúcar"), is(SearchKeys.tokenHashes("PAO DE ACUCAR")));
+        assertThat(SearchKeys.tokenHashes("Pão de Açúcar").length, is(3));
+    }
+
+    @Test
+    public void generateTrigramsWithPaddedTokens() throws Exception {
+        int[] trigrams = SearchKeys.trigrams("Pão pão");
+
+        assertThat(trigrams.length, is(4));
+
+        for (int trigram : trigrams) {
+            assertThat(trigram >= 0 && trigram <= SearchKeys.MAX_TRIGRAM, is(true));
+        }
+    }
+
+    @Test
+    public void generateSortedDistinctTrigrams() throws Exception {
+        int[] trigrams = SearchKeys.trigrams("banana 1000");
+
+        for (int i = 1; i < trigrams.length; i++) {
+            assertThat(trigrams[i - 1] < trigrams[i], is(true));
+        }
+
+        assertThat(SearchKeys.trigrams("arroz"), not(is(SearchKeys.trigrams("arros"))));
+    }
+
+    @Test
+    public void generateTheSamePhoneticKeyForDifferentSpellings() throws Exception {
+        assertThat(SearchKeys.phoneticKey("Souza"), is(SearchKeys.phoneticKey("Sousa")));
+        assertThat(SearchKeys.phoneticKey("Thiago"), is(SearchKeys.phoneticKey("Tiago")));
+        assertThat(SearchKeys.phoneticKey("Phelippe"), is(SearchKeys.phoneticKey("Felipe")));
+        assertThat(SearchKeys.phoneticKey("Luiz"), is(SearchKeys.phoneticKey("Luís")));
+        assertThat(SearchKeys.phoneticKey("Chuchu"), is(SearchKeys.phoneticKey("Xuxu")));
+        assertThat(SearchKeys.phoneticKey("Cássia"), is(SearchKeys.phoneticKey("Kassia")));
+        assertThat(SearchKeys.phoneticKey("Maçã"), is(SearchKeys.phoneticKey("Massa")));
+        assertThat(SearchKeys.phoneticKey("Ezequiel"), is(SearchKeys.phoneticKey("Ezekiel")));
+        assertThat(SearchKeys.phoneticKey("Jeferson"), is(SearchKeys.phoneticKey("Gefferson")));
+        assertThat(SearchKeys.phoneticKey("Bom Gosto"), is(SearchKeys.phoneticKey("Bon Gosto")));
+    }
+
+    @Test
+    public void generatePhoneticKeyForEachToken() throws Exception {
+        assertThat(SearchKeys.phoneticKey("Guaraná Antarctica"), is("guarana antarktika"));
+        assertThat(SearchKeys.phoneticHashes("Guaraná Antarctica").length, is(2));
+    }
+
+    @Test
+    public void handleNullText() throws Exception {
+        assertThat(SearchKeys.tokens(null).isEmpty(), is(true));
+        assertThat(SearchKeys.tokenHashes(null).length, is(0));
+        assertThat(SearchKeys.trigrams(null).length, is(0));
+        assertThat(SearchKeys.phoneticHashes(null).length, is(0));
+        assertThat(SearchKeys.phoneticKey(null), nullValue());
+    }
+}
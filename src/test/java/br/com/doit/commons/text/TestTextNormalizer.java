@@ -0,0 +1,167 @@
+package br.com.doit.commons.text;
+
+import static br.com.doit.commons.text.TextNormalizer.CharClass.ALNUM;
+import static br.com.doit.commons.text.TextNormalizer.CharClass.ALPHA;
+import static br.com.doit.commons.text.TextNormalizer.CharClass.DIGIT;
+import static br.com.doit.commons.text.TextNormalizer.CharClass.SPACE;
+import static br.com.doit.commons.text.TextNormalizer.CharClass.WHITESPACE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class TestTextNormalizer {
+    @Test
+    public void combineAllStepsInASinglePass() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().foldAccents().keep(ALNUM, SPACE).keep('.', ':').collapseWhitespace().lowerCase().trim().build();
+
+        String result = normalizer.normalize("  Av. Paulista,   Nº 1.578 -\tSão Paulo: SP  ");
+
+        assertThat(result, is("av. paulista n 1.578 sao paulo: sp"));
+    }
+
+    @Test
+    public void collapseLineBreaksAndTabsWhenCollapsingWhitespace() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().collapseWhitespace().build();
+
+        String result = normalizer.normalize("abc \t\r\n  def ");
+
+        assertThat(result, is("abc def "));
+    }
+
+    @Test
+    public void doNotChangeTextWhenNoStepIsConfigured() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().build();
+
+        String result = normalizer.normalize("Guaipá\t1443 ");
+
+        assertThat(result, is("Guaipá\t1443 "));
+    }
+
+    @Test
+    public void foldCharsOutsideLatinBlocksWhenFoldingAccents() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().foldAccents().build();
+
+        String result = normalizer.normalize("Việt Nam 中文");
+
+        assertThat(result, is("Viet Nam "));
+    }
+
+    @Test
+    public void keepNonAsciiCharsWhenNotFoldingAccents() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().keep(ALPHA, WHITESPACE).keep('ç', 'ã').build();
+
+        String result = normalizer.normalize("Açaí, maçã e limão");
+
+        assertThat(result, is("Aça maçã e limão"));
+    }
+
+    @Test
+    public void lowerCaseNonAsciiChars() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().lowerCase().build();
+
+        String result = normalizer.normalize("AÇÃO");
+
+        assertThat(result, is("ação"));
+    }
+
+    @Test
+    public void normalizeNullText() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().foldAccents().trim().build();
+
+        String result = normalizer.normalize(null);
+
+        assertThat(result, nullValue());
+    }
+
+    @Test
+    public void returnTheSameInstanceWhenNoCharIsChanged() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().foldAccents().keep(ALNUM, SPACE).collapseWhitespace().lowerCase().trim().build();
+
+        String text = "pao de forma 500g";
+
+        String result = normalizer.normalize(text);
+
+        assertThat(result, sameInstance(text));
+    }
+
+    @Test
+    public void collapseWhitespaceAfterAnUnchangedPrefix() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().collapseWhitespace().build();
+
+        String result = normalizer.normalize("pao de  forma");
+
+        assertThat(result, is("pao de forma"));
+    }
+
+    @Test
+    public void trimTextAfterRemovingChars() throws Exception {
+        TextNormalizer normalizer = TextNormalizer.builder().keep(DIGIT, SPACE).trim().build();
+
+        String result = normalizer.normalize("(11) 98765-4321.");
+
+        assertThat(result, is("11 987654321"));
+    }
+
+    @Test
+    public void normalizeAllTextsOfTheList() throws Exception {
+        List<String> result = TextNormalizer.PRODUCT_ALPHANUMERIC.normalizeAll(Arrays.asList("Açúcar 1kg ", null, "Café 500g!"));
+
+        assertThat(result, is(Arrays.asList("Acucar 1kg", null, "Cafe 500g")));
+    }
+
+    @Test
+    public void normalizeRepeatedTextsOnlyOnceInTheSameBatch() throws Exception {
+        String[] texts = { "Açúcar", "Café", new String("Açúcar") };
+
+        TextNormalizer.ASCII.normalizeInto(texts, texts);
+
+        assertThat(texts[0], is("Acucar"));
+        assertThat(texts[1], is("Cafe"));
+        assertThat(texts[2], sameInstance(texts[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionWhenDestinationArrayIsSmallerThanSourceArray() throws Exception {
+        TextNormalizer.ASCII.normalizeInto(new String[2], new String[1]);
+    }
+
+    @Test
+    public void normalizeLargeArraysInParallel() throws Exception {
+        String[] texts = new String[20_000];
+
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = "Pão " + (i % 100) + (i % 7 == 0 ? " Guaraná" : "");
+        }
+
+        String[] result = new String[texts.length];
+
+        TextNormalizer.ALPHANUMERIC.normalizeInto(texts, result, ForkJoinPool.commonPool());
+
+        for (int i = 0; i < texts.length; i++) {
+            assertThat(result[i], is(TextNormalizer.ALPHANUMERIC.normalize(texts[i])));
+        }
+    }
+
+    @Test
+    public void collectNormalizedTextsFromStream() throws Exception {
+        List<String> texts = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            texts.add("Maçã " + i % 10);
+        }
+
+        List<String> result = texts.parallelStream().collect(TextNormalizer.ASCII.toNormalizedList());
+
+        assertThat(result, is(TextNormalizer.ASCII.normalizeAll(texts)));
+        assertThat(Stream.of("Maçã", null).collect(TextNormalizer.ASCII.toNormalizedList()), is(Arrays.asList("Maca", null)));
+    }
+}
@@ -2,8 +2,13 @@ package br.com.doit.commons.text;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
+import java.util.Random;
+
 import org.junit.Test;
 
 /**
@@ -144,10 +149,116 @@ public class TestTextNormalizerUtils {
 
     }
 
+    @Test
+    public void removeEmojiSequencesWhenRemovingEmojis() throws Exception {
+        String text = "Fam\u00edlia \ud83d\udc68\u200d\ud83d\udc69\u200d\ud83d\udc67 \u2764\ufe0f 1\ufe0f\u20e3 \ud83c\udde7\ud83c\uddf7 \ud83c\udff4\udb40\udc67\udb40\udc62\udb40\udc7f fim";
+
+        String result = TextNormalizerUtils.removeEmojis(text);
+
+        assertThat(result, is("Fam\u00edlia 1 fim"));
+    }
+
+    @Test
+    public void keepZeroWidthJoinerBetweenLettersWhenRemovingEmojis() throws Exception {
+        String text = "\u0915\u094d\u200d\u0937";
+
+        String result = TextNormalizerUtils.removeEmojis(text);
+
+        assertThat(result, sameInstance(text));
+    }
+
+    @Test
+    public void collapseAllSpacesWhenRemovingEmojis() throws Exception {
+        String result = TextNormalizerUtils.removeEmojis("a   b \ud83d\ude00  \ud83d\ude00 c\n\td");
+
+        assertThat(result, is("a b c\n\td"));
+    }
+
+    @Test
+    public void produceTheSameResultsAsTheRegularExpressionWhenRemovingEmojisWithoutSequences() throws Exception {
+        String alphabet = "aZ9 \t\n\u00e1\u00e7.,!*&$+<\u00a0\u2028\u200b\u0301\u4e2d\u0416\u00a9\u2600\ud83d\ude00\ud83c\udffd\ud800\u0007";
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder text = new StringBuilder();
+
+            for (int j = random.nextInt(20); j > 0; j--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            String value = text.toString();
+            String expected = value.replaceAll("[^\\p{L}\\p{M}\\p{N}\\p{P}\\p{Z}\\p{Cf}\\p{Cs}\\s]", "").replaceAll(" {2,}", " ");
+
+            assertThat(TextNormalizerUtils.removeEmojis(value), is(expected));
+        }
+    }
+
     @Test
     public void stripNonAlphanumericCharsForProducts() throws Exception {
         String result = TextNormalizerUtils.stripNonAlphanumericCharsForProducts("Product 0.5%/0,5ml \r\n\t `~@#$ˆ&*()_-+={[}]|\\:;\"'<>?");
 
         assertThat(result, is("Product 0.5%/0,5ml"));
     }
+
+    @Test
+    public void foldLatinCharsToAscii() throws Exception {
+        String result = TextNormalizerUtils.toAscii("\u00c1\u00e9\u00ee\u00f5\u00fc \u00c7\u00e7 \u00d1 \u0106\u0151\u017e \u00c6\u00df\u00f8");
+
+        assertThat(result, is("Aeiou Cc N Coz "));
+    }
+
+    @Test
+    public void foldCharsOutsideLatinBlocksToAscii() throws Exception {
+        String result = TextNormalizerUtils.toAscii("\u1ea0\u1ec7 \u212a \u00e3\u01ce");
+
+        assertThat(result, is("Ae K aa"));
+    }
+
+    @Test
+    public void returnTheSameInstanceWhenTextIsAlreadyAscii() throws Exception {
+        String text = "joao.silva@example.com";
+
+        String result = TextNormalizerUtils.toAscii(text);
+
+        assertThat(result, sameInstance(text));
+    }
+
+    @Test
+    public void foldOnlyTheNonAsciiTailOfTheText() throws Exception {
+        String result = TextNormalizerUtils.toAscii("SKU-0001 Pa\u0303o Vie\u0323\u0302t \u1ec7\u0301");
+
+        assertThat(result, is("SKU-0001 Pao Viet e"));
+    }
+
+    @Test
+    public void stripNonNumericCharsKeepsOnlyAsciiDigits() throws Exception {
+        String result = TextNormalizerUtils.stripNonNumericChars("(11) 9\u0661876-54\u00b2 32");
+
+        assertThat(result, is("1198765432"));
+    }
+
+    @Test
+    public void produceTheSameResultsAsTheRegularExpressions() throws Exception {
+        String alphabet = "aAzZ09 \t\n\r\u000B\f.,:-%/_*\u00e1\u00c7\u00f5\u00e6\u00df\u0151\u017f\u1ea0\u212a\u0301\u4e2d\ud83d\ude00\u00a0";
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder text = new StringBuilder();
+
+            for (int j = random.nextInt(20); j > 0; j--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            String value = text.toString();
+            String ascii = Normalizer.normalize(value, Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+
+            assertThat(TextNormalizerUtils.toAscii(value), is(ascii));
+            assertThat(TextNormalizerUtils.stripNonAlphanumericChars(value), is(ascii.replaceAll("[^a-zA-Z0-9\\s]", "").replaceAll("[\\n\\r\\t]", "").trim()));
+            assertThat(TextNormalizerUtils.lightStripNonAlphanumericChars(value), is(ascii.replaceAll("[^a-zA-Z0-9\\s\\.:-]", "").replaceAll("[\\n\\r\\t]", "").trim()));
+            assertThat(TextNormalizerUtils.stripNonAlphanumericCharsForProducts(value), is(ascii.replaceAll("[^a-zA-Z0-9\\s\\.,%/]", "").replaceAll("[\\n\\r\\t]", "").trim()));
+            assertThat(TextNormalizerUtils.stripNonNumericChars(value), is(value.replaceAll("[^\\d]", "")));
+        }
+    }
 }